@@ -2,6 +2,7 @@ package com.mechanicondemand;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Main Spring Boot Application Class
@@ -10,8 +11,11 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  * - @Configuration: Marks this class as a configuration class
  * - @EnableAutoConfiguration: Enables Spring Boot auto-configuration
  * - @ComponentScan: Scans for components in the package and sub-packages
+ * 
+ * @EnableScheduling turns on @Scheduled background jobs (e.g. location flushes)
  */
 @SpringBootApplication
+@EnableScheduling
 public class MechanicOnDemandApplication {
 
     /**
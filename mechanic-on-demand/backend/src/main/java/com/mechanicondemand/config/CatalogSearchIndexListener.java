@@ -0,0 +1,87 @@
+package com.mechanicondemand.config;
+
+import com.mechanicondemand.entity.MechanicService;
+import com.mechanicondemand.service.CatalogSearchIndex;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * CatalogSearchIndexListener - Keeps CatalogSearchIndex current on MechanicService writes
+ *
+ * Registered with Hibernate's event listener registry at startup, so the
+ * entity itself knows nothing about the index. Post-commit events only fire
+ * once the transaction has committed, so a rolled back write is never
+ * searchable. Bulk JPQL updates bypass these events, as they bypass JPA
+ * callbacks.
+ */
+@Component
+public class CatalogSearchIndexListener
+        implements PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CatalogSearchIndex catalogSearchIndex;
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+            .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof MechanicService) {
+            catalogSearchIndex.updateService((MechanicService) event.getEntity());
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof MechanicService) {
+            catalogSearchIndex.updateService((MechanicService) event.getEntity());
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof MechanicService) {
+            catalogSearchIndex.remove(CatalogSearchIndex.Kind.SERVICE, (Long) event.getId());
+        }
+    }
+
+    // Nothing was committed, so there is nothing to index
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return MechanicService.class.isAssignableFrom(persister.getMappedClass());
+    }
+}
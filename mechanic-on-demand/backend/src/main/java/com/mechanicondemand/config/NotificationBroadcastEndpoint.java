@@ -0,0 +1,60 @@
+package com.mechanicondemand.config;
+
+import com.mechanicondemand.entity.Notification;
+import com.mechanicondemand.entity.User;
+import com.mechanicondemand.service.NotificationFanout;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * NotificationBroadcastEndpoint - Actuator endpoint for system announcements
+ *
+ * POST /api/actuator/broadcast  {"title": "...", "message": "...", "userType": "MECHANIC"}
+ * Sends a SYSTEM notification to every active user (or every active user of
+ * userType) and answers when all of them are written.
+ * Status Codes: 200 (sent), 400 (missing text or unknown user type), 409 (a broadcast is running)
+ */
+@Component
+@Endpoint(id = "broadcast")
+public class NotificationBroadcastEndpoint {
+
+    @Autowired
+    private NotificationFanout notificationFanout;
+
+    @WriteOperation
+    public WebEndpointResponse<Map<String, Object>> broadcast(String title, String message, @Nullable String userType) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        if (title.trim().isEmpty() || message.trim().isEmpty()) {
+            response.put("error", "Title and message are required");
+            return new WebEndpointResponse<>(response, WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+
+        User.UserType type;
+        try {
+            type = userType != null ? User.UserType.valueOf(userType.toUpperCase()) : null;
+        } catch (IllegalArgumentException e) {
+            response.put("error", "Unknown user type: " + userType);
+            return new WebEndpointResponse<>(response, WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+
+        long startedAt = System.currentTimeMillis();
+        try {
+            long written = notificationFanout.broadcast(title, message, Notification.NotificationType.SYSTEM, type);
+            response.put("message", "Broadcast sent");
+            response.put("recipients", written);
+            response.put("durationMs", System.currentTimeMillis() - startedAt);
+            return new WebEndpointResponse<>(response);
+        } catch (NotificationFanout.BroadcastInProgressException e) {
+            response.put("error", e.getMessage());
+            return new WebEndpointResponse<>(response, HttpStatus.CONFLICT.value());
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.mechanicondemand.config;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ReadYourWritesInterceptor - Keeps a user's reads on the primary right after their writes
+ *
+ * A replica may not have replayed a write yet, so a user who just created a
+ * booking could miss it in their history. After any POST, PUT, PATCH or
+ * DELETE by a user, that user's requests use the primary for windowMs.
+ * A client can also ask for it on a single request with the header
+ * X-Read-Your-Writes: true.
+ */
+public class ReadYourWritesInterceptor implements HandlerInterceptor {
+
+    public static final String HEADER = "X-Read-Your-Writes";
+
+    // Username -> time until which their reads go to the primary
+    private final Map<String, Long> pinnedUntil = new ConcurrentHashMap<>();
+
+    private final long windowMs;
+
+    public ReadYourWritesInterceptor(long windowMs) {
+        this.windowMs = windowMs;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String username = currentUsername();
+        Long until = username != null ? pinnedUntil.get(username) : null;
+
+        if ("true".equalsIgnoreCase(request.getHeader(HEADER))
+                || (until != null && until > System.currentTimeMillis())) {
+            ReplicaRoutingDataSource.pinToPrimary();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        ReplicaRoutingDataSource.unpin();
+
+        String username = currentUsername();
+        if (username != null && isWrite(request.getMethod())) {
+            pinnedUntil.put(username, System.currentTimeMillis() + windowMs);
+        }
+    }
+
+    /**
+     * Forget users whose window has passed
+     */
+    @Scheduled(fixedDelayString = "${datasource.replicas.read-your-writes-sweep-ms:60000}")
+    public void expire() {
+        long now = System.currentTimeMillis();
+        pinnedUntil.values().removeIf(until -> until <= now);
+    }
+
+    private static boolean isWrite(String method) {
+        return "POST".equals(method) || "PUT".equals(method) || "PATCH".equals(method) || "DELETE".equals(method);
+    }
+
+    private static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
@@ -0,0 +1,88 @@
+package com.mechanicondemand.config;
+
+import com.mechanicondemand.entity.PricingPlan;
+import com.mechanicondemand.entity.ServiceCategory;
+import com.mechanicondemand.repository.ServiceCategoryRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ReferenceDataCacheEndpoint - Actuator endpoint for the reference data cache
+ *
+ * GET    /api/actuator/referencecache  hit/miss/put counts per cache region
+ * DELETE /api/actuator/referencecache  evict service categories, pricing plans
+ *                                      and their cached query results (use after
+ *                                      editing them directly in the database)
+ */
+@Component
+@Endpoint(id = "referencecache")
+public class ReferenceDataCacheEndpoint {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReferenceDataCacheEndpoint.class);
+
+    private static final List<Class<?>> CACHED_ENTITIES = Arrays.asList(ServiceCategory.class, PricingPlan.class);
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @ReadOperation
+    public Map<String, Object> statistics() {
+        Statistics statistics = sessionFactory().getStatistics();
+
+        Map<String, Object> regions = new LinkedHashMap<>();
+        for (Class<?> entity : CACHED_ENTITIES) {
+            regions.put(entity.getName(), regionStatistics(statistics.getDomainDataRegionStatistics(entity.getName())));
+        }
+        regions.put(ServiceCategoryRepository.QUERY_CACHE_REGION,
+            regionStatistics(statistics.getQueryRegionStatistics(ServiceCategoryRepository.QUERY_CACHE_REGION)));
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("statisticsEnabled", statistics.isStatisticsEnabled());
+        response.put("regions", regions);
+        return response;
+    }
+
+    @DeleteOperation
+    public Map<String, String> evict() {
+        org.hibernate.Cache cache = sessionFactory().getCache();
+        for (Class<?> entity : CACHED_ENTITIES) {
+            cache.evictEntityData(entity);
+        }
+        cache.evictQueryRegion(ServiceCategoryRepository.QUERY_CACHE_REGION);
+        logger.info("Reference data cache evicted");
+
+        Map<String, String> response = new LinkedHashMap<>();
+        response.put("message", "Reference data cache evicted");
+        return response;
+    }
+
+    private Map<String, Object> regionStatistics(CacheRegionStatistics region) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        // Query regions only exist once a cacheable query has run
+        long hits = region != null ? region.getHitCount() : 0;
+        long misses = region != null ? region.getMissCount() : 0;
+        result.put("hits", hits);
+        result.put("misses", misses);
+        result.put("puts", region != null ? region.getPutCount() : 0);
+        result.put("hitRatio", hits + misses > 0 ? (double) hits / (hits + misses) : 0.0);
+        return result;
+    }
+
+    private SessionFactory sessionFactory() {
+        return entityManagerFactory.unwrap(SessionFactory.class);
+    }
+}
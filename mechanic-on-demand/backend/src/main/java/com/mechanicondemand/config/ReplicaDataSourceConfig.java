@@ -0,0 +1,123 @@
+package com.mechanicondemand.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * ReplicaDataSourceConfig - Primary plus read replica connection pools
+ *
+ * Only active with datasource.replicas.enabled=true; otherwise
+ * ReportingDataSourceConfig declares the single spring.datasource pool.
+ *
+ * - primaryDataSource: the spring.datasource.* pool (writes; Flyway uses it directly)
+ * - one Hikari pool per URL in datasource.replicas.urls
+ * - dataSource (@Primary, used by JPA and JdbcTemplate): a lazy proxy over
+ *   ReplicaRoutingDataSource, so read-only transactions land on a replica
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.replicas.enabled", havingValue = "true")
+public class ReplicaDataSourceConfig implements WebMvcConfigurer, DisposableBean {
+
+    @Value("${datasource.replicas.urls}")
+    private String[] replicaUrls;
+
+    @Value("${datasource.replicas.username:${spring.datasource.username}}")
+    private String replicaUsername;
+
+    @Value("${datasource.replicas.password:${spring.datasource.password}}")
+    private String replicaPassword;
+
+    @Value("${datasource.replicas.maximum-pool-size:10}")
+    private int replicaPoolSize;
+
+    @Value("${datasource.replicas.max-lag-seconds:5}")
+    private long maxLagSeconds;
+
+    @Value("${datasource.replicas.read-your-writes-ms:5000}")
+    private long readYourWritesMs;
+
+    private final Map<String, HikariDataSource> replicaPools = new LinkedHashMap<>();
+
+    /**
+     * The write pool, configured from spring.datasource.* as before
+     */
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName(ReplicaRoutingDataSource.PRIMARY);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(DataSourceProperties properties, MeterRegistry meterRegistry) {
+        for (int i = 0; i < replicaUrls.length; i++) {
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("replica-" + (i + 1));
+            pool.setJdbcUrl(replicaUrls[i].trim());
+            pool.setUsername(replicaUsername);
+            pool.setPassword(replicaPassword);
+            pool.setDriverClassName(properties.determineDriverClassName());
+            pool.setMaximumPoolSize(replicaPoolSize);
+            pool.setReadOnly(true);
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicaPools.put(pool.getPoolName(), pool);
+        }
+        return new ReplicaLagMonitor(new LinkedHashMap<>(replicaPools), maxLagSeconds, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+                                 ReplicaLagMonitor replicaLagMonitor) {
+        Map<Object, Object> targets = new HashMap<>(replicaPools);
+        targets.put(ReplicaRoutingDataSource.PRIMARY, primaryDataSource);
+
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(replicaLagMonitor);
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(primaryDataSource);
+        routing.afterPropertiesSet();
+
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(routing);
+        // Known up front, so the proxy does not borrow a connection to find out
+        proxy.setDefaultAutoCommit(true);
+        proxy.setDefaultTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+        return proxy;
+    }
+
+    @Bean
+    public ReadYourWritesInterceptor readYourWritesInterceptor() {
+        return new ReadYourWritesInterceptor(readYourWritesMs);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(readYourWritesInterceptor());
+    }
+
+    @Override
+    public void destroy() {
+        replicaPools.values().forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,119 @@
+package com.mechanicondemand.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ReplicaLagMonitor - Tracks how far each read replica is behind the primary
+ *
+ * Polls SHOW REPLICA STATUS (SHOW SLAVE STATUS before MySQL 8.0.22) and
+ * publishes the lag as the datasource.replica.lag gauge (seconds, -1 when
+ * unknown). Replicas that are unreachable, not replicating, or lagging more
+ * than maxLagSeconds are taken out of the read rotation until they recover.
+ *
+ * An instance that is not configured as a replica at all reports a lag of 0,
+ * so two independent local databases can be used to try out the routing.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private static final double UNKNOWN_LAG = -1;
+
+    private final Map<String, JdbcTemplate> replicas = new LinkedHashMap<>();
+
+    private final Map<String, Double> lagSeconds = new LinkedHashMap<>();
+
+    private final long maxLagSeconds;
+
+    private volatile List<String> healthyReplicas;
+
+    public ReplicaLagMonitor(Map<String, DataSource> replicas, long maxLagSeconds, MeterRegistry meterRegistry) {
+        this.maxLagSeconds = maxLagSeconds;
+        for (Map.Entry<String, DataSource> replica : replicas.entrySet()) {
+            String name = replica.getKey();
+            this.replicas.put(name, new JdbcTemplate(replica.getValue()));
+            this.lagSeconds.put(name, UNKNOWN_LAG);
+            Gauge.builder("datasource.replica.lag", this, monitor -> monitor.getLagSeconds(name))
+                .tag("replica", name)
+                .description("Seconds the read replica is behind the primary (-1 = unknown)")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        }
+        // Until the first check, trust every replica
+        this.healthyReplicas = Collections.unmodifiableList(new ArrayList<>(replicas.keySet()));
+        Gauge.builder("datasource.replica.healthy", this, monitor -> monitor.getHealthyReplicas().size())
+            .description("Read replicas currently receiving read-only transactions")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Replicas that may serve reads right now
+     */
+    public List<String> getHealthyReplicas() {
+        return healthyReplicas;
+    }
+
+    public synchronized double getLagSeconds(String replica) {
+        return lagSeconds.getOrDefault(replica, UNKNOWN_LAG);
+    }
+
+    /**
+     * Measure the lag of every replica and update the read rotation
+     */
+    @Scheduled(fixedDelayString = "${datasource.replicas.lag-check-ms:5000}")
+    public void check() {
+        List<String> healthy = new ArrayList<>(replicas.size());
+        for (Map.Entry<String, JdbcTemplate> replica : replicas.entrySet()) {
+            double lag = measure(replica.getKey(), replica.getValue());
+            synchronized (this) {
+                lagSeconds.put(replica.getKey(), lag);
+            }
+            if (lag >= 0 && lag <= maxLagSeconds) {
+                healthy.add(replica.getKey());
+            }
+        }
+
+        if (healthy.size() != healthyReplicas.size()) {
+            logger.info("Read replicas in rotation: {} of {}", healthy, replicas.keySet());
+        }
+        healthyReplicas = Collections.unmodifiableList(healthy);
+    }
+
+    private double measure(String name, JdbcTemplate replica) {
+        List<Map<String, Object>> status;
+        String lagColumn = "Seconds_Behind_Source";
+        try {
+            try {
+                status = replica.queryForList("SHOW REPLICA STATUS");
+            } catch (DataAccessException e) {
+                // MySQL before 8.0.22 and MariaDB
+                status = replica.queryForList("SHOW SLAVE STATUS");
+                lagColumn = "Seconds_Behind_Master";
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Cannot read the replication status of {}: {}", name, e.getMostSpecificCause().getMessage());
+            return UNKNOWN_LAG;
+        }
+
+        if (status.isEmpty()) {
+            // Not a replica (e.g. a second local database)
+            return 0;
+        }
+        Object lag = status.get(0).get(lagColumn);
+        // NULL while replication is stopped or broken
+        return lag instanceof Number ? ((Number) lag).doubleValue() : UNKNOWN_LAG;
+    }
+}
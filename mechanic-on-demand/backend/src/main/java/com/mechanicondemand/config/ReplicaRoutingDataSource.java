@@ -0,0 +1,73 @@
+package com.mechanicondemand.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * ReplicaRoutingDataSource - Sends read-only transactions to the read replicas
+ *
+ * The lookup key is chosen when a connection is first used, so this must sit
+ * behind a LazyConnectionDataSourceProxy: by then the transaction manager
+ * has published whether the transaction is read-only.
+ *
+ * - Read-write transactions and work outside a transaction use the primary
+ * - Read-only transactions use the replicas in turn, skipping lagging ones
+ * - Code running inside onPrimary (read-your-writes) always uses the primary
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+
+    private static final ThreadLocal<Boolean> PINNED_TO_PRIMARY = new ThreadLocal<>();
+
+    private final ReplicaLagMonitor lagMonitor;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(ReplicaLagMonitor lagMonitor) {
+        this.lagMonitor = lagMonitor;
+    }
+
+    /**
+     * Run work with every query on the primary (e.g. reads that must see a write just made)
+     */
+    public static <T> T onPrimary(Supplier<T> work) {
+        Boolean previous = PINNED_TO_PRIMARY.get();
+        PINNED_TO_PRIMARY.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                PINNED_TO_PRIMARY.remove();
+            } else {
+                PINNED_TO_PRIMARY.set(previous);
+            }
+        }
+    }
+
+    static void pinToPrimary() {
+        PINNED_TO_PRIMARY.set(Boolean.TRUE);
+    }
+
+    static void unpin() {
+        PINNED_TO_PRIMARY.remove();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || Boolean.TRUE.equals(PINNED_TO_PRIMARY.get())) {
+            return PRIMARY;
+        }
+
+        List<String> replicas = lagMonitor.getHealthyReplicas();
+        if (replicas.isEmpty()) {
+            return PRIMARY;
+        }
+        return replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size()));
+    }
+}
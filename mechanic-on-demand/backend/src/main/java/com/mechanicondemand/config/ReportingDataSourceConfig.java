@@ -0,0 +1,100 @@
+package com.mechanicondemand.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.orm.jpa.JpaTransactionManager;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+
+/**
+ * ReportingDataSourceConfig - Separate connection pool for reports and exports
+ *
+ * Reports scan many rows and hold a connection for seconds; on the shared
+ * pool a few of them would leave booking writes waiting for a connection.
+ * They get their own small pool instead (bulkhead): when it is exhausted
+ * only other reports wait, for at most reporting.datasource.connection-timeout-ms.
+ *
+ * - reportingDataSource: read-only Hikari pool "reporting" (point
+ *   reporting.datasource.url at a replica to take the load off the primary)
+ * - reportingTransactionManager: use with
+ *   @Transactional(transactionManager = "reportingTransactionManager")
+ *
+ * Both pools publish hikaricp.connections.* metrics tagged pool=primary or
+ * pool=reporting (active, pending, usage and acquire (wait) time).
+ *
+ * Declaring a second DataSource and transaction manager switches off Spring
+ * Boot's defaults, so the application pool and the JPA transaction manager
+ * are declared here as well (as @Primary, used by everything else).
+ */
+@Configuration
+public class ReportingDataSourceConfig {
+
+    @Value("${reporting.datasource.url:${spring.datasource.url}}")
+    private String url;
+
+    @Value("${reporting.datasource.username:${spring.datasource.username}}")
+    private String username;
+
+    @Value("${reporting.datasource.password:${spring.datasource.password}}")
+    private String password;
+
+    @Value("${reporting.datasource.maximum-pool-size:3}")
+    private int maximumPoolSize;
+
+    @Value("${reporting.datasource.connection-timeout-ms:10000}")
+    private long connectionTimeoutMs;
+
+    @Value("${reporting.datasource.query-timeout-ms:120000}")
+    private long queryTimeoutMs;
+
+    /**
+     * The application pool, configured from spring.datasource.* as before
+     * (with read replicas enabled ReplicaDataSourceConfig declares it instead)
+     */
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = "datasource.replicas.enabled", havingValue = "false", matchIfMissing = true)
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName(ReplicaRoutingDataSource.PRIMARY);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public JpaTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+        return new JpaTransactionManager(entityManagerFactory);
+    }
+
+    @Bean(destroyMethod = "close")
+    public HikariDataSource reportingDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("reporting");
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        dataSource.setDriverClassName(properties.determineDriverClassName());
+        dataSource.setMaximumPoolSize(maximumPoolSize);
+        dataSource.setMinimumIdle(1);
+        dataSource.setConnectionTimeout(connectionTimeoutMs);
+        dataSource.setReadOnly(true);
+        // MySQL stops a report SELECT that runs away instead of letting it hold the connection
+        dataSource.setConnectionInitSql("SET SESSION max_execution_time = " + queryTimeoutMs);
+        return dataSource;
+    }
+
+    @Bean
+    public DataSourceTransactionManager reportingTransactionManager(@Qualifier("reportingDataSource") DataSource reportingDataSource) {
+        return new DataSourceTransactionManager(reportingDataSource);
+    }
+}
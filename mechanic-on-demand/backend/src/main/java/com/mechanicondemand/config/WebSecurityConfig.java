@@ -2,10 +2,15 @@ package com.mechanicondemand.config;
 
 import com.mechanicondemand.security.AuthEntryPointJwt;
 import com.mechanicondemand.security.AuthTokenFilter;
+import com.mechanicondemand.security.BoundedPasswordEncoder;
+import com.mechanicondemand.security.RateLimitFilter;
 import com.mechanicondemand.service.UserDetailsServiceImpl;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.method.configuration.EnableGlobalMethodSecurity;
@@ -13,8 +18,6 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 /**
@@ -24,6 +27,7 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
  * - Authentication and authorization rules
  * - Password encoding
  * - JWT token filtering
+ * - Per-route rate limiting
  * - CORS configuration
  * - Session management
  */
@@ -38,6 +42,20 @@ public class WebSecurityConfig extends WebSecurityConfigurerAdapter {
     @Autowired
     private AuthEntryPointJwt unauthorizedHandler;
     
+    // BCrypt cost factor; existing hashes with a lower cost are rehashed on login
+    @Value("${security.password.strength:10}")
+    private int passwordStrength;
+    
+    // 0 means one worker per CPU core
+    @Value("${security.password.pool-size:0}")
+    private int passwordPoolSize;
+    
+    @Value("${security.password.queue-capacity:64}")
+    private int passwordQueueCapacity;
+    
+    @Value("${security.password.timeout-ms:2000}")
+    private long passwordTimeoutMs;
+    
     /**
      * Configure JWT authentication filter
      */
@@ -46,6 +64,25 @@ public class WebSecurityConfig extends WebSecurityConfigurerAdapter {
         return new AuthTokenFilter();
     }
     
+    /**
+     * Configure rate limiting filter
+     */
+    @Bean
+    public RateLimitFilter rateLimitFilter() {
+        return new RateLimitFilter();
+    }
+    
+    /**
+     * Keep the rate limiting filter out of the servlet filter chain
+     * It must run inside the security chain, after the JWT filter
+     */
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration(RateLimitFilter rateLimitFilter) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(rateLimitFilter);
+        registration.setEnabled(false);
+        return registration;
+    }
+    
     /**
      * Configure authentication manager
      */
@@ -67,11 +104,13 @@ public class WebSecurityConfig extends WebSecurityConfigurerAdapter {
     
     /**
      * Password encoder bean
-     * BCrypt is a strong, adaptive hashing function
+     * BCrypt is a strong, adaptive hashing function. It runs on its own
+     * bounded worker pool so login bursts cannot take every request thread.
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder() {
+        int poolSize = passwordPoolSize > 0 ? passwordPoolSize : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(passwordStrength, poolSize, passwordQueueCapacity, passwordTimeoutMs);
     }
     
     /**
@@ -89,11 +128,20 @@ public class WebSecurityConfig extends WebSecurityConfigurerAdapter {
                 .antMatchers("/api/pricing/plans").permitAll()
                 .antMatchers("/api/users/mechanics").permitAll()
                 .antMatchers("/api/users/mechanics/nearby").permitAll()
+                .antMatchers("/api/users/mechanics/nearest").permitAll()
                 .antMatchers("/api/users/mechanics/specialization/**").permitAll()
+                // Actuator write operations (cache eviction, broadcasts) only from the host itself
+                .antMatchers(HttpMethod.POST, "/actuator/**").access("hasIpAddress('127.0.0.1') or hasIpAddress('::1')")
+                .antMatchers(HttpMethod.DELETE, "/actuator/**").access("hasIpAddress('127.0.0.1') or hasIpAddress('::1')")
+                // Reports and exports only from the host itself
+                .antMatchers("/api/reports/**").access("hasIpAddress('127.0.0.1') or hasIpAddress('::1')")
                 // All other endpoints require authentication
                 .anyRequest().authenticated();
         
         // Add JWT filter
         http.addFilterBefore(authenticationJwtTokenFilter(), UsernamePasswordAuthenticationFilter.class);
+        
+        // Rate limits run after the JWT filter so authenticated clients are limited by username
+        http.addFilterAfter(rateLimitFilter(), AuthTokenFilter.class);
     }
 }
\ No newline at end of file
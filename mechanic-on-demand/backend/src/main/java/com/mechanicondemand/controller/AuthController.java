@@ -2,27 +2,39 @@ package com.mechanicondemand.controller;
 
 import com.mechanicondemand.dto.AuthResponse;
 import com.mechanicondemand.dto.LoginRequest;
+import com.mechanicondemand.dto.RefreshTokenRequest;
 import com.mechanicondemand.dto.RegisterRequest;
+import com.mechanicondemand.dto.TokenResponse;
 import com.mechanicondemand.entity.User;
+import com.mechanicondemand.security.BoundedPasswordEncoder;
+import com.mechanicondemand.security.RateLimiter;
+import com.mechanicondemand.security.RefreshTokenService;
+import com.mechanicondemand.service.UserDetailsServiceImpl.UserPrincipal;
+import com.mechanicondemand.service.UserAvailabilityIndex;
 import com.mechanicondemand.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * AuthController - REST Controller for authentication endpoints
  * 
  * REST API Principles:
  * - Stateless: Each request contains all necessary information
- * - Resource-based URLs: /api/auth/login, /api/auth/register
+ * - Resource-based URLs: /api/auth/login, /api/auth/register, /api/auth/availability
  * - HTTP Methods: POST for creating/authenticating
  * - Status Codes: 200 (OK), 201 (Created), 400 (Bad Request), 401 (Unauthorized)
  * - JSON format for data exchange
@@ -39,7 +51,13 @@ public class AuthController {
     private UserService userService;
     
     @Autowired
-    private com.mechanicondemand.security.JwtUtils jwtUtils;
+    private RefreshTokenService refreshTokenService;
+    
+    @Autowired
+    private RateLimiter rateLimiter;
+    
+    @Autowired
+    private UserAvailabilityIndex userAvailabilityIndex;
     
     /**
      * POST /api/auth/login
@@ -48,11 +66,24 @@ public class AuthController {
      * HTTP Method: POST
      * Purpose: User login
      * Request Body: LoginRequest (username/email, password)
-     * Response: AuthResponse (JWT token + user info)
-     * Status Codes: 200 (success), 401 (invalid credentials)
+     * Response: AuthResponse (access token, refresh token + user info)
+     * Status Codes: 200 (success), 401 (invalid credentials), 429 (too many attempts),
+     *               503 (too many logins, retry)
      */
     @PostMapping("/login")
     public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
+        // Limit attempts per account (credential stuffing spreads over many IPs),
+        // whether it is named by username or by email
+        long waitNanos = rateLimiter.acquire(RateLimiter.LOGIN_ACCOUNT_RULE,
+            userService.loginAccountKey(loginRequest.getUsernameOrEmail()));
+        if (waitNanos > 0) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Too many login attempts, please retry later");
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1))
+                .body(error);
+        }
+        
         try {
             // Authenticate user
             Authentication authentication = authenticationManager.authenticate(
@@ -62,15 +93,17 @@ public class AuthController {
                 )
             );
             
-            // Generate JWT token
-            String jwt = jwtUtils.generateJwtToken(authentication);
+            // Generate access and refresh tokens
+            UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
+            TokenResponse tokens = refreshTokenService.issue(principal);
             
             // Get user details
-            User user = (User) authentication.getPrincipal();
+            User user = userService.findById(principal.getId())
+                .orElseThrow(() -> new RuntimeException("User not found"));
             
             // Create response
             AuthResponse response = new AuthResponse(
-                jwt,
+                tokens.getToken(),
                 user.getId(),
                 user.getUsername(),
                 user.getEmail(),
@@ -78,10 +111,18 @@ public class AuthController {
                 user.getLastName(),
                 user.getUserType().toString()
             );
+            response.setRefreshToken(tokens.getRefreshToken());
+            response.setExpiresIn(tokens.getExpiresIn());
             
             return ResponseEntity.ok(response);
             
+        } catch (BoundedPasswordEncoder.PasswordEncoderBusyException e) {
+            return serviceBusy(e);
         } catch (Exception e) {
+            // Spring Security may wrap the busy signal of the password encoder
+            if (e.getCause() instanceof BoundedPasswordEncoder.PasswordEncoderBusyException) {
+                return serviceBusy((RuntimeException) e.getCause());
+            }
             Map<String, String> error = new HashMap<>();
             error.put("error", "Invalid username or password");
             return ResponseEntity.badRequest().body(error);
@@ -96,7 +137,7 @@ public class AuthController {
      * Purpose: User registration
      * Request Body: RegisterRequest (user details)
      * Response: Success message or error
-     * Status Codes: 201 (created), 400 (bad request)
+     * Status Codes: 201 (created), 400 (bad request), 500 (database error), 503 (too many requests, retry)
      */
     @PostMapping("/register")
     public ResponseEntity<?> registerUser(@Valid @RequestBody RegisterRequest registerRequest) {
@@ -110,6 +151,13 @@ public class AuthController {
             
             return ResponseEntity.status(201).body(response);
             
+        } catch (BoundedPasswordEncoder.PasswordEncoderBusyException e) {
+            return serviceBusy(e);
+        } catch (DataAccessException e) {
+            // Database errors carry SQL in their message; never echo it
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Registration failed, please try again later");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
         } catch (RuntimeException e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
@@ -117,6 +165,37 @@ public class AuthController {
         }
     }
     
+    /**
+     * GET /api/auth/availability
+     * Check whether a username and/or email can still be registered
+     * 
+     * HTTP Method: GET
+     * Purpose: Live validation of the register form (mostly answered from memory)
+     * Query Parameters: username (optional), email (optional), at least one
+     * Response: { username, usernameAvailable, email, emailAvailable }
+     * Status Codes: 200 (success), 400 (no value given)
+     */
+    @GetMapping("/availability")
+    public ResponseEntity<?> checkAvailability(@RequestParam(required = false) String username,
+                                               @RequestParam(required = false) String email) {
+        if (!StringUtils.hasText(username) && !StringUtils.hasText(email)) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Username or email is required");
+            return ResponseEntity.badRequest().body(error);
+        }
+        
+        Map<String, Object> response = new HashMap<>();
+        if (StringUtils.hasText(username)) {
+            response.put("username", username);
+            response.put("usernameAvailable", userAvailabilityIndex.isUsernameAvailable(username));
+        }
+        if (StringUtils.hasText(email)) {
+            response.put("email", email);
+            response.put("emailAvailable", userAvailabilityIndex.isEmailAvailable(email));
+        }
+        return ResponseEntity.ok(response);
+    }
+    
     /**
      * GET /api/auth/me
      * Get current user information
@@ -135,7 +214,14 @@ public class AuthController {
             return ResponseEntity.status(401).body(error);
         }
         
-        User user = (User) authentication.getPrincipal();
+        // Self-contained tokens only carry the id, so load the profile
+        UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
+        User user = userService.findById(principal.getId()).orElse(null);
+        if (user == null) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "User not found");
+            return ResponseEntity.status(401).body(error);
+        }
         
         Map<String, Object> response = new HashMap<>();
         response.put("id", user.getId());
@@ -149,19 +235,61 @@ public class AuthController {
         return ResponseEntity.ok(response);
     }
     
+    /**
+     * POST /api/auth/refresh
+     * Exchange a refresh token for a new token pair
+     * 
+     * HTTP Method: POST
+     * Purpose: Renew an expired access token without the password
+     * Request Body: RefreshTokenRequest (refreshToken)
+     * Response: TokenResponse (new access token + new refresh token)
+     * Status Codes: 200 (success), 401 (invalid, used or revoked refresh token)
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refreshToken(@Valid @RequestBody RefreshTokenRequest refreshRequest) {
+        try {
+            return ResponseEntity.ok(refreshTokenService.rotate(refreshRequest.getRefreshToken()));
+        } catch (RuntimeException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(401).body(error);
+        }
+    }
+    
     /**
      * POST /api/auth/logout
-     * Logout user (client-side token removal)
+     * Logout user (revokes the presented tokens)
      * 
      * HTTP Method: POST
      * Purpose: User logout
+     * Headers: Authorization: Bearer <token> (optional)
+     * Request Body: RefreshTokenRequest (optional)
      * Response: Success message
      * Status Codes: 200 (success)
      */
     @PostMapping("/logout")
-    public ResponseEntity<?> logoutUser() {
+    public ResponseEntity<?> logoutUser(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+                                        @RequestBody(required = false) RefreshTokenRequest refreshRequest) {
+        if (authorization != null && authorization.startsWith("Bearer ")) {
+            refreshTokenService.revoke(authorization.substring(7));
+        }
+        if (refreshRequest != null && StringUtils.hasText(refreshRequest.getRefreshToken())) {
+            refreshTokenService.revoke(refreshRequest.getRefreshToken());
+        }
+        
         Map<String, String> response = new HashMap<>();
         response.put("message", "User logged out successfully");
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+    
+    /**
+     * Password hashing is saturated: ask the client to retry shortly
+     */
+    private ResponseEntity<?> serviceBusy(RuntimeException e) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, "1")
+            .body(error);
+    }
+}
@@ -0,0 +1,199 @@
+package com.mechanicondemand.controller;
+
+import com.mechanicondemand.dto.BookingRequest;
+import com.mechanicondemand.dto.BookingStatusRequest;
+import com.mechanicondemand.entity.Booking;
+import com.mechanicondemand.service.BookingAdmission;
+import com.mechanicondemand.service.BookingDispatcher;
+import com.mechanicondemand.service.BookingService;
+import com.mechanicondemand.service.MechanicCalendarIndex;
+import com.mechanicondemand.service.UserDetailsServiceImpl.UserPrincipal;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import javax.validation.Valid;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * BookingController - REST Controller for booking endpoints
+ */
+@RestController
+@RequestMapping("/api/bookings")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class BookingController {
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private MechanicCalendarIndex mechanicCalendarIndex;
+
+    /**
+     * POST /api/bookings
+     * Create a booking
+     *
+     * HTTP Method: POST
+     * Purpose: Book a service with a chosen mechanic, or (without mechanicId)
+     *          dispatch it to the best nearby mechanics
+     * Headers: Authorization: Bearer <token>
+     * Request Body: BookingRequest
+     * Response: Created booking
+     * Status Codes: 201 (created), 400 (bad request), 409 (mechanic already booked)
+     */
+    @PostMapping
+    public ResponseEntity<?> createBooking(@Valid @RequestBody BookingRequest bookingRequest,
+                                           Authentication authentication) {
+        UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
+
+        try {
+            Booking booking = bookingService.createBooking(principal.getId(), bookingRequest);
+            return ResponseEntity.status(HttpStatus.CREATED).body(booking);
+        } catch (BookingAdmission.SlotUnavailableException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+        } catch (RuntimeException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    /**
+     * GET /api/bookings
+     * Get the bookings of the authenticated user
+     *
+     * HTTP Method: GET
+     * Purpose: Booking history (as customer or as mechanic)
+     * Headers: Authorization: Bearer <token>
+     * Query Parameters: status (optional), cursor (optional, nextCursor of the
+     *                   previous page), size (optional, capped server-side)
+     * Response: CursorPage of bookings, newest first
+     * Status Codes: 200 (success), 400 (invalid cursor)
+     */
+    @GetMapping
+    public ResponseEntity<?> getMyBookings(@RequestParam(required = false) Booking.BookingStatus status,
+                                           @RequestParam(required = false) String cursor,
+                                           @RequestParam(required = false) Integer size,
+                                           Authentication authentication) {
+        UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
+        
+        try {
+            return ResponseEntity.ok(bookingService.getBookingsForUser(principal.getId(), status, cursor, size));
+        } catch (RuntimeException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    /**
+     * GET /api/bookings/availability
+     * Get the free start times of a mechanic for a service on a date
+     *
+     * HTTP Method: GET
+     * Purpose: Slot picker of the booking form (answered from memory)
+     * Headers: Authorization: Bearer <token>
+     * Query Parameters: mechanicId, date (yyyy-MM-dd), serviceId
+     * Response: Free start times in 15 minute steps
+     * Status Codes: 200 (success), 400 (bad request), 503 (calendar still loading)
+     */
+    @GetMapping("/availability")
+    public ResponseEntity<?> getFreeSlots(@RequestParam Long mechanicId,
+                                          @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+                                          @RequestParam Long serviceId) {
+        if (!mechanicCalendarIndex.isReady()) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Availability is temporarily unavailable, please retry");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(error);
+        }
+
+        try {
+            List<LocalTime> freeSlots = bookingService.findFreeSlots(mechanicId, date, serviceId);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("mechanicId", mechanicId);
+            response.put("serviceId", serviceId);
+            response.put("date", date);
+            response.put("slotMinutes", MechanicCalendarIndex.SLOT_MINUTES);
+            response.put("freeSlots", freeSlots);
+            return ResponseEntity.ok(response);
+        } catch (RuntimeException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    /**
+     * PUT /api/bookings/{id}/status
+     * Update the status of a booking
+     *
+     * HTTP Method: PUT
+     * Purpose: Cancel (customer) or progress (mechanic) a booking
+     * Headers: Authorization: Bearer <token>
+     * Request Body: BookingStatusRequest (status)
+     * Response: Updated booking
+     * Status Codes: 200 (success), 400 (bad request)
+     */
+    @PutMapping("/{id}/status")
+    public ResponseEntity<?> updateBookingStatus(@PathVariable Long id,
+                                                 @Valid @RequestBody BookingStatusRequest statusRequest,
+                                                 Authentication authentication) {
+        UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
+
+        try {
+            return ResponseEntity.ok(bookingService.updateBookingStatus(id, principal.getId(), statusRequest.getStatus()));
+        } catch (RuntimeException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    /**
+     * POST /api/bookings/{id}/claim
+     * Accept a dispatched booking
+     *
+     * HTTP Method: POST
+     * Purpose: First mechanic to accept a dispatched booking gets it
+     * Headers: Authorization: Bearer <token>
+     * Response: Success message or error
+     * Status Codes: 200 (claimed), 403 (not offered to this mechanic),
+     *               404 (booking not found), 409 (already taken or mechanic busy)
+     */
+    @PostMapping("/{id}/claim")
+    public ResponseEntity<?> claimBooking(@PathVariable Long id, Authentication authentication) {
+        UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
+
+        BookingDispatcher.ClaimResult result = bookingService.claimBooking(id, principal.getId());
+
+        Map<String, String> response = new HashMap<>();
+        switch (result) {
+            case CLAIMED:
+                response.put("message", "Booking accepted");
+                response.put("bookingId", id.toString());
+                return ResponseEntity.ok(response);
+            case MECHANIC_BUSY:
+                response.put("error", "You already have a booking at this time");
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+            case NOT_OFFERED:
+                response.put("error", "This booking was not offered to you");
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(response);
+            case NOT_FOUND:
+                response.put("error", "Booking not found");
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+            default:
+                response.put("error", "Booking is no longer available");
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        }
+    }
+}
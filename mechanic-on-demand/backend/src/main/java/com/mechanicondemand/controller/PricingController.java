@@ -0,0 +1,35 @@
+package com.mechanicondemand.controller;
+
+import com.mechanicondemand.entity.PricingPlan;
+import com.mechanicondemand.service.CatalogService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * PricingController - REST Controller for pricing plans
+ */
+@RestController
+@RequestMapping("/api/pricing")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class PricingController {
+
+    @Autowired
+    private CatalogService catalogService;
+
+    /**
+     * GET /api/pricing/plans
+     * Get all active pricing plans
+     *
+     * HTTP Method: GET
+     * Purpose: List pricing plans
+     * Response: List of plans (cheapest first)
+     * Status Codes: 200 (success)
+     */
+    @GetMapping("/plans")
+    public ResponseEntity<List<PricingPlan>> getPlans() {
+        return ResponseEntity.ok(catalogService.getActivePricingPlans());
+    }
+}
@@ -0,0 +1,151 @@
+package com.mechanicondemand.controller;
+
+import com.mechanicondemand.repository.BookingReportRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * ReportController - REST Controller for booking reports and exports
+ *
+ * Only reachable from the server host (see WebSecurityConfig). All queries
+ * run on the separate reporting connection pool.
+ */
+@RestController
+@RequestMapping("/api/reports")
+public class ReportController {
+
+    @Autowired
+    private BookingReportRepository bookingReportRepository;
+
+    @Value("${reporting.max-range-days:366}")
+    private long maxRangeDays;
+
+    /**
+     * GET /api/reports/bookings/summary
+     * Booking counts and revenue for a date range
+     *
+     * HTTP Method: GET
+     * Purpose: Booking statistics
+     * Query Parameters: from, to (yyyy-MM-dd, inclusive), top (default 10)
+     * Response: Bookings and revenue by status, and the mechanics with the most completed bookings
+     * Status Codes: 200 (success), 400 (bad date range)
+     */
+    @GetMapping("/bookings/summary")
+    public ResponseEntity<?> getBookingSummary(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                               @RequestParam(defaultValue = "10") int top) {
+        String invalid = validateRange(from, to);
+        if (invalid != null) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", invalid);
+            return ResponseEntity.badRequest().body(error);
+        }
+
+        Map<String, Map<String, Object>> byStatus = bookingReportRepository.countByStatus(from, to);
+        long totalBookings = 0;
+        BigDecimal revenue = BigDecimal.ZERO;
+        for (Map<String, Object> counts : byStatus.values()) {
+            totalBookings += (Long) counts.get("bookings");
+            revenue = revenue.add((BigDecimal) counts.get("revenue"));
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("from", from);
+        response.put("to", to);
+        response.put("totalBookings", totalBookings);
+        response.put("revenue", revenue);
+        response.put("byStatus", byStatus);
+        response.put("topMechanics", bookingReportRepository.findTopMechanics(from, to, Math.max(1, Math.min(top, 100))));
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * GET /api/reports/bookings/export
+     * Export the bookings of a date range as CSV
+     *
+     * HTTP Method: GET
+     * Purpose: Booking export (streamed, the rows are never held in memory)
+     * Query Parameters: from, to (yyyy-MM-dd, inclusive)
+     * Response: text/csv, one booking per line ordered by date and time
+     * Status Codes: 200 (success), 400 (bad date range)
+     */
+    @GetMapping("/bookings/export")
+    public ResponseEntity<?> exportBookings(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        String invalid = validateRange(from, to);
+        if (invalid != null) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", invalid);
+            return ResponseEntity.badRequest().body(error);
+        }
+
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            writer.write(String.join(",", BookingReportRepository.EXPORT_COLUMNS));
+            writer.write('\n');
+            bookingReportRepository.exportBookings(from, to, rs -> {
+                try {
+                    for (int column = 1; column <= BookingReportRepository.EXPORT_COLUMNS.length; column++) {
+                        if (column > 1) {
+                            writer.write(',');
+                        }
+                        writer.write(csvField(rs.getString(column)));
+                    }
+                    writer.write('\n');
+                } catch (IOException e) {
+                    // Client went away; stop reading rows
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+        };
+
+        return ResponseEntity.ok()
+            .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"bookings-" + from + "-" + to + ".csv\"")
+            .body(body);
+    }
+
+    private String validateRange(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            return "'to' must not be before 'from'";
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxRangeDays) {
+            return "Date range is limited to " + maxRangeDays + " days";
+        }
+        return null;
+    }
+
+    /**
+     * Quote a CSV field when it contains a separator, quote or line break (RFC 4180)
+     */
+    static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
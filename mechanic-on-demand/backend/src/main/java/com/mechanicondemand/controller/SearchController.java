@@ -0,0 +1,86 @@
+package com.mechanicondemand.controller;
+
+import com.mechanicondemand.service.CatalogService;
+import com.mechanicondemand.service.TypeaheadIndex;
+import com.mechanicondemand.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * SearchController - REST Controller for catalog search
+ */
+@RestController
+@RequestMapping("/api/search")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class SearchController {
+
+    @Autowired
+    private CatalogService catalogService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TypeaheadIndex typeaheadIndex;
+
+    /**
+     * GET /api/search
+     * Search services and mechanics in one request
+     *
+     * HTTP Method: GET
+     * Purpose: Search box (service names and descriptions, mechanic specializations)
+     * Headers: Authorization: Bearer <token>
+     * Query Parameters: q, limit (per kind, default 10)
+     * Response: Matching services (ServiceListing) and mechanics (MechanicCard), best match first
+     * Status Codes: 200 (success), 400 (q missing)
+     */
+    @GetMapping
+    public ResponseEntity<?> search(@RequestParam(required = false) String q,
+                                    @RequestParam(defaultValue = "10") int limit) {
+        if (q == null || q.trim().isEmpty()) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "q is required");
+            return ResponseEntity.badRequest().body(error);
+        }
+
+        int perKind = Math.max(1, Math.min(limit, 50));
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("query", q);
+        response.put("services", catalogService.searchServices(q, perKind));
+        response.put("mechanics", userService.findMechanicsBySpecialization(q, perKind));
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * GET /api/search/suggest
+     * Complete what the user is typing in the service picker
+     *
+     * HTTP Method: GET
+     * Purpose: Typeahead (answered from memory, no database access)
+     * Headers: Authorization: Bearer <token>
+     * Query Parameters: q (typed text), limit (default 10)
+     * Response: Category names, service names and specializations with a word
+     *           starting with q, most booked first
+     * Status Codes: 200 (success), 503 (index still loading)
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<?> suggest(@RequestParam(defaultValue = "") String q,
+                                     @RequestParam(defaultValue = "10") int limit) {
+        if (!typeaheadIndex.isReady()) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Suggestions are temporarily unavailable, please retry");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(error);
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("query", q);
+        response.put("suggestions", typeaheadIndex.suggest(q, Math.max(1, Math.min(limit, 20))));
+        return ResponseEntity.ok(response);
+    }
+}
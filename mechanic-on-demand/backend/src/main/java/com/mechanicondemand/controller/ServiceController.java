@@ -0,0 +1,79 @@
+package com.mechanicondemand.controller;
+
+import com.mechanicondemand.dto.ServiceListing;
+import com.mechanicondemand.entity.ServiceCategory;
+import com.mechanicondemand.service.CatalogService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ServiceController - REST Controller for the service catalog
+ */
+@RestController
+@RequestMapping("/api/services")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class ServiceController {
+
+    @Autowired
+    private CatalogService catalogService;
+
+    /**
+     * GET /api/services/categories
+     * Get all active service categories
+     *
+     * HTTP Method: GET
+     * Purpose: List service categories
+     * Response: List of categories
+     * Status Codes: 200 (success)
+     */
+    @GetMapping("/categories")
+    public ResponseEntity<List<ServiceCategory>> getCategories() {
+        return ResponseEntity.ok(catalogService.getActiveCategories());
+    }
+
+    /**
+     * GET /api/services/mechanic/{mechanicId}
+     * Get the services offered by a mechanic
+     *
+     * HTTP Method: GET
+     * Purpose: Mechanic service list
+     * Headers: Authorization: Bearer <token>
+     * Response: List of ServiceListing
+     * Status Codes: 200 (success)
+     */
+    @GetMapping("/mechanic/{mechanicId}")
+    public ResponseEntity<List<ServiceListing>> getServicesOfMechanic(@PathVariable Long mechanicId) {
+        return ResponseEntity.ok(catalogService.getServicesOfMechanic(mechanicId));
+    }
+
+    /**
+     * GET /api/services
+     * Browse or search available services
+     *
+     * HTTP Method: GET
+     * Purpose: Services of a category, or services whose name contains q
+     * Headers: Authorization: Bearer <token>
+     * Query Parameters: categoryId or q
+     * Response: List of ServiceListing
+     * Status Codes: 200 (success), 400 (neither categoryId nor q given)
+     */
+    @GetMapping
+    public ResponseEntity<?> getServices(@RequestParam(required = false) Long categoryId,
+                                         @RequestParam(required = false) String q) {
+        if (categoryId != null) {
+            return ResponseEntity.ok(catalogService.getAvailableServicesInCategory(categoryId));
+        }
+        if (q != null && !q.trim().isEmpty()) {
+            return ResponseEntity.ok(catalogService.searchServices(q));
+        }
+
+        Map<String, String> error = new HashMap<>();
+        error.put("error", "Either categoryId or q is required");
+        return ResponseEntity.badRequest().body(error);
+    }
+}
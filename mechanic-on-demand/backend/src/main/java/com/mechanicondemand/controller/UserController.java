@@ -0,0 +1,148 @@
+package com.mechanicondemand.controller;
+
+import com.mechanicondemand.dto.LocationUpdateRequest;
+import com.mechanicondemand.dto.MechanicCard;
+import com.mechanicondemand.entity.User;
+import com.mechanicondemand.service.MechanicLocationBuffer;
+import com.mechanicondemand.service.UserDetailsServiceImpl.UserPrincipal;
+import com.mechanicondemand.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import javax.validation.Valid;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * UserController - REST Controller for user and mechanic lookups
+ */
+@RestController
+@RequestMapping("/api/users")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class UserController {
+
+    private static final int MAX_NEAREST_RESULTS = 50;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MechanicLocationBuffer mechanicLocationBuffer;
+
+    /**
+     * GET /api/users/mechanics
+     * Get all active mechanics
+     *
+     * HTTP Method: GET
+     * Purpose: List mechanics
+     * Response: List of MechanicCard (best rated first)
+     * Status Codes: 200 (success)
+     */
+    @GetMapping("/mechanics")
+    public ResponseEntity<List<MechanicCard>> getMechanics() {
+        return ResponseEntity.ok(userService.getMechanicCards());
+    }
+
+    /**
+     * GET /api/users/mechanics/nearby
+     * Find available mechanics whose service radius covers a location, nearest first
+     *
+     * HTTP Method: GET
+     * Purpose: Location based mechanic search
+     * Query Parameters: latitude, longitude, radius (optional km cap set by the customer)
+     * Response: List of mechanics
+     * Status Codes: 200 (success), 400 (invalid coordinates)
+     */
+    @GetMapping("/mechanics/nearby")
+    public ResponseEntity<?> getNearbyMechanics(@RequestParam Double latitude,
+                                                @RequestParam Double longitude,
+                                                @RequestParam(required = false) Double radius) {
+        if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180
+                || (radius != null && radius <= 0)) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Invalid latitude, longitude or radius");
+            return ResponseEntity.badRequest().body(error);
+        }
+
+        return ResponseEntity.ok(userService.findNearbyMechanics(latitude, longitude, radius));
+    }
+
+    /**
+     * GET /api/users/mechanics/nearest
+     * Get the K best ranked mechanics around a location
+     *
+     * HTTP Method: GET
+     * Purpose: Ranked mechanic search (distance, rating, hourly rate)
+     * Query Parameters: latitude, longitude, k (default 10, max 50), maxRadius (km, default 50)
+     * Response: List of ranked mechanics with their distance
+     * Status Codes: 200 (success), 400 (invalid parameters)
+     */
+    @GetMapping("/mechanics/nearest")
+    public ResponseEntity<?> getNearestMechanics(@RequestParam Double latitude,
+                                                 @RequestParam Double longitude,
+                                                 @RequestParam(defaultValue = "10") Integer k,
+                                                 @RequestParam(defaultValue = "50") Double maxRadius) {
+        if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180
+                || k < 1 || k > MAX_NEAREST_RESULTS || maxRadius <= 0) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Invalid latitude, longitude, k or maxRadius");
+            return ResponseEntity.badRequest().body(error);
+        }
+
+        return ResponseEntity.ok(userService.findNearestMechanics(latitude, longitude, k, maxRadius));
+    }
+
+    /**
+     * GET /api/users/mechanics/specialization/{specialization}
+     * Find mechanics by specialization
+     *
+     * HTTP Method: GET
+     * Purpose: Specialization search
+     * Response: List of mechanics
+     * Status Codes: 200 (success)
+     */
+    @GetMapping("/mechanics/specialization/{specialization}")
+    public ResponseEntity<List<MechanicCard>> getMechanicsBySpecialization(@PathVariable String specialization) {
+        return ResponseEntity.ok(userService.findMechanicsBySpecialization(specialization));
+    }
+
+    /**
+     * PUT /api/users/mechanics/location
+     * Report the current position of the authenticated mechanic
+     *
+     * HTTP Method: PUT
+     * Purpose: High-frequency GPS pings (buffered and written in batches)
+     * Headers: Authorization: Bearer <token>
+     * Request Body: LocationUpdateRequest (latitude, longitude)
+     * Status Codes: 202 (accepted), 400 (invalid coordinates), 403 (not a mechanic), 503 (buffer full)
+     */
+    @PutMapping("/mechanics/location")
+    public ResponseEntity<?> updateLocation(@Valid @RequestBody LocationUpdateRequest locationRequest,
+                                            Authentication authentication) {
+        UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
+
+        Map<String, String> response = new HashMap<>();
+        if (!User.UserType.MECHANIC.name().equals(principal.getUserType())) {
+            response.put("error", "Only mechanics can report a location");
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(response);
+        }
+
+        boolean accepted = mechanicLocationBuffer.offer(
+            principal.getId(),
+            locationRequest.getLatitude(),
+            locationRequest.getLongitude()
+        );
+
+        if (!accepted) {
+            response.put("error", "Location updates are temporarily unavailable, please retry");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
+        }
+
+        response.put("message", "Location update accepted");
+        return ResponseEntity.accepted().body(response);
+    }
+}
@@ -7,6 +7,8 @@ public class AuthResponse {
     
     private String token;
     private String type = "Bearer";
+    private String refreshToken;
+    private long expiresIn;
     private Long id;
     private String username;
     private String email;
@@ -45,6 +47,22 @@ public class AuthResponse {
         this.type = type;
     }
     
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+    
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+    
+    public long getExpiresIn() {
+        return expiresIn;
+    }
+    
+    public void setExpiresIn(long expiresIn) {
+        this.expiresIn = expiresIn;
+    }
+    
     public Long getId() {
         return id;
     }
@@ -11,7 +11,7 @@ import java.time.LocalTime;
  */
 public class BookingRequest {
     
-    @NotNull(message = "Mechanic ID is required")
+    // Optional: without a mechanic the booking is dispatched to nearby mechanics
     private Long mechanicId;
     
     @NotNull(message = "Service ID is required")
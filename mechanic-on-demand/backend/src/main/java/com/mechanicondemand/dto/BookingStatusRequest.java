@@ -0,0 +1,30 @@
+package com.mechanicondemand.dto;
+
+import com.mechanicondemand.entity.Booking;
+
+import javax.validation.constraints.NotNull;
+
+/**
+ * BookingStatusRequest DTO - New status for a booking
+ */
+public class BookingStatusRequest {
+    
+    @NotNull(message = "Status is required")
+    private Booking.BookingStatus status;
+    
+    // Constructors
+    public BookingStatusRequest() {}
+    
+    public BookingStatusRequest(Booking.BookingStatus status) {
+        this.status = status;
+    }
+    
+    // Getters and Setters
+    public Booking.BookingStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(Booking.BookingStatus status) {
+        this.status = status;
+    }
+}
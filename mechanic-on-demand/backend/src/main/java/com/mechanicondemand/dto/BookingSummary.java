@@ -0,0 +1,50 @@
+package com.mechanicondemand.dto;
+
+import com.mechanicondemand.entity.Booking;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * BookingSummary - Read-only projection of a booking for booking histories
+ *
+ * Filled straight from the selected columns (no entity is loaded or tracked).
+ * The problem description and special instructions are left out.
+ */
+public interface BookingSummary {
+
+    Long getId();
+
+    Booking.BookingStatus getStatus();
+
+    LocalDate getBookingDate();
+
+    LocalTime getBookingTime();
+
+    BigDecimal getTotalAmount();
+
+    String getAddress();
+
+    Long getServiceId();
+
+    String getServiceName();
+
+    String getCategoryName();
+
+    Long getCustomerId();
+
+    String getCustomerFirstName();
+
+    String getCustomerLastName();
+
+    // Null while a dispatched booking is unclaimed
+    Long getMechanicId();
+
+    String getMechanicFirstName();
+
+    String getMechanicLastName();
+
+    LocalDateTime getCreatedAt();
+}
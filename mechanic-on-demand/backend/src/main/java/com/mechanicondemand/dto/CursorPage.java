@@ -0,0 +1,50 @@
+package com.mechanicondemand.dto;
+
+import java.util.List;
+
+/**
+ * CursorPage DTO - One page of a keyset-paginated list
+ *
+ * nextCursor is an opaque token; pass it back as `cursor` to get the next
+ * page. It is null on the last page.
+ */
+public class CursorPage<T> {
+
+    private List<T> items;
+    private String nextCursor;
+    private boolean hasMore;
+
+    // Constructors
+    public CursorPage() {}
+
+    public CursorPage(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasMore = nextCursor != null;
+    }
+
+    // Getters and Setters
+    public List<T> getItems() {
+        return items;
+    }
+
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
@@ -0,0 +1,35 @@
+package com.mechanicondemand.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * MechanicCard - Read-only projection of a mechanic for list and search views
+ *
+ * Filled straight from the selected columns (no entity is loaded or tracked).
+ */
+public interface MechanicCard {
+
+    Long getId();
+
+    String getUsername();
+
+    String getFirstName();
+
+    String getLastName();
+
+    String getSpecialization();
+
+    Integer getExperienceYears();
+
+    BigDecimal getHourlyRate();
+
+    BigDecimal getRating();
+
+    Integer getTotalRatings();
+
+    Integer getServiceRadius();
+
+    Boolean getIsAvailable();
+
+    String getCity();
+}
@@ -0,0 +1,109 @@
+package com.mechanicondemand.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * NearbyMechanicResponse DTO - A ranked mechanic with its distance from the customer
+ */
+public class NearbyMechanicResponse {
+
+    private Long id;
+    private String username;
+    private String firstName;
+    private String lastName;
+    private String specialization;
+    private BigDecimal rating;
+    private BigDecimal hourlyRate;
+    private double distanceKm;
+    private double score;
+
+    // Constructors
+    public NearbyMechanicResponse() {}
+
+    public NearbyMechanicResponse(Long id, String username, String firstName, String lastName,
+                                  String specialization, BigDecimal rating, BigDecimal hourlyRate,
+                                  double distanceKm, double score) {
+        this.id = id;
+        this.username = username;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.specialization = specialization;
+        this.rating = rating;
+        this.hourlyRate = hourlyRate;
+        this.distanceKm = distanceKm;
+        this.score = score;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public void setFirstName(String firstName) {
+        this.firstName = firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public void setLastName(String lastName) {
+        this.lastName = lastName;
+    }
+
+    public String getSpecialization() {
+        return specialization;
+    }
+
+    public void setSpecialization(String specialization) {
+        this.specialization = specialization;
+    }
+
+    public BigDecimal getRating() {
+        return rating;
+    }
+
+    public void setRating(BigDecimal rating) {
+        this.rating = rating;
+    }
+
+    public BigDecimal getHourlyRate() {
+        return hourlyRate;
+    }
+
+    public void setHourlyRate(BigDecimal hourlyRate) {
+        this.hourlyRate = hourlyRate;
+    }
+
+    public double getDistanceKm() {
+        return distanceKm;
+    }
+
+    public void setDistanceKm(double distanceKm) {
+        this.distanceKm = distanceKm;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public void setScore(double score) {
+        this.score = score;
+    }
+}
@@ -0,0 +1,28 @@
+package com.mechanicondemand.dto;
+
+import javax.validation.constraints.NotBlank;
+
+/**
+ * RefreshTokenRequest DTO - Refresh token sent to rotate or revoke tokens
+ */
+public class RefreshTokenRequest {
+
+    @NotBlank(message = "Refresh token is required")
+    private String refreshToken;
+
+    // Constructors
+    public RefreshTokenRequest() {}
+
+    public RefreshTokenRequest(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+
+    // Getters and Setters
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+}
@@ -0,0 +1,31 @@
+package com.mechanicondemand.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * ServiceListing - Read-only projection of a mechanic service for list and search views
+ *
+ * Filled straight from the selected columns (no entity is loaded or tracked).
+ */
+public interface ServiceListing {
+
+    Long getId();
+
+    String getServiceName();
+
+    BigDecimal getBasePrice();
+
+    Integer getEstimatedDuration();
+
+    Boolean getIsAvailable();
+
+    Long getCategoryId();
+
+    String getCategoryName();
+
+    Long getMechanicId();
+
+    String getMechanicFirstName();
+
+    String getMechanicLastName();
+}
@@ -0,0 +1,54 @@
+package com.mechanicondemand.dto;
+
+/**
+ * TokenResponse DTO - Access and refresh token pair
+ */
+public class TokenResponse {
+
+    private String token;
+    private String type = "Bearer";
+    private String refreshToken;
+    private long expiresIn;
+
+    // Constructors
+    public TokenResponse() {}
+
+    public TokenResponse(String token, String refreshToken, long expiresIn) {
+        this.token = token;
+        this.refreshToken = refreshToken;
+        this.expiresIn = expiresIn;
+    }
+
+    // Getters and Setters
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+
+    public long getExpiresIn() {
+        return expiresIn;
+    }
+
+    public void setExpiresIn(long expiresIn) {
+        this.expiresIn = expiresIn;
+    }
+}
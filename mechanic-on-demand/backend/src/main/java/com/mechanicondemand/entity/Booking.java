@@ -18,6 +18,9 @@ import java.util.List;
  * Booking Entity - Main booking table for service appointments
  */
 @Entity
+@NamedEntityGraph(name = "Booking.service",
+    attributeNodes = @NamedAttributeNode(value = "service", subgraph = "service.category"),
+    subgraphs = @NamedSubgraph(name = "service.category", attributeNodes = @NamedAttributeNode("category")))
 @Table(name = "bookings")
 public class Booking {
     
@@ -30,8 +33,9 @@ public class Booking {
     @JsonIgnore
     private User customer;
     
+    // Null while a dispatched booking is waiting for a mechanic to claim it
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "mechanic_id", nullable = false)
+    @JoinColumn(name = "mechanic_id")
     @JsonIgnore
     private User mechanic;
     
@@ -48,7 +52,8 @@ public class Booking {
     private LocalTime bookingTime;
     
     @Enumerated(EnumType.STRING)
-    @Column(nullable = false)
+    @Column(nullable = false,
+            columnDefinition = "ENUM('PENDING', 'ACCEPTED', 'REJECTED', 'IN_PROGRESS', 'COMPLETED', 'CANCELLED')")
     private BookingStatus status = BookingStatus.PENDING;
     
     @DecimalMin(value = "0.0", message = "Total amount cannot be negative")
@@ -0,0 +1,89 @@
+package com.mechanicondemand.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import javax.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * BookingSlotReservation Entity - 15 minute slots held by a booking
+ * 
+ * The unique key uk_mechanic_slot on (mechanic_id, slot_date, slot_index),
+ * created by the V4 migration, makes the database reject any booking that
+ * would overlap another booking of the same mechanic.
+ */
+@Entity
+@Table(name = "booking_slot_reservations")
+public class BookingSlotReservation {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "booking_id", nullable = false)
+    @JsonIgnore
+    private Booking booking;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "mechanic_id", nullable = false)
+    @JsonIgnore
+    private User mechanic;
+    
+    @Column(name = "slot_date", nullable = false)
+    private LocalDate slotDate;
+    
+    @Column(name = "slot_index", nullable = false)
+    private Integer slotIndex; // 0..95, 15 minute slots of the day
+    
+    // Constructors
+    public BookingSlotReservation() {}
+    
+    public BookingSlotReservation(Booking booking, User mechanic, LocalDate slotDate, Integer slotIndex) {
+        this.booking = booking;
+        this.mechanic = mechanic;
+        this.slotDate = slotDate;
+        this.slotIndex = slotIndex;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Booking getBooking() {
+        return booking;
+    }
+    
+    public void setBooking(Booking booking) {
+        this.booking = booking;
+    }
+    
+    public User getMechanic() {
+        return mechanic;
+    }
+    
+    public void setMechanic(User mechanic) {
+        this.mechanic = mechanic;
+    }
+    
+    public LocalDate getSlotDate() {
+        return slotDate;
+    }
+    
+    public void setSlotDate(LocalDate slotDate) {
+        this.slotDate = slotDate;
+    }
+    
+    public Integer getSlotIndex() {
+        return slotIndex;
+    }
+    
+    public void setSlotIndex(Integer slotIndex) {
+        this.slotIndex = slotIndex;
+    }
+}
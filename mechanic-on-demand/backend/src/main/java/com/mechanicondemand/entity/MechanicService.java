@@ -1,6 +1,7 @@
 package com.mechanicondemand.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -16,6 +17,8 @@ import java.util.List;
  * MechanicService Entity - Services offered by mechanics
  */
 @Entity
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+@NamedEntityGraph(name = "MechanicService.category", attributeNodes = @NamedAttributeNode("category"))
 @Table(name = "mechanic_services")
 public class MechanicService {
     
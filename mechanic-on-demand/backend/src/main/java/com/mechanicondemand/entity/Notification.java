@@ -33,7 +33,7 @@ public class Notification {
     private String message;
     
     @Enumerated(EnumType.STRING)
-    @Column(nullable = false)
+    @Column(nullable = false, columnDefinition = "ENUM('BOOKING', 'PAYMENT', 'REVIEW', 'SYSTEM')")
     private NotificationType type;
     
     @Column(name = "is_read")
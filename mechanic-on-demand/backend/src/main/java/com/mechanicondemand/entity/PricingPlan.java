@@ -1,6 +1,8 @@
 package com.mechanicondemand.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 
 import javax.persistence.*;
@@ -13,8 +15,11 @@ import java.util.List;
 
 /**
  * PricingPlan Entity - Monthly and yearly pricing plans
+ * Reference data: kept in the second-level cache (see ehcache.xml)
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "pricing_plans")
 public class PricingPlan {
     
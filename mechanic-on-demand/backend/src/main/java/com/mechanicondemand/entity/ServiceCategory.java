@@ -1,6 +1,9 @@
 package com.mechanicondemand.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 
 import javax.persistence.*;
@@ -10,8 +13,12 @@ import java.util.List;
 
 /**
  * ServiceCategory Entity - Categories of services offered
+ * Reference data: kept in the second-level cache (see ehcache.xml)
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Table(name = "service_categories")
 public class ServiceCategory {
     
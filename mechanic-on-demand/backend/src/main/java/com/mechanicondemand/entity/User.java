@@ -23,8 +23,17 @@ import java.util.List;
  * @Enumerated - Maps enum values to database
  * @OneToOne - One-to-one relationship mapping
  * @OneToMany - One-to-many relationship mapping
+ * @NamedEntityGraph - Associations to fetch in the same query (avoids N+1 selects)
+ *
+ * The profiles are the inverse side of one-to-one mappings, which Hibernate
+ * cannot proxy: without the "User.profiles" graph each loaded user costs two
+ * extra SELECTs.
  */
 @Entity
+@NamedEntityGraph(name = "User.profiles", attributeNodes = {
+    @NamedAttributeNode("customerProfile"),
+    @NamedAttributeNode("mechanicProfile")
+})
 @Table(name = "users")
 public class User {
     
@@ -60,12 +69,17 @@ public class User {
     private String phone;
     
     @Enumerated(EnumType.STRING)
-    @Column(name = "user_type", nullable = false)
+    @Column(name = "user_type", nullable = false, columnDefinition = "ENUM('CUSTOMER', 'MECHANIC')")
     private UserType userType;
     
     @Column(name = "is_active")
     private Boolean isActive = true;
     
+    // Bumped to invalidate every token issued before (e.g. on deactivation)
+    @JsonIgnore
+    @Column(name = "security_version", nullable = false)
+    private Integer securityVersion = 0;
+    
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
@@ -176,6 +190,14 @@ public class User {
         this.isActive = isActive;
     }
     
+    public Integer getSecurityVersion() {
+        return securityVersion;
+    }
+    
+    public void setSecurityVersion(Integer securityVersion) {
+        this.securityVersion = securityVersion;
+    }
+    
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
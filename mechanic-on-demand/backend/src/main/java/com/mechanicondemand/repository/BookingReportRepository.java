@@ -0,0 +1,133 @@
+package com.mechanicondemand.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.annotation.PostConstruct;
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * BookingReportRepository - Reporting and export queries over bookings
+ *
+ * Everything here runs on the reporting pool (see ReportingDataSourceConfig),
+ * never on the pool that serves bookings, so a long report cannot starve
+ * booking writes of connections. Plain JDBC: rows are aggregated or streamed
+ * straight from the result set, nothing is loaded into the persistence context.
+ */
+@Repository
+@Transactional(transactionManager = "reportingTransactionManager", readOnly = true)
+public class BookingReportRepository {
+
+    // Columns of a booking export row
+    public static final String[] EXPORT_COLUMNS = {
+        "id", "booking_date", "booking_time", "status", "total_amount", "service_name",
+        "category_name", "customer_id", "mechanic_id", "created_at"
+    };
+
+    @Autowired
+    @Qualifier("reportingDataSource")
+    private DataSource reportingDataSource;
+
+    private JdbcTemplate jdbcTemplate;
+
+    // Streams rows instead of buffering the whole result (MySQL Connector/J)
+    private JdbcTemplate streamingJdbcTemplate;
+
+    @PostConstruct
+    public void init() {
+        jdbcTemplate = new JdbcTemplate(reportingDataSource);
+        streamingJdbcTemplate = new JdbcTemplate(reportingDataSource);
+        streamingJdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+    }
+
+    /**
+     * Stream the bookings between two dates (inclusive) to handler, ordered by date and time
+     * Each row has the EXPORT_COLUMNS
+     */
+    public void exportBookings(LocalDate startDate, LocalDate endDate, RowCallbackHandler handler) {
+        streamingJdbcTemplate.query(
+            "SELECT b.id, b.booking_date, b.booking_time, b.status, b.total_amount, s.service_name, " +
+            "c.name AS category_name, b.customer_id, b.mechanic_id, b.created_at " +
+            "FROM bookings b JOIN mechanic_services s ON s.id = b.service_id " +
+            "JOIN service_categories c ON c.id = s.category_id " +
+            "WHERE b.booking_date BETWEEN ? AND ? ORDER BY b.booking_date, b.booking_time",
+            handler, Date.valueOf(startDate), Date.valueOf(endDate));
+    }
+
+    /**
+     * Count the bookings between two dates by status
+     * Returns status -> {bookings, revenue}; revenue counts COMPLETED bookings only
+     */
+    public Map<String, Map<String, Object>> countByStatus(LocalDate startDate, LocalDate endDate) {
+        Map<String, Map<String, Object>> counts = new LinkedHashMap<>();
+        jdbcTemplate.query(
+            "SELECT status, COUNT(*) AS bookings, SUM(total_amount) AS amount FROM bookings " +
+            "WHERE booking_date BETWEEN ? AND ? GROUP BY status ORDER BY status",
+            rs -> {
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("bookings", rs.getLong("bookings"));
+                BigDecimal amount = rs.getBigDecimal("amount");
+                row.put("revenue", "COMPLETED".equals(rs.getString("status")) && amount != null ? amount : BigDecimal.ZERO);
+                counts.put(rs.getString("status"), row);
+            },
+            Date.valueOf(startDate), Date.valueOf(endDate));
+        return counts;
+    }
+
+    /**
+     * The mechanics with the most completed bookings between two dates
+     * Each row has mechanicId, firstName, lastName, completedBookings and revenue
+     */
+    public List<Map<String, Object>> findTopMechanics(LocalDate startDate, LocalDate endDate, int limit) {
+        return jdbcTemplate.queryForList(
+            "SELECT m.id AS mechanicId, m.first_name AS firstName, m.last_name AS lastName, " +
+            "t.completedBookings, t.revenue FROM " +
+            "(SELECT mechanic_id, COUNT(*) AS completedBookings, COALESCE(SUM(total_amount), 0) AS revenue " +
+            " FROM bookings WHERE booking_date BETWEEN ? AND ? AND status = 'COMPLETED' AND mechanic_id IS NOT NULL " +
+            " GROUP BY mechanic_id ORDER BY completedBookings DESC, revenue DESC LIMIT ?) t " +
+            "JOIN users m ON m.id = t.mechanic_id ORDER BY t.completedBookings DESC, t.revenue DESC",
+            Date.valueOf(startDate), Date.valueOf(endDate), limit);
+    }
+
+    /**
+     * Count the bookings of each service created since a date (cancelled ones excluded)
+     * Each row is [serviceId, mechanicId, categoryId, bookings]
+     */
+    public List<long[]> countBookingsPerService(LocalDate since) {
+        return jdbcTemplate.query(
+            "SELECT b.service_id, s.mechanic_id, s.category_id, COUNT(*) AS bookings " +
+            "FROM bookings b JOIN mechanic_services s ON s.id = b.service_id " +
+            "WHERE b.created_at >= ? AND b.status <> 'CANCELLED' " +
+            "GROUP BY b.service_id, s.mechanic_id, s.category_id",
+            (rs, rowNum) -> new long[] {rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4)},
+            Date.valueOf(since));
+    }
+
+    /**
+     * Count all bookings of a customer
+     */
+    public long countByCustomer(Long customerId) {
+        Long count = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM bookings WHERE customer_id = ?", Long.class, customerId);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Count all bookings of a mechanic
+     */
+    public long countByMechanic(Long mechanicId) {
+        Long count = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM bookings WHERE mechanic_id = ?", Long.class, mechanicId);
+        return count != null ? count : 0;
+    }
+}
@@ -1,72 +1,145 @@
 package com.mechanicondemand.repository;
 
+import com.mechanicondemand.dto.BookingSummary;
 import com.mechanicondemand.entity.Booking;
+import com.mechanicondemand.entity.MechanicService;
 import com.mechanicondemand.entity.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * BookingRepository - Data Access Layer for Booking entity
+ *
+ * Date range reports and counts live in BookingReportRepository (reporting pool)
  */
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
     
+    // Columns of the BookingSummary projection (booking histories)
+    String SUMMARY_SELECT = "SELECT b.id AS id, b.status AS status, b.bookingDate AS bookingDate, " +
+        "b.bookingTime AS bookingTime, b.totalAmount AS totalAmount, b.address AS address, " +
+        "s.id AS serviceId, s.serviceName AS serviceName, c.name AS categoryName, " +
+        "cu.id AS customerId, cu.firstName AS customerFirstName, cu.lastName AS customerLastName, " +
+        "m.id AS mechanicId, m.firstName AS mechanicFirstName, m.lastName AS mechanicLastName, " +
+        "b.createdAt AS createdAt " +
+        "FROM Booking b JOIN b.service s JOIN s.category c JOIN b.customer cu LEFT JOIN b.mechanic m ";
+    
     /**
-     * Find bookings by customer
+     * Find a booking with its service and category (the booking JSON includes both)
      */
-    List<Booking> findByCustomerOrderByCreatedAtDesc(User customer);
+    @EntityGraph("Booking.service")
+    Optional<Booking> findWithServiceById(Long id);
     
-    /**
-     * Find bookings by mechanic
+    /*
+     * Keyset pagination: each finder returns the bookings created before the
+     * cursor (createdAt, id), newest first, as BookingSummary projections
+     * (nothing is hydrated or tracked). Pass PageRequest.of(0, size) to
+     * bound the page; the (..., created_at, id) indexes make every page cost
+     * the same regardless of depth.
      */
-    List<Booking> findByMechanicOrderByCreatedAtDesc(User mechanic);
     
     /**
-     * Find bookings by status
+     * Find a page of bookings by customer
      */
-    List<Booking> findByStatusOrderByCreatedAtDesc(Booking.BookingStatus status);
+    @Query(SUMMARY_SELECT + "WHERE b.customer = :customer " +
+           "AND (b.createdAt < :createdAt OR (b.createdAt = :createdAt AND b.id < :id)) " +
+           "ORDER BY b.createdAt DESC, b.id DESC")
+    List<BookingSummary> findPageByCustomer(@Param("customer") User customer,
+                                     @Param("createdAt") LocalDateTime createdAt,
+                                     @Param("id") Long id,
+                                     Pageable pageable);
     
     /**
-     * Find bookings by customer and status
+     * Find a page of bookings by mechanic
      */
-    List<Booking> findByCustomerAndStatusOrderByCreatedAtDesc(User customer, Booking.BookingStatus status);
+    @Query(SUMMARY_SELECT + "WHERE b.mechanic = :mechanic " +
+           "AND (b.createdAt < :createdAt OR (b.createdAt = :createdAt AND b.id < :id)) " +
+           "ORDER BY b.createdAt DESC, b.id DESC")
+    List<BookingSummary> findPageByMechanic(@Param("mechanic") User mechanic,
+                                     @Param("createdAt") LocalDateTime createdAt,
+                                     @Param("id") Long id,
+                                     Pageable pageable);
     
     /**
-     * Find bookings by mechanic and status
+     * Find a page of bookings by customer and status
      */
-    List<Booking> findByMechanicAndStatusOrderByCreatedAtDesc(User mechanic, Booking.BookingStatus status);
+    @Query(SUMMARY_SELECT + "WHERE b.customer = :customer AND b.status = :status " +
+           "AND (b.createdAt < :createdAt OR (b.createdAt = :createdAt AND b.id < :id)) " +
+           "ORDER BY b.createdAt DESC, b.id DESC")
+    List<BookingSummary> findPageByCustomerAndStatus(@Param("customer") User customer,
+                                              @Param("status") Booking.BookingStatus status,
+                                              @Param("createdAt") LocalDateTime createdAt,
+                                              @Param("id") Long id,
+                                              Pageable pageable);
     
     /**
-     * Find bookings by date range
+     * Find a page of bookings by mechanic and status
      */
-    @Query("SELECT b FROM Booking b WHERE b.bookingDate BETWEEN :startDate AND :endDate ORDER BY b.bookingDate, b.bookingTime")
-    List<Booking> findBookingsByDateRange(@Param("startDate") LocalDate startDate, 
-                                         @Param("endDate") LocalDate endDate);
+    @Query(SUMMARY_SELECT + "WHERE b.mechanic = :mechanic AND b.status = :status " +
+           "AND (b.createdAt < :createdAt OR (b.createdAt = :createdAt AND b.id < :id)) " +
+           "ORDER BY b.createdAt DESC, b.id DESC")
+    List<BookingSummary> findPageByMechanicAndStatus(@Param("mechanic") User mechanic,
+                                              @Param("status") Booking.BookingStatus status,
+                                              @Param("createdAt") LocalDateTime createdAt,
+                                              @Param("id") Long id,
+                                              Pageable pageable);
     
     /**
-     * Find pending bookings for a mechanic
+     * Load the bookings that occupy mechanic time for the calendar index
+     * Each row is [bookingId, mechanicId, bookingDate, bookingTime, serviceId]
      */
-    @Query("SELECT b FROM Booking b WHERE b.mechanic = :mechanic AND b.status = 'PENDING' " +
-           "ORDER BY b.bookingDate, b.bookingTime")
-    List<Booking> findPendingBookingsForMechanic(@Param("mechanic") User mechanic);
+    @Query("SELECT b.id, b.mechanic.id, b.bookingDate, b.bookingTime, b.service.id FROM Booking b " +
+           "WHERE b.mechanic IS NOT NULL AND b.bookingDate BETWEEN :startDate AND :endDate " +
+           "AND b.status IN :statuses")
+    List<Object[]> findCalendarEntries(@Param("startDate") LocalDate startDate,
+                                       @Param("endDate") LocalDate endDate,
+                                       @Param("statuses") Collection<Booking.BookingStatus> statuses);
     
     /**
-     * Count bookings by status
+     * Load the calendar row of a single booking (same layout as findCalendarEntries)
      */
-    long countByStatus(Booking.BookingStatus status);
+    @Query("SELECT b.id, b.mechanic.id, b.bookingDate, b.bookingTime, b.service.id FROM Booking b " +
+           "WHERE b.id = :bookingId AND b.mechanic IS NOT NULL AND b.status IN :statuses")
+    List<Object[]> findCalendarEntry(@Param("bookingId") Long bookingId,
+                                     @Param("statuses") Collection<Booking.BookingStatus> statuses);
     
     /**
-     * Count bookings by customer
+     * Load what a dispatch claim needs to know about a booking
+     * Each row is [categoryId, bookingDate, bookingTime, latitude, longitude]
      */
-    long countByCustomer(User customer);
+    @Query("SELECT ms.category.id, b.bookingDate, b.bookingTime, b.latitude, b.longitude " +
+           "FROM Booking b JOIN b.service ms " +
+           "WHERE b.id = :bookingId")
+    List<Object[]> findClaimDetails(@Param("bookingId") Long bookingId);
     
     /**
-     * Count bookings by mechanic
+     * Assign an unclaimed dispatched booking to a mechanic
+     * The booking moves to the mechanic's own service in the category and
+     * is billed at that service's price (totalAmount is its basePrice).
+     * The WHERE clause makes this a compare-and-set: only the first claim
+     * updates a row, every later one sees 0 rows (no row lock is held
+     * beyond the single UPDATE statement)
      */
-    long countByMechanic(User mechanic);
-}
\ No newline at end of file
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.mechanic = :mechanic, b.service = :service, " +
+           "b.totalAmount = :totalAmount, b.status = 'ACCEPTED' " +
+           "WHERE b.id = :bookingId AND b.status = 'PENDING' AND b.mechanic IS NULL")
+    int claimBooking(@Param("bookingId") Long bookingId,
+                     @Param("mechanic") User mechanic,
+                     @Param("service") MechanicService service,
+                     @Param("totalAmount") BigDecimal totalAmount);
+}
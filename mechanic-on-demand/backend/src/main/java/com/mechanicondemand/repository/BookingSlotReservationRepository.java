@@ -0,0 +1,22 @@
+package com.mechanicondemand.repository;
+
+import com.mechanicondemand.entity.BookingSlotReservation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * BookingSlotReservationRepository - Data Access Layer for BookingSlotReservation entity
+ */
+@Repository
+public interface BookingSlotReservationRepository extends JpaRepository<BookingSlotReservation, Long> {
+    
+    /**
+     * Free the slots held by a booking
+     */
+    @Modifying
+    @Query("DELETE FROM BookingSlotReservation r WHERE r.booking.id = :bookingId")
+    int deleteByBookingId(@Param("bookingId") Long bookingId);
+}
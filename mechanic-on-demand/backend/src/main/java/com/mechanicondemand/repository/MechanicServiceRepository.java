@@ -1,14 +1,18 @@
 package com.mechanicondemand.repository;
 
+import com.mechanicondemand.dto.ServiceListing;
 import com.mechanicondemand.entity.MechanicService;
 import com.mechanicondemand.entity.ServiceCategory;
 import com.mechanicondemand.entity.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * MechanicServiceRepository - Data Access Layer for MechanicService entity
@@ -16,6 +20,19 @@ import java.util.List;
 @Repository
 public interface MechanicServiceRepository extends JpaRepository<MechanicService, Long> {
     
+    // Columns of the ServiceListing projection (list and search views)
+    String LISTING_SELECT = "SELECT ms.id AS id, ms.serviceName AS serviceName, ms.basePrice AS basePrice, " +
+        "ms.estimatedDuration AS estimatedDuration, ms.isAvailable AS isAvailable, " +
+        "c.id AS categoryId, c.name AS categoryName, " +
+        "m.id AS mechanicId, m.firstName AS mechanicFirstName, m.lastName AS mechanicLastName " +
+        "FROM MechanicService ms JOIN ms.category c JOIN ms.mechanic m ";
+    
+    /**
+     * Find a service with its category (booking creation and dispatch read both)
+     */
+    @EntityGraph("MechanicService.category")
+    Optional<MechanicService> findWithCategoryById(Long id);
+    
     /**
      * Find services by mechanic
      */
@@ -32,9 +49,16 @@ public interface MechanicServiceRepository extends JpaRepository<MechanicService
     List<MechanicService> findByCategoryOrderByServiceName(ServiceCategory category);
     
     /**
-     * Find available services by category
+     * Find available services by category (ServiceListing projections)
+     */
+    @Query(LISTING_SELECT + "WHERE c.id = :categoryId AND ms.isAvailable = true ORDER BY ms.serviceName")
+    List<ServiceListing> findAvailableListingsByCategoryId(@Param("categoryId") Long categoryId);
+    
+    /**
+     * Find the services of a mechanic (ServiceListing projections)
      */
-    List<MechanicService> findByCategoryAndIsAvailableTrueOrderByServiceName(ServiceCategory category);
+    @Query(LISTING_SELECT + "WHERE m.id = :mechanicId ORDER BY ms.serviceName")
+    List<ServiceListing> findListingsByMechanicId(@Param("mechanicId") Long mechanicId);
     
     /**
      * Find services by mechanic and category
@@ -42,10 +66,31 @@ public interface MechanicServiceRepository extends JpaRepository<MechanicService
     List<MechanicService> findByMechanicAndCategoryOrderByServiceName(User mechanic, ServiceCategory category);
     
     /**
-     * Find services by name containing (search functionality)
+     * Load the ServiceListing projections of the given services (any order)
+     */
+    @Query(LISTING_SELECT + "WHERE ms.id IN :ids")
+    List<ServiceListing> findListingsByIds(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Load the text of every available service for the search index
+     * Each row is [serviceId, serviceName, description, mechanicId, mechanic rating]
+     */
+    @Query("SELECT ms.id, ms.serviceName, ms.description, m.id, mp.rating FROM MechanicService ms " +
+           "JOIN ms.mechanic m LEFT JOIN m.mechanicProfile mp WHERE ms.isAvailable = true")
+    List<Object[]> findSearchDocuments();
+    
+    /**
+     * Load the name of every available service for the typeahead index
+     * Each row is [serviceId, serviceName]
+     */
+    @Query("SELECT ms.id, ms.serviceName FROM MechanicService ms WHERE ms.isAvailable = true")
+    List<Object[]> findAvailableServiceNames();
+    
+    /**
+     * Find services by name containing (SQL fallback of CatalogSearchIndex, ServiceListing projections)
      */
-    @Query("SELECT ms FROM MechanicService ms WHERE ms.serviceName LIKE %:name% AND ms.isAvailable = true")
-    List<MechanicService> findServicesByNameContaining(@Param("name") String name);
+    @Query(LISTING_SELECT + "WHERE ms.serviceName LIKE %:name% AND ms.isAvailable = true ORDER BY ms.serviceName")
+    List<ServiceListing> findListingsByNameContaining(@Param("name") String name);
     
     /**
      * Find services by price range
@@ -53,4 +98,30 @@ public interface MechanicServiceRepository extends JpaRepository<MechanicService
     @Query("SELECT ms FROM MechanicService ms WHERE ms.basePrice BETWEEN :minPrice AND :maxPrice AND ms.isAvailable = true")
     List<MechanicService> findServicesByPriceRange(@Param("minPrice") Double minPrice, 
                                                   @Param("maxPrice") Double maxPrice);
-}
\ No newline at end of file
+    
+    /**
+     * Find a mechanic's available service in a category
+     */
+    Optional<MechanicService> findFirstByMechanicIdAndCategoryIdAndIsAvailableTrue(Long mechanicId, Long categoryId);
+    
+    /**
+     * Filter the given mechanics down to those offering an available service in a category
+     */
+    @Query("SELECT DISTINCT ms.mechanic.id FROM MechanicService ms WHERE ms.category.id = :categoryId " +
+           "AND ms.isAvailable = true AND ms.mechanic.id IN :mechanicIds")
+    List<Long> findMechanicIdsOfferingCategory(@Param("categoryId") Long categoryId,
+                                               @Param("mechanicIds") Collection<Long> mechanicIds);
+    
+    /**
+     * Load service durations for the calendar index
+     * Each row is [serviceId, mechanicId, estimatedDuration]
+     */
+    @Query("SELECT ms.id, ms.mechanic.id, ms.estimatedDuration FROM MechanicService ms")
+    List<Object[]> findServiceDurations();
+    
+    /**
+     * Load the duration of a single service (same row layout as findServiceDurations)
+     */
+    @Query("SELECT ms.id, ms.mechanic.id, ms.estimatedDuration FROM MechanicService ms WHERE ms.id = :id")
+    List<Object[]> findServiceDuration(@Param("id") Long id);
+}
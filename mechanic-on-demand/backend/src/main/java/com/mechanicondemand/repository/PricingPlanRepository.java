@@ -0,0 +1,28 @@
+package com.mechanicondemand.repository;
+
+import com.mechanicondemand.entity.PricingPlan;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.QueryHint;
+import java.util.List;
+
+/**
+ * PricingPlanRepository - Data Access Layer for PricingPlan entity
+ *
+ * Finder results are kept in the query cache; they are invalidated whenever
+ * the pricing_plans table is written through Hibernate.
+ */
+@Repository
+public interface PricingPlanRepository extends JpaRepository<PricingPlan, Long> {
+    
+    /**
+     * Find active pricing plans, cheapest first
+     */
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+        @QueryHint(name = "org.hibernate.cacheRegion", value = ServiceCategoryRepository.QUERY_CACHE_REGION)
+    })
+    List<PricingPlan> findByIsActiveTrueOrderByPriceAsc();
+}
@@ -2,23 +2,39 @@ package com.mechanicondemand.repository;
 
 import com.mechanicondemand.entity.ServiceCategory;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
 import java.util.List;
 
 /**
  * ServiceCategoryRepository - Data Access Layer for ServiceCategory entity
+ *
+ * Finder results are kept in the query cache; they are invalidated whenever
+ * the service_categories table is written through Hibernate.
  */
 @Repository
 public interface ServiceCategoryRepository extends JpaRepository<ServiceCategory, Long> {
     
+    // Query cache region of the reference data finders (see ehcache.xml)
+    String QUERY_CACHE_REGION = "reference-data-queries";
+    
     /**
      * Find active service categories
      */
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+        @QueryHint(name = "org.hibernate.cacheRegion", value = QUERY_CACHE_REGION)
+    })
     List<ServiceCategory> findByIsActiveTrueOrderByName();
     
     /**
      * Find service category by name
      */
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+        @QueryHint(name = "org.hibernate.cacheRegion", value = QUERY_CACHE_REGION)
+    })
     ServiceCategory findByName(String name);
-}
\ No newline at end of file
+}
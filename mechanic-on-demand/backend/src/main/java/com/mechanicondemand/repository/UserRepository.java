@@ -1,11 +1,16 @@
 package com.mechanicondemand.repository;
 
+import com.mechanicondemand.dto.MechanicCard;
 import com.mechanicondemand.entity.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,34 +22,62 @@ import java.util.Optional;
  * - Pagination and sorting support
  * - Query methods by method names
  * - Custom queries using @Query annotation
+ *
+ * Finders that return User entities fetch both profiles in the same query
+ * (the "User.profiles" entity graph); list and search views use projections.
  */
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     
+    // Columns of the MechanicCard projection (list and search views)
+    String MECHANIC_CARD_SELECT = "SELECT u.id AS id, u.username AS username, u.firstName AS firstName, " +
+        "u.lastName AS lastName, mp.specialization AS specialization, mp.experienceYears AS experienceYears, " +
+        "mp.hourlyRate AS hourlyRate, mp.rating AS rating, mp.totalRatings AS totalRatings, " +
+        "mp.serviceRadius AS serviceRadius, mp.isAvailable AS isAvailable, mp.city AS city " +
+        "FROM User u JOIN u.mechanicProfile mp ";
+    
+    /**
+     * Find user by id (with profiles)
+     */
+    @Override
+    @EntityGraph("User.profiles")
+    Optional<User> findById(Long id);
+    
     /**
      * Find user by username
      * Spring Data JPA automatically implements this method based on method name
      */
+    @EntityGraph("User.profiles")
     Optional<User> findByUsername(String username);
     
     /**
      * Find user by email
      */
+    @EntityGraph("User.profiles")
     Optional<User> findByEmail(String email);
     
     /**
      * Find user by username or email
      */
+    @EntityGraph("User.profiles")
     Optional<User> findByUsernameOrEmail(String username, String email);
     
+    /**
+     * Usernames of the accounts a login identifier (username or email) names
+     */
+    @Query("SELECT u.username FROM User u WHERE u.username = :login OR u.email = :login")
+    List<String> findUsernamesByLogin(@Param("login") String login);
+    
     /**
      * Find users by user type (CUSTOMER or MECHANIC)
      */
+    @EntityGraph("User.profiles")
     List<User> findByUserType(User.UserType userType);
     
     /**
      * Find active users by user type
      */
+    @EntityGraph("User.profiles")
     List<User> findByUserTypeAndIsActive(User.UserType userType, Boolean isActive);
     
     /**
@@ -59,25 +92,102 @@ public interface UserRepository extends JpaRepository<User, Long> {
     
     /**
      * Find mechanics near a location (within specified radius)
+     * Only mechanics whose own service radius reaches the location are returned;
+     * service radii are capped at maxServiceRadius like in MechanicGeoIndex
      * This is a custom query using native SQL
+     * Each row is [userId, currentLatitude, currentLongitude, rating, hourlyRate]
      */
-    @Query(value = "SELECT u.* FROM users u " +
+    @Query(value = "SELECT u.id, mp.current_latitude, mp.current_longitude, mp.rating, mp.hourly_rate " +
+                   "FROM users u " +
                    "JOIN mechanic_profiles mp ON u.id = mp.user_id " +
                    "WHERE u.user_type = 'MECHANIC' " +
                    "AND u.is_active = true " +
                    "AND mp.is_available = true " +
                    "AND (6371 * acos(cos(radians(:latitude)) * cos(radians(mp.current_latitude)) * " +
                    "cos(radians(mp.current_longitude) - radians(:longitude)) + " +
-                   "sin(radians(:latitude)) * sin(radians(mp.current_latitude)))) <= :radius",
+                   "sin(radians(:latitude)) * sin(radians(mp.current_latitude)))) " +
+                   "<= LEAST(:radius, COALESCE(mp.service_radius, 10), :maxServiceRadius)",
            nativeQuery = true)
-    List<User> findNearbyMechanics(@Param("latitude") Double latitude, 
+    List<Object[]> findNearbyMechanics(@Param("latitude") Double latitude, 
                                   @Param("longitude") Double longitude, 
-                                  @Param("radius") Double radius);
-    
+                                  @Param("radius") Double radius,
+                                  @Param("maxServiceRadius") Double maxServiceRadius);
+
+    /**
+     * Load available mechanics for the in-memory geo index
+     * Each row is [userId, currentLatitude, currentLongitude, rating, hourlyRate, serviceRadius]
+     */
+    @Query("SELECT u.id, mp.currentLatitude, mp.currentLongitude, mp.rating, mp.hourlyRate, mp.serviceRadius " +
+           "FROM User u JOIN u.mechanicProfile mp " +
+           "WHERE u.userType = 'MECHANIC' AND u.isActive = true AND mp.isAvailable = true " +
+           "AND mp.currentLatitude IS NOT NULL AND mp.currentLongitude IS NOT NULL")
+    List<Object[]> findAvailableMechanicLocations();
+
+    /**
+     * Filter the given ids down to active, available mechanics
+     * Each row is [userId, rating, hourlyRate, serviceRadius]
+     */
+    @Query("SELECT u.id, mp.rating, mp.hourlyRate, mp.serviceRadius FROM User u JOIN u.mechanicProfile mp WHERE u.id IN :ids " +
+           "AND u.userType = 'MECHANIC' AND u.isActive = true AND mp.isAvailable = true")
+    List<Object[]> findAvailableMechanicRankings(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Position and service radius of an active, available mechanic
+     * Each row is [currentLatitude, currentLongitude, serviceRadius]
+     */
+    @Query("SELECT mp.currentLatitude, mp.currentLongitude, mp.serviceRadius FROM User u JOIN u.mechanicProfile mp " +
+           "WHERE u.id = :id AND u.userType = 'MECHANIC' AND u.isActive = true AND mp.isAvailable = true " +
+           "AND mp.currentLatitude IS NOT NULL AND mp.currentLongitude IS NOT NULL")
+    List<Object[]> findAvailableMechanicLocation(@Param("id") Long id);
+
+    /**
+     * Load the users whose tokens need an extra check (deactivated or re-versioned)
+     * Each row is [userId, securityVersion, isActive]
+     */
+    @Query("SELECT u.id, u.securityVersion, u.isActive FROM User u " +
+           "WHERE u.securityVersion > 0 OR u.isActive = false")
+    List<Object[]> findSecurityVersionExceptions();
+
+    /**
+     * Load every username and email (availability filter)
+     * Each row is [username, email]
+     */
+    @Query("SELECT u.username, u.email FROM User u")
+    List<Object[]> findAllUsernamesAndEmails();
+
+    /**
+     * Replace the stored password hash of a user (rehash with a new cost factor)
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.id = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password);
+
+    /**
+     * Active mechanics as MechanicCard projections, best rated first
+     */
+    @Query(MECHANIC_CARD_SELECT + "WHERE u.userType = 'MECHANIC' AND u.isActive = true " +
+           "ORDER BY mp.rating DESC, u.id")
+    List<MechanicCard> findMechanicCards();
+
+    /**
+     * Load the specialization of every active mechanic for the search index
+     * Each row is [userId, specialization, rating]
+     */
+    @Query("SELECT u.id, mp.specialization, mp.rating FROM User u JOIN u.mechanicProfile mp " +
+           "WHERE u.userType = 'MECHANIC' AND u.isActive = true AND mp.specialization IS NOT NULL")
+    List<Object[]> findMechanicSearchDocuments();
+
+    /**
+     * Find mechanics by specialization (SQL fallback of CatalogSearchIndex, MechanicCard projections)
+     */
+    @Query(MECHANIC_CARD_SELECT + "WHERE u.userType = 'MECHANIC' AND u.isActive = true " +
+           "AND mp.specialization LIKE %:specialization% ORDER BY mp.rating DESC, u.id")
+    List<MechanicCard> findMechanicCardsBySpecialization(@Param("specialization") String specialization);
+
     /**
-     * Find mechanics by specialization
+     * Load the MechanicCard projections of the given mechanics (any order)
      */
-    @Query("SELECT u FROM User u JOIN u.mechanicProfile mp WHERE u.userType = 'MECHANIC' " +
-           "AND u.isActive = true AND mp.specialization LIKE %:specialization%")
-    List<User> findMechanicsBySpecialization(@Param("specialization") String specialization);
+    @Query(MECHANIC_CARD_SELECT + "WHERE u.id IN :ids")
+    List<MechanicCard> findMechanicCardsByIds(@Param("ids") Collection<Long> ids);
 }
\ No newline at end of file
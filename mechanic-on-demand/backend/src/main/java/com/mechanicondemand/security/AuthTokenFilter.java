@@ -1,6 +1,8 @@
 package com.mechanicondemand.security;
 
 import com.mechanicondemand.service.UserDetailsServiceImpl;
+import com.mechanicondemand.service.UserDetailsServiceImpl.UserPrincipal;
+import io.jsonwebtoken.Claims;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -22,7 +24,9 @@ import java.io.IOException;
  * 
  * This filter:
  * - Extracts JWT token from Authorization header
- * - Validates the token
+ * - Validates the token (rejecting refresh tokens and revoked tokens)
+ * - Builds the principal from the token claims (self-contained tokens)
+ *   or loads it by username
  * - Sets authentication in SecurityContext
  * - Runs once per request
  */
@@ -34,6 +38,15 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
     
+    @Autowired
+    private PrincipalCache principalCache;
+    
+    @Autowired
+    private SecurityVersionRegistry securityVersionRegistry;
+    
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+    
     private static final Logger logger = LoggerFactory.getLogger(AuthTokenFilter.class);
     
     @Override
@@ -44,12 +57,25 @@ public class AuthTokenFilter extends OncePerRequestFilter {
             // Extract JWT token from request
             String jwt = parseJwt(request);
             
-            // Validate token and set authentication
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
+            // Verify token (claims come back in the same pass) and set authentication
+            Claims claims = jwt != null ? jwtUtils.verifyJwtToken(jwt) : null;
+            
+            // Refresh tokens are only accepted by /api/auth/refresh; logged out tokens are revoked
+            if (claims != null && (JwtUtils.isRefreshToken(claims) || tokenRevocationList.isRevoked(claims))) {
+                claims = null;
+            }
+            
+            if (claims != null) {
+                // Self-contained tokens are resolved from their claims, others by loading the user
+                UserDetails userDetails = claims.get(JwtUtils.CLAIM_USER_ID) != null
+                    ? principalFromClaims(claims)
+                    : principalCache.get(claims.getSubject(),
+                        name -> (UserPrincipal) userDetailsService.loadUserByUsername(name));
                 
-                // Load user details
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                if (userDetails == null) {
+                    filterChain.doFilter(request, response);
+                    return;
+                }
                 
                 // Create authentication token
                 UsernamePasswordAuthenticationToken authentication = 
@@ -69,6 +95,31 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
     
+    /**
+     * Build the principal of a self-contained token
+     * Returns null when the token's security version was revoked
+     */
+    private UserPrincipal principalFromClaims(Claims claims) {
+        Long userId = ((Number) claims.get(JwtUtils.CLAIM_USER_ID)).longValue();
+        Number version = (Number) claims.get(JwtUtils.CLAIM_SECURITY_VERSION);
+        int securityVersion = version != null ? version.intValue() : 0;
+        
+        if (!securityVersionRegistry.isReady()) {
+            // Still starting up: check the version against the user row instead
+            UserPrincipal loaded = principalCache.get(claims.getSubject(),
+                name -> (UserPrincipal) userDetailsService.loadUserByUsername(name));
+            return loaded.isEnabled() && loaded.getSecurityVersion() == securityVersion ? loaded : null;
+        }
+        
+        if (!securityVersionRegistry.isCurrent(userId, securityVersion)) {
+            logger.debug("Rejected token of user {} with revoked version {}", userId, securityVersion);
+            return null;
+        }
+        
+        return new UserPrincipal(userId, claims.getSubject(), null, null, true,
+            claims.get(JwtUtils.CLAIM_USER_TYPE, String.class), securityVersion);
+    }
+    
     /**
      * Extract JWT token from Authorization header
      * Expected format: "Bearer <token>"
@@ -0,0 +1,168 @@
+package com.mechanicondemand.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * BoundedPasswordEncoder - BCrypt on a dedicated, size-bounded worker pool
+ *
+ * BCrypt is deliberately slow. Running it on request threads lets a login
+ * burst occupy every Tomcat thread and starve cheap endpoints. Here:
+ *
+ * - Hashing and verification run on a fixed pool of worker threads
+ * - At most queueCapacity calls wait for a worker; beyond that, and for
+ *   calls that wait longer than the timeout, PasswordEncoderBusyException
+ *   is thrown right away (the controllers answer 503)
+ * - upgradeEncoding reports hashes made with a lower cost factor, so
+ *   Spring Security rehashes them on the next successful login
+ * - Hash latency, queue depth, active workers and rejections are
+ *   published through Micrometer
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, MeterBinder, DisposableBean {
+
+    private final BCryptPasswordEncoder delegate;
+
+    private final ThreadPoolExecutor executor;
+
+    private final long timeoutMillis;
+
+    private Timer encodeTimer;
+
+    private Timer matchesTimer;
+
+    private Counter rejected;
+
+    public BoundedPasswordEncoder(int strength, int poolSize, int queueCapacity, long timeoutMillis) {
+        this.delegate = new BCryptPasswordEncoder(strength);
+        this.timeoutMillis = timeoutMillis;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+            runnable -> {
+                Thread thread = new Thread(runnable, "bcrypt-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        encodeTimer = Timer.builder("password.hash.duration").tag("operation", "encode")
+            .description("Time spent hashing passwords").register(registry);
+        matchesTimer = Timer.builder("password.hash.duration").tag("operation", "matches")
+            .description("Time spent verifying passwords").register(registry);
+        rejected = Counter.builder("password.hash.rejected")
+            .description("Password operations rejected because the pool was saturated").register(registry);
+        Gauge.builder("password.hash.queue.size", executor, pool -> pool.getQueue().size())
+            .description("Password operations waiting for a worker").register(registry);
+        Gauge.builder("password.hash.active", executor, ThreadPoolExecutor::getActiveCount)
+            .description("Workers currently hashing").register(registry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> {
+            long start = System.nanoTime();
+            try {
+                return delegate.encode(rawPassword);
+            } finally {
+                record(encodeTimer, start);
+            }
+        });
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> {
+            long start = System.nanoTime();
+            try {
+                return delegate.matches(rawPassword, encodedPassword);
+            } finally {
+                record(matchesTimer, start);
+            }
+        });
+    }
+
+    /**
+     * True when the hash uses a lower cost factor than configured
+     * (cheap: only the hash prefix is inspected)
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private <T> T submit(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            reject();
+            throw new PasswordEncoderBusyException();
+        }
+
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Drop the call if it is still queued; the caller has given up
+            future.cancel(true);
+            reject();
+            throw new PasswordEncoderBusyException();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordEncoderBusyException();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private void reject() {
+        if (rejected != null) {
+            rejected.increment();
+        }
+    }
+
+    private static void record(Timer timer, long start) {
+        if (timer != null) {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * All password workers are busy and the queue is full
+     */
+    public static class PasswordEncoderBusyException extends RuntimeException {
+
+        public PasswordEncoderBusyException() {
+            super("Server is busy, please retry shortly");
+        }
+    }
+}
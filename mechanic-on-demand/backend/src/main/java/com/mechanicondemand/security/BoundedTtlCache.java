@@ -0,0 +1,168 @@
+package com.mechanicondemand.security;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * BoundedTtlCache - Size-bounded LRU cache whose entries expire
+ *
+ * Shared by the security caches (principals, verified tokens). Entries are
+ * spread over segments by key hash; each segment is an access-ordered
+ * LinkedHashMap guarded by its own lock, so a full cache evicts the least
+ * recently used entry of the segment in O(1) instead of scanning for a victim.
+ *
+ * - Expired entries are dropped when they are read (or evicted as least recently used)
+ * - Entries added by computeIfAbsent never expire; callers sweep them with removeIf
+ * - A cache built with maxSize <= 0 keeps nothing
+ * - Times are whatever clock the caller passes in (consistently)
+ */
+public final class BoundedTtlCache<K, V> {
+
+    // Large caches are split so concurrent requests rarely share a lock
+    private static final int SEGMENTS = 16;
+
+    private static final int MIN_SEGMENT_SIZE = 64;
+
+    private final Segment<K, V>[] segments;
+
+    @SuppressWarnings("unchecked")
+    public BoundedTtlCache(int maxSize) {
+        int count = maxSize >= SEGMENTS * MIN_SEGMENT_SIZE ? SEGMENTS : 1;
+        int segmentSize = maxSize > 0 ? (maxSize + count - 1) / count : 0;
+        segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment<>(segmentSize);
+        }
+    }
+
+    /**
+     * Value of a key, or null when it is missing or expired at now
+     */
+    public V get(K key, long now) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            Entry<V> entry = segment.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt <= now) {
+                segment.remove(key);
+                return null;
+            }
+            return entry.value;
+        }
+    }
+
+    /**
+     * Store a value until expiresAt, evicting the least recently used entry when full
+     */
+    public void put(K key, V value, long expiresAt) {
+        Segment<K, V> segment = segmentFor(key);
+        if (segment.maxSize == 0) {
+            return;
+        }
+        synchronized (segment) {
+            segment.put(key, new Entry<>(value, expiresAt));
+        }
+    }
+
+    /**
+     * Value of a key, creating a non-expiring entry when it is missing
+     * Returns null (and stores nothing) when the cache keeps nothing
+     */
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mapping) {
+        Segment<K, V> segment = segmentFor(key);
+        if (segment.maxSize == 0) {
+            return null;
+        }
+        synchronized (segment) {
+            Entry<V> entry = segment.get(key);
+            if (entry == null) {
+                entry = new Entry<>(mapping.apply(key), Long.MAX_VALUE);
+                segment.put(key, entry);
+            }
+            return entry.value;
+        }
+    }
+
+    /**
+     * Drop one key
+     */
+    public void remove(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            segment.remove(key);
+        }
+    }
+
+    /**
+     * Drop every entry whose value matches (a full pass, not for the request path)
+     */
+    public void removeIf(Predicate<? super V> filter) {
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                segment.values().removeIf(entry -> filter.test(entry.value));
+            }
+        }
+    }
+
+    /**
+     * Number of entries, including expired ones not yet dropped
+     */
+    public int size() {
+        int size = 0;
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Drop everything
+     */
+    public void clear() {
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    private Segment<K, V> segmentFor(Object key) {
+        int hash = key.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (segments.length - 1)];
+    }
+
+    /**
+     * Access-ordered map that drops its eldest (least recently used) entry when full
+     */
+    private static final class Segment<K, V> extends LinkedHashMap<K, Entry<V>> {
+
+        private final int maxSize;
+
+        private Segment(int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+            return size() > maxSize;
+        }
+    }
+
+    private static final class Entry<V> {
+
+        private final V value;
+        private final long expiresAt;
+
+        private Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
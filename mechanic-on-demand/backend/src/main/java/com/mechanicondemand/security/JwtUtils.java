@@ -1,5 +1,6 @@
 package com.mechanicondemand.security;
 
+import com.mechanicondemand.service.UserDetailsServiceImpl.UserPrincipal;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import org.slf4j.Logger;
@@ -9,8 +10,10 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PostConstruct;
 import javax.crypto.SecretKey;
 import java.util.Date;
+import java.util.UUID;
 
 /**
  * JwtUtils - Utility class for JWT token operations
@@ -29,26 +32,117 @@ public class JwtUtils {
     
     private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
     
+    // Custom claims of self-contained tokens
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_USER_TYPE = "utype";
+    public static final String CLAIM_SECURITY_VERSION = "sv";
+    public static final String CLAIM_TOKEN_TYPE = "ttype";
+    
+    // Values of CLAIM_TOKEN_TYPE (tokens without it are access tokens)
+    public static final String TOKEN_TYPE_ACCESS = "access";
+    public static final String TOKEN_TYPE_REFRESH = "refresh";
+    
     @Value("${jwt.secret}")
     private String jwtSecret;
     
+    // Lifetime of access tokens
     @Value("${jwt.expiration}")
     private int jwtExpirationMs;
     
+    // Lifetime of refresh tokens (used only at /api/auth/refresh)
+    @Value("${jwt.refresh-expiration:604800000}")
+    private long jwtRefreshExpirationMs;
+    
+    // When enabled, tokens carry user id, type and security version so
+    // requests can be authenticated without loading the user
+    @Value("${jwt.claims-mode:false}")
+    private boolean claimsMode;
+    
+    // Verified tokens kept in memory (the whole token is the key)
+    @Value("${jwt.verified-cache.max-size:10000}")
+    private int verifiedCacheMaxSize;
+    
+    private BoundedTtlCache<String, Claims> verifiedTokens;
+    
+    private SecretKey signingKey;
+    
+    private JwtParser parser;
+    
     /**
      * Generate JWT token from authentication object
      */
     public String generateJwtToken(Authentication authentication) {
-        UserDetails userPrincipal = (UserDetails) authentication.getPrincipal();
+        return generateAccessToken((UserDetails) authentication.getPrincipal());
+    }
+    
+    /**
+     * Generate a short-lived access token for a user
+     */
+    public String generateAccessToken(UserDetails userPrincipal) {
+        if (claimsMode && userPrincipal instanceof UserPrincipal) {
+            return generateTokenFromPrincipal((UserPrincipal) userPrincipal);
+        }
         return generateTokenFromUsername(userPrincipal.getUsername());
     }
     
+    /**
+     * Generate a refresh token for a user
+     * It carries the user id and security version so rotation can reject
+     * tokens of changed or deactivated accounts
+     */
+    public String generateRefreshToken(UserPrincipal principal) {
+        Date now = new Date();
+        return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
+                .setSubject(principal.getUsername())
+                .claim(CLAIM_USER_ID, principal.getId())
+                .claim(CLAIM_SECURITY_VERSION, principal.getSecurityVersion())
+                .claim(CLAIM_TOKEN_TYPE, TOKEN_TYPE_REFRESH)
+                .setIssuedAt(now)
+                .setExpiration(new Date(now.getTime() + jwtRefreshExpirationMs))
+                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+                .compact();
+    }
+    
+    /**
+     * Whether verified claims belong to a refresh token
+     */
+    public static boolean isRefreshToken(Claims claims) {
+        return TOKEN_TYPE_REFRESH.equals(claims.get(CLAIM_TOKEN_TYPE));
+    }
+    
+    /**
+     * Lifetime of access tokens in milliseconds
+     */
+    public long getJwtExpirationMs() {
+        return jwtExpirationMs;
+    }
+    
+    /**
+     * Generate a self-contained JWT token carrying the principal's claims
+     */
+    public String generateTokenFromPrincipal(UserPrincipal principal) {
+        return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
+                .setSubject(principal.getUsername())
+                .claim(CLAIM_USER_ID, principal.getId())
+                .claim(CLAIM_USER_TYPE, principal.getUserType())
+                .claim(CLAIM_SECURITY_VERSION, principal.getSecurityVersion())
+                .claim(CLAIM_TOKEN_TYPE, TOKEN_TYPE_ACCESS)
+                .setIssuedAt(new Date())
+                .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
+                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+                .compact();
+    }
+    
     /**
      * Generate JWT token from username
      */
     public String generateTokenFromUsername(String username) {
         return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
                 .setSubject(username)
+                .claim(CLAIM_TOKEN_TYPE, TOKEN_TYPE_ACCESS)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
                 .signWith(getSigningKey(), SignatureAlgorithm.HS512)
@@ -59,24 +153,41 @@ public class JwtUtils {
      * Get username from JWT token
      */
     public String getUserNameFromJwtToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        return parser.parseClaimsJws(token).getBody().getSubject();
+    }
+    
+    /**
+     * Get all claims from JWT token
+     */
+    public Claims getClaimsFromJwtToken(String token) {
+        return parser.parseClaimsJws(token).getBody();
     }
     
     /**
      * Validate JWT token
      */
     public boolean validateJwtToken(String authToken) {
+        return verifyJwtToken(authToken) != null;
+    }
+    
+    /**
+     * Verify a JWT token and return its claims in a single pass
+     * Recently verified tokens are answered from the cache until they expire,
+     * skipping the signature check. Returns null for an invalid token.
+     */
+    public Claims verifyJwtToken(String authToken) {
+        Claims cached = verifiedTokens.get(authToken, System.currentTimeMillis());
+        if (cached != null) {
+            return cached;
+        }
+        
         try {
-            Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(authToken);
-            return true;
+            Claims claims = parser.parseClaimsJws(authToken).getBody();
+            Date expiration = claims.getExpiration();
+            if (expiration != null) {
+                verifiedTokens.put(authToken, claims, expiration.getTime());
+            }
+            return claims;
         } catch (MalformedJwtException e) {
             logger.error("Invalid JWT token: {}", e.getMessage());
         } catch (ExpiredJwtException e) {
@@ -85,15 +196,28 @@ public class JwtUtils {
             logger.error("JWT token is unsupported: {}", e.getMessage());
         } catch (IllegalArgumentException e) {
             logger.error("JWT claims string is empty: {}", e.getMessage());
+        } catch (JwtException e) {
+            logger.error("JWT signature is invalid: {}", e.getMessage());
         }
-        return false;
+        return null;
+    }
+    
+    /**
+     * Build the signing key, parser and verified-token cache once; all are thread-safe
+     */
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        verifiedTokens = new BoundedTtlCache<>(verifiedCacheMaxSize);
     }
     
     /**
      * Get signing key from secret
      */
     private SecretKey getSigningKey() {
-        byte[] keyBytes = jwtSecret.getBytes();
-        return Keys.hmacShaKeyFor(keyBytes);
+        return signingKey;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,74 @@
+package com.mechanicondemand.security;
+
+import com.mechanicondemand.service.UserDetailsServiceImpl.UserPrincipal;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Function;
+
+/**
+ * PrincipalCache - Short-lived cache of authenticated principals
+ * 
+ * AuthTokenFilter resolves the username in every JWT to a UserPrincipal.
+ * Caching the principal for a short TTL saves a user query per request.
+ * 
+ * - Bounded: the least recently used principal makes room when full
+ * - Invalidated explicitly when UserService changes or deletes an account
+ * - Hit/miss counters and the size are published through Micrometer
+ */
+@Component
+public class PrincipalCache {
+    
+    private final BoundedTtlCache<String, UserPrincipal> entries;
+    
+    private final long ttlMillis;
+    
+    private final Counter hits;
+    
+    private final Counter misses;
+    
+    public PrincipalCache(MeterRegistry meterRegistry,
+                          @Value("${security.principal-cache.ttl-seconds:60}") long ttlSeconds,
+                          @Value("${security.principal-cache.max-size:10000}") int maxSize) {
+        this.entries = new BoundedTtlCache<>(maxSize);
+        this.ttlMillis = ttlSeconds * 1000;
+        this.hits = Counter.builder("principal.cache.requests").tag("result", "hit")
+            .description("Principal lookups answered from the cache").register(meterRegistry);
+        this.misses = Counter.builder("principal.cache.requests").tag("result", "miss")
+            .description("Principal lookups that loaded the user").register(meterRegistry);
+        meterRegistry.gauge("principal.cache.size", entries, BoundedTtlCache::size);
+    }
+    
+    /**
+     * Get the principal of a username, loading it on a miss
+     */
+    public UserPrincipal get(String username, Function<String, UserPrincipal> loader) {
+        long now = System.currentTimeMillis();
+        UserPrincipal cached = entries.get(username, now);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        
+        misses.increment();
+        UserPrincipal principal = loader.apply(username);
+        entries.put(username, principal, now + ttlMillis);
+        return principal;
+    }
+    
+    /**
+     * Drop every cached principal of a user (by id, so old usernames go too)
+     */
+    public void invalidate(Long userId) {
+        entries.removeIf(principal -> principal.getId().equals(userId));
+    }
+    
+    /**
+     * Drop all cached principals
+     */
+    public void clear() {
+        entries.clear();
+    }
+}
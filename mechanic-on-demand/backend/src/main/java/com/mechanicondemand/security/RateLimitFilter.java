@@ -0,0 +1,84 @@
+package com.mechanicondemand.security;
+
+import com.mechanicondemand.service.UserDetailsServiceImpl.UserPrincipal;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RateLimitFilter - Rejects clients that exceed a route's rate limit
+ *
+ * This filter:
+ * - Runs after AuthTokenFilter, so authenticated clients are limited by
+ *   username and anonymous ones by IP address
+ * - Answers 429 Too Many Requests with a Retry-After header
+ * - Costs one pattern match per rule and one compare-and-set per matching
+ *   rule on requests that pass
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+
+        long waitNanos = rateLimiter.acquire(request, currentUsername());
+        if (waitNanos > 0) {
+            logger.debug("Rate limited {} {} from {}", request.getMethod(), request.getRequestURI(),
+                request.getRemoteAddr());
+            writeTooManyRequests(request, response, waitNanos);
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !rateLimiter.isEnabled();
+    }
+
+    /**
+     * Write a 429 response in the same format as AuthEntryPointJwt
+     */
+    private void writeTooManyRequests(HttpServletRequest request, HttpServletResponse response,
+                                      long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+
+        response.setStatus(429);
+        response.setHeader("Retry-After", Long.toString(retryAfterSeconds));
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+
+        String errorResponse = String.format(
+            "{\"error\": \"Too many requests, retry in %d seconds\", \"status\": %d, \"path\": \"%s\"}",
+            retryAfterSeconds,
+            429,
+            request.getRequestURI()
+        );
+
+        response.getWriter().write(errorResponse);
+    }
+
+    private String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal) {
+            return ((UserPrincipal) authentication.getPrincipal()).getUsername();
+        }
+        return null;
+    }
+}
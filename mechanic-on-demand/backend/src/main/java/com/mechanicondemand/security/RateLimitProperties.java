@@ -0,0 +1,131 @@
+package com.mechanicondemand.security;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * RateLimitProperties - Per-route request limits (rate-limit.* properties)
+ *
+ * Each rule allows `limit` requests per `periodSeconds` for one client,
+ * with bursts of up to `burst` requests (defaults to limit). Clients are
+ * identified by IP address, or by username for USER rules (anonymous
+ * requests fall back to the IP address). A rule without a pattern is only
+ * checked explicitly by name (e.g. the per-account login limit).
+ */
+@Component
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // Upper bound of tracked clients per rule (the least recently seen is evicted when full)
+    private int maxKeys = 100000;
+
+    private List<Rule> rules = new ArrayList<>();
+
+    /**
+     * How a client is identified
+     */
+    public enum KeyType {
+        IP, USER
+    }
+
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMaxKeys() {
+        return maxKeys;
+    }
+
+    public void setMaxKeys(int maxKeys) {
+        this.maxKeys = maxKeys;
+    }
+
+    public List<Rule> getRules() {
+        return rules;
+    }
+
+    public void setRules(List<Rule> rules) {
+        this.rules = rules;
+    }
+
+    /**
+     * One limit, optionally bound to a route (Ant pattern and HTTP method)
+     */
+    public static class Rule {
+
+        private String name;
+        private String pattern;
+        private String method;
+        private KeyType key = KeyType.IP;
+        private int limit;
+        private long periodSeconds = 60;
+        private int burst;
+
+        // Getters and Setters
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getPattern() {
+            return pattern;
+        }
+
+        public void setPattern(String pattern) {
+            this.pattern = pattern;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public void setMethod(String method) {
+            this.method = method;
+        }
+
+        public KeyType getKey() {
+            return key;
+        }
+
+        public void setKey(KeyType key) {
+            this.key = key;
+        }
+
+        public int getLimit() {
+            return limit;
+        }
+
+        public void setLimit(int limit) {
+            this.limit = limit;
+        }
+
+        public long getPeriodSeconds() {
+            return periodSeconds;
+        }
+
+        public void setPeriodSeconds(long periodSeconds) {
+            this.periodSeconds = periodSeconds;
+        }
+
+        public int getBurst() {
+            return burst;
+        }
+
+        public void setBurst(int burst) {
+            this.burst = burst;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.mechanicondemand.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * RateLimiter - Lock-free per-client rate limits
+ *
+ * Every (rule, client) pair is a single AtomicLong holding the theoretical
+ * arrival time of the next request (GCRA, the token bucket expressed as a
+ * timestamp). A request is allowed when that time is at most `burst`
+ * intervals ahead of now and then pushes it one interval further with a
+ * compare-and-set, so known clients allocate nothing.
+ *
+ * Each rule tracks at most max-keys clients in a BoundedTtlCache: when it
+ * is full, a new client evicts the least recently seen one in O(1), so a
+ * flood of new keys neither scans the table nor goes untracked. A client
+ * whose arrival time has passed has a full bucket and holds no state
+ * worth keeping, so idle clients are also swept periodically.
+ */
+@Component
+public class RateLimiter {
+
+    // Checked by AuthController with the username or email of a login attempt
+    public static final String LOGIN_ACCOUNT_RULE = "login-account";
+
+    private final RateLimitProperties properties;
+
+    private final List<Limit> routeLimits = new ArrayList<>();
+
+    private final Map<String, Limit> limitsByName = new HashMap<>();
+
+    public RateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        for (RateLimitProperties.Rule rule : properties.getRules()) {
+            Limit limit = new Limit(rule, meterRegistry);
+            limitsByName.put(rule.getName(), limit);
+            if (limit.matcher != null) {
+                routeLimits.add(limit);
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled() && !limitsByName.isEmpty();
+    }
+
+    /**
+     * Apply the route rules matching a request
+     * Returns 0 when allowed, otherwise the nanoseconds until a retry can succeed
+     */
+    public long acquire(HttpServletRequest request, String username) {
+        if (!properties.isEnabled()) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        for (Limit limit : routeLimits) {
+            if (!limit.matcher.matches(request)) {
+                continue;
+            }
+            String key = limit.keyType == RateLimitProperties.KeyType.USER && username != null
+                ? username : request.getRemoteAddr();
+            long wait = limit.acquire(key, now);
+            if (wait > 0) {
+                return wait;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Apply a rule by name to an explicit key
+     * Returns 0 when allowed (or the rule is not configured), otherwise the
+     * nanoseconds until a retry can succeed
+     */
+    public long acquire(String ruleName, String key) {
+        Limit limit = limitsByName.get(ruleName);
+        if (!properties.isEnabled() || limit == null || key == null) {
+            return 0;
+        }
+        return limit.acquire(key, System.nanoTime());
+    }
+
+    /**
+     * Forget clients whose buckets have refilled
+     */
+    @Scheduled(fixedDelayString = "${rate-limit.sweep-interval-ms:60000}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        for (Limit limit : limitsByName.values()) {
+            limit.evictIdle(now);
+        }
+    }
+
+    private final class Limit {
+
+        private final String name;
+        private final AntPathRequestMatcher matcher;
+        private final RateLimitProperties.KeyType keyType;
+        private final long intervalNanos;
+        private final long toleranceNanos;
+        private final Counter rejected;
+
+        // client -> theoretical arrival time (System.nanoTime based), least recently seen evicted first
+        private final BoundedTtlCache<String, AtomicLong> arrivals;
+
+        private Limit(RateLimitProperties.Rule rule, MeterRegistry meterRegistry) {
+            if (!StringUtils.hasText(rule.getName()) || rule.getLimit() <= 0 || rule.getPeriodSeconds() <= 0) {
+                throw new IllegalArgumentException("Invalid rate limit rule: " + rule.getName());
+            }
+            int burst = rule.getBurst() > 0 ? rule.getBurst() : rule.getLimit();
+
+            this.name = rule.getName();
+            this.matcher = StringUtils.hasText(rule.getPattern())
+                ? new AntPathRequestMatcher(rule.getPattern(), rule.getMethod()) : null;
+            this.keyType = rule.getKey();
+            this.intervalNanos = TimeUnit.SECONDS.toNanos(rule.getPeriodSeconds()) / rule.getLimit();
+            this.toleranceNanos = intervalNanos * (burst - 1);
+            this.arrivals = new BoundedTtlCache<>(properties.getMaxKeys());
+            this.rejected = Counter.builder("rate.limit.rejected").tag("rule", name)
+                .description("Requests rejected by a rate limit").register(meterRegistry);
+        }
+
+        private long acquire(String key, long now) {
+            AtomicLong arrival = arrivals.computeIfAbsent(key, k -> new AtomicLong(now));
+            if (arrival == null) {
+                // max-keys is 0: nothing is tracked
+                return 0;
+            }
+
+            while (true) {
+                long tat = arrival.get();
+                long base = Math.max(tat, now);
+                long ahead = base - now;
+                if (ahead > toleranceNanos) {
+                    rejected.increment();
+                    return ahead - toleranceNanos;
+                }
+                if (arrival.compareAndSet(tat, base + intervalNanos)) {
+                    return 0;
+                }
+            }
+        }
+
+        private void evictIdle(long now) {
+            arrivals.removeIf(arrival -> arrival.get() - now <= 0);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.mechanicondemand.security;
+
+import com.mechanicondemand.dto.TokenResponse;
+import com.mechanicondemand.service.UserDetailsServiceImpl;
+import com.mechanicondemand.service.UserDetailsServiceImpl.UserPrincipal;
+import io.jsonwebtoken.Claims;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+
+/**
+ * RefreshTokenService - Issues, rotates and revokes token pairs
+ *
+ * Login returns a short-lived access token and a long-lived refresh token.
+ * Exchanging the refresh token for a new pair needs no password check:
+ *
+ * - Each refresh token can be used once; it is revoked when exchanged, and
+ *   a second use is rejected
+ * - The account must still be active with the same security version
+ * - Logout revokes the presented tokens until they expire
+ */
+@Component
+public class RefreshTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    /**
+     * Issue a new access and refresh token pair
+     */
+    public TokenResponse issue(UserPrincipal principal) {
+        return new TokenResponse(
+            jwtUtils.generateAccessToken(principal),
+            jwtUtils.generateRefreshToken(principal),
+            jwtUtils.getJwtExpirationMs() / 1000
+        );
+    }
+
+    /**
+     * Exchange a refresh token for a new pair
+     * Throws RuntimeException when the token is invalid, used or revoked
+     */
+    public TokenResponse rotate(String refreshToken) {
+        Claims claims = jwtUtils.verifyJwtToken(refreshToken);
+        if (claims == null || !JwtUtils.isRefreshToken(claims)) {
+            throw new RuntimeException("Invalid refresh token");
+        }
+
+        // Single use: only the first exchange revokes the token successfully
+        if (!tokenRevocationList.revoke(claims)) {
+            logger.warn("Refresh token of {} was used again", claims.getSubject());
+            throw new RuntimeException("Refresh token has already been used");
+        }
+
+        UserPrincipal principal;
+        try {
+            principal = principalCache.get(claims.getSubject(),
+                name -> (UserPrincipal) userDetailsService.loadUserByUsername(name));
+        } catch (UsernameNotFoundException e) {
+            throw new RuntimeException("Invalid refresh token");
+        }
+
+        Number userId = (Number) claims.get(JwtUtils.CLAIM_USER_ID);
+        Number version = (Number) claims.get(JwtUtils.CLAIM_SECURITY_VERSION);
+        if (!principal.isEnabled()
+                || userId == null || userId.longValue() != principal.getId()
+                || version == null || version.intValue() != principal.getSecurityVersion()) {
+            throw new RuntimeException("Invalid refresh token");
+        }
+
+        return issue(principal);
+    }
+
+    /**
+     * Revoke a token (access or refresh) until it expires
+     * Invalid tokens are ignored
+     */
+    public void revoke(String token) {
+        Claims claims = jwtUtils.verifyJwtToken(token);
+        if (claims != null) {
+            tokenRevocationList.revoke(claims);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.mechanicondemand.security;
+
+import com.mechanicondemand.entity.User;
+import com.mechanicondemand.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * SecurityVersionRegistry - In-memory table of token versions
+ * 
+ * Self-contained JWTs carry the user's security version. A token is only
+ * accepted while that version is current and the user is active. Most users
+ * never change version, so only the exceptions are kept in memory:
+ * 
+ * - users whose security version was bumped (current version)
+ * - deactivated users
+ * 
+ * The table is loaded at startup, refreshed periodically (changes made by
+ * other instances) and updated immediately by local writes. Local writes made
+ * while a refresh reads the users table are replayed over its snapshot.
+ */
+@Component
+public class SecurityVersionRegistry {
+    
+    private static final Logger logger = LoggerFactory.getLogger(SecurityVersionRegistry.class);
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    // userId -> current security version (absent means 0)
+    private volatile Map<Long, Integer> versions = new ConcurrentHashMap<>();
+    
+    private volatile Set<Long> inactive = ConcurrentHashMap.newKeySet();
+    
+    private volatile boolean ready;
+    
+    private final Object writeLock = new Object();
+    
+    // userId -> [security version, active] of local writes made during a refresh
+    // (null when no refresh is running); guarded by writeLock
+    private Map<Long, Object[]> writesDuringRefresh;
+    
+    /**
+     * Reload the table from the users table
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${security.version-refresh-ms:30000}",
+               fixedDelayString = "${security.version-refresh-ms:30000}")
+    public void refresh() {
+        synchronized (writeLock) {
+            writesDuringRefresh = new HashMap<>();
+        }
+        List<Object[]> rows;
+        try {
+            rows = userRepository.findSecurityVersionExceptions();
+        } catch (RuntimeException e) {
+            synchronized (writeLock) {
+                writesDuringRefresh = null;
+            }
+            throw e;
+        }
+        
+        Map<Long, Integer> loadedVersions = new ConcurrentHashMap<>();
+        Set<Long> loadedInactive = ConcurrentHashMap.newKeySet();
+        for (Object[] row : rows) {
+            Long userId = (Long) row[0];
+            Integer version = (Integer) row[1];
+            if (version != null && version > 0) {
+                loadedVersions.put(userId, version);
+            }
+            if (Boolean.FALSE.equals(row[2])) {
+                loadedInactive.add(userId);
+            }
+        }
+        
+        synchronized (writeLock) {
+            // The snapshot may predate local writes made while it was read
+            for (Map.Entry<Long, Object[]> write : writesDuringRefresh.entrySet()) {
+                Object[] state = write.getValue();
+                apply(loadedVersions, loadedInactive, write.getKey(), (Integer) state[0], (Boolean) state[1]);
+            }
+            writesDuringRefresh = null;
+            versions = loadedVersions;
+            inactive = loadedInactive;
+        }
+        if (!ready) {
+            ready = true;
+            logger.info("Security version registry loaded ({} versioned, {} inactive users)",
+                loadedVersions.size(), loadedInactive.size());
+        }
+    }
+    
+    /**
+     * Whether tokens can be checked against the table
+     */
+    public boolean isReady() {
+        return ready;
+    }
+    
+    /**
+     * Whether a token issued with the given version is still valid
+     */
+    public boolean isCurrent(Long userId, int securityVersion) {
+        if (inactive.contains(userId)) {
+            return false;
+        }
+        return versions.getOrDefault(userId, 0) == securityVersion;
+    }
+    
+    /**
+     * Record the state of a user after a local write
+     */
+    public void update(User user) {
+        int version = user.getSecurityVersion() != null ? user.getSecurityVersion() : 0;
+        boolean active = !Boolean.FALSE.equals(user.getIsActive());
+        synchronized (writeLock) {
+            if (writesDuringRefresh != null) {
+                writesDuringRefresh.put(user.getId(), new Object[] {version, active});
+            }
+            apply(versions, inactive, user.getId(), version, active);
+        }
+    }
+    
+    private static void apply(Map<Long, Integer> versions, Set<Long> inactive,
+                              Long userId, int version, boolean active) {
+        if (version > 0) {
+            versions.put(userId, version);
+        } else {
+            versions.remove(userId);
+        }
+        if (active) {
+            inactive.remove(userId);
+        } else {
+            inactive.add(userId);
+        }
+    }
+}
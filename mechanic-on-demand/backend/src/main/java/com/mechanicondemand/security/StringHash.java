@@ -0,0 +1,25 @@
+package com.mechanicondemand.security;
+
+/**
+ * StringHash - 64-bit string hash for compact in-memory sets
+ *
+ * 64-bit FNV-1a with a final avalanche mix, so both 32-bit halves are well
+ * distributed. Used for revoked token ids and the availability Bloom filter.
+ */
+public final class StringHash {
+
+    private StringHash() {
+    }
+
+    public static long hash64(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
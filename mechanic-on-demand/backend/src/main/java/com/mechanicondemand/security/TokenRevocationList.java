@@ -0,0 +1,71 @@
+package com.mechanicondemand.security;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * TokenRevocationList - Revoked token ids, kept only until the tokens expire
+ *
+ * Revoked tokens are grouped into one-minute buckets by their expiry time.
+ * A lookup only touches the bucket of the token's own expiry, and once a
+ * bucket's minute has passed every token in it is expired anyway, so the
+ * whole bucket is dropped at once. Each token id is stored as a 64-bit
+ * hash (collisions within one minute of expiries are negligible).
+ *
+ * Revocations live in memory on this instance and are lost on restart.
+ */
+@Component
+public class TokenRevocationList {
+
+    private static final long BUCKET_MILLIS = 60_000;
+
+    // expiry minute -> hashes of revoked token ids
+    private final Map<Long, Set<Long>> buckets = new ConcurrentHashMap<>();
+
+    public TokenRevocationList(MeterRegistry meterRegistry) {
+        meterRegistry.gauge("jwt.revoked.size", buckets,
+            map -> map.values().stream().mapToInt(Set::size).sum());
+    }
+
+    /**
+     * Revoke a token until it expires
+     * Returns false if it was already revoked (or cannot be revoked)
+     */
+    public boolean revoke(Claims claims) {
+        if (claims.getId() == null || claims.getExpiration() == null) {
+            return false;
+        }
+        long expiresAt = claims.getExpiration().getTime();
+        if (expiresAt <= System.currentTimeMillis()) {
+            return false;
+        }
+        return buckets.computeIfAbsent(expiresAt / BUCKET_MILLIS, bucket -> ConcurrentHashMap.newKeySet())
+            .add(StringHash.hash64(claims.getId()));
+    }
+
+    /**
+     * Whether a token was revoked
+     */
+    public boolean isRevoked(Claims claims) {
+        if (claims.getId() == null || claims.getExpiration() == null) {
+            return false;
+        }
+        Set<Long> bucket = buckets.get(claims.getExpiration().getTime() / BUCKET_MILLIS);
+        return bucket != null && bucket.contains(StringHash.hash64(claims.getId()));
+    }
+
+    /**
+     * Drop the buckets whose tokens have all expired
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.sweep-interval-ms:60000}")
+    public void expire() {
+        long currentBucket = System.currentTimeMillis() / BUCKET_MILLIS;
+        buckets.keySet().removeIf(bucket -> bucket < currentBucket);
+    }
+}
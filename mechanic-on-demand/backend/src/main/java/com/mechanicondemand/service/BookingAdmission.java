@@ -0,0 +1,139 @@
+package com.mechanicondemand.service;
+
+import com.mechanicondemand.repository.BookingSlotReservationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * BookingAdmission - Serializes bookings per mechanic and day
+ *
+ * Writes that give a mechanic a booking run under a striped lock keyed by
+ * (mechanicId, date), so only requests for the same mechanic on the same day
+ * wait for each other. Each admitted booking also inserts its 15 minute slots
+ * into booking_slot_reservations, whose unique key rejects overlaps from
+ * other application instances.
+ */
+@Service
+public class BookingAdmission {
+
+    private static final String INSERT_SLOT_SQL =
+        "INSERT INTO booking_slot_reservations (booking_id, mechanic_id, slot_date, slot_index) VALUES (?, ?, ?, ?)";
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BookingSlotReservationRepository bookingSlotReservationRepository;
+
+    @Autowired
+    private MechanicCalendarIndex mechanicCalendarIndex;
+
+    @Value("${booking.admission.lock-stripes:1024}")
+    private int lockStripes;
+
+    private ReentrantLock[] locks;
+
+    @PostConstruct
+    public void init() {
+        // Round up to a power of two so the stripe is a bit mask
+        int stripes = Integer.highestOneBit(Math.max(1, lockStripes - 1)) << 1;
+        locks = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Run work in its own transaction while holding the (mechanic, date) lock
+     * The lock is released only after the transaction has committed
+     */
+    public <T> T admit(long mechanicId, LocalDate date, Supplier<T> work) {
+        ReentrantLock lock = lockFor(mechanicId, date);
+        lock.lock();
+        try {
+            return transactionTemplate.execute(status -> work.get());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Reserve the slots of a booking (call inside admit)
+     * Throws SlotUnavailableException when the mechanic is already busy
+     */
+    public void reserveSlots(long bookingId, long mechanicId, LocalDate date, LocalTime time, int slotCount) {
+        int start = MechanicCalendarIndex.slotOf(time);
+        int end = MechanicCalendarIndex.endSlotOf(time, slotCount);
+
+        // Fast path: the calendar index already knows about committed bookings
+        if (!mechanicCalendarIndex.isFree(mechanicId, date, start, end - start)) {
+            throw new SlotUnavailableException();
+        }
+
+        List<Object[]> batch = new ArrayList<>(end - start);
+        for (int slot = start; slot < end; slot++) {
+            batch.add(new Object[] {bookingId, mechanicId, Date.valueOf(date), slot});
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SLOT_SQL, batch);
+        } catch (DataIntegrityViolationException e) {
+            // Another instance reserved one of the slots first
+            throw new SlotUnavailableException();
+        }
+    }
+
+    /**
+     * Run an action once the current transaction has committed
+     * Inside admit this still happens while the lock is held
+     */
+    public void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Free the slots of a booking (call inside a transaction)
+     */
+    public void releaseSlots(long bookingId) {
+        bookingSlotReservationRepository.deleteByBookingId(bookingId);
+    }
+
+    private ReentrantLock lockFor(long mechanicId, LocalDate date) {
+        long key = mechanicId * 31 + date.toEpochDay();
+        int hash = Long.hashCode(key * 0x9E3779B97F4A7C15L);
+        return locks[(hash ^ (hash >>> 16)) & (locks.length - 1)];
+    }
+
+    /**
+     * The mechanic already has a booking overlapping the requested time
+     */
+    public static class SlotUnavailableException extends RuntimeException {
+
+        public SlotUnavailableException() {
+            super("Mechanic is not available at this time");
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.mechanicondemand.service;
+
+import com.mechanicondemand.config.ReplicaRoutingDataSource;
+import com.mechanicondemand.dto.NearbyMechanicResponse;
+import com.mechanicondemand.entity.Booking;
+import com.mechanicondemand.entity.MechanicService;
+import com.mechanicondemand.entity.Notification;
+import com.mechanicondemand.entity.User;
+import com.mechanicondemand.repository.BookingRepository;
+import com.mechanicondemand.repository.MechanicServiceRepository;
+import com.mechanicondemand.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * BookingDispatcher - Broadcasts unassigned bookings to nearby mechanics
+ *
+ * A booking created without a mechanic is offered to the best ranked
+ * available mechanics that cover its location and offer a service in the
+ * booked category. The first mechanic to accept wins:
+ *
+ * - An in-memory compare-and-set on the offer rejects losing accepts
+ *   immediately, without touching the database
+ * - The winner is then written with a conditional UPDATE, which stays
+ *   correct across application instances and after offers expire
+ */
+@Service
+public class BookingDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingDispatcher.class);
+
+    private static final long UNCLAIMED = 0L;
+
+    // Ranked candidates fetched per offered mechanic (some are filtered out by category)
+    private static final int CANDIDATE_FACTOR = 4;
+
+    private static final int MAX_CANDIDATES = 50;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private MechanicServiceRepository mechanicServiceRepository;
+
+    @Autowired
+    private NotificationFanout notificationFanout;
+
+    @Autowired
+    private MechanicCalendarIndex mechanicCalendarIndex;
+
+    @Autowired
+    private BookingAdmission bookingAdmission;
+
+    @Value("${dispatch.fanout:5}")
+    private int fanout;
+
+    @Value("${dispatch.max-radius-km:50}")
+    private double maxRadiusKm;
+
+    @Value("${dispatch.offer-ttl-seconds:300}")
+    private long offerTtlSeconds;
+
+    // bookingId -> open offer
+    private final Map<Long, Offer> offers = new ConcurrentHashMap<>();
+
+    /**
+     * Outcome of a claim attempt
+     */
+    public enum ClaimResult {
+        CLAIMED, ALREADY_CLAIMED, MECHANIC_BUSY, NOT_OFFERED, NOT_FOUND
+    }
+
+    /**
+     * Offer a new unassigned booking to the best nearby mechanics
+     * Call inside the booking's transaction; the offer opens once it commits.
+     * Returns the ids of the mechanics that were notified
+     */
+    public List<Long> dispatch(Booking booking) {
+        Long categoryId = booking.getService().getCategory().getId();
+        int candidates = Math.min(MAX_CANDIDATES, fanout * CANDIDATE_FACTOR);
+
+        List<NearbyMechanicResponse> ranked = userService.findNearestMechanics(
+            booking.getLatitude().doubleValue(), booking.getLongitude().doubleValue(), candidates, maxRadiusKm);
+
+        List<Long> rankedIds = new ArrayList<>(ranked.size());
+        for (NearbyMechanicResponse mechanic : ranked) {
+            rankedIds.add(mechanic.getId());
+        }
+
+        List<Long> selected = new ArrayList<>(fanout);
+        if (!rankedIds.isEmpty()) {
+            Set<Long> qualified = new HashSet<>(mechanicServiceRepository.findMechanicIdsOfferingCategory(categoryId, rankedIds));
+            for (Long mechanicId : rankedIds) {
+                if (selected.size() == fanout) {
+                    break;
+                }
+                if (qualified.contains(mechanicId) && !mechanicId.equals(booking.getCustomer().getId())) {
+                    selected.add(mechanicId);
+                }
+            }
+        }
+
+        if (selected.isEmpty()) {
+            logger.info("No mechanic available to dispatch booking {}", booking.getId());
+            return selected;
+        }
+
+        // Only offer bookings that exist: a rolled back booking leaves no offer behind
+        Offer offer = new Offer(new HashSet<>(selected), System.currentTimeMillis() + offerTtlSeconds * 1000);
+        bookingAdmission.afterCommit(() -> offers.put(booking.getId(), offer));
+
+        // One batched INSERT for all offers, in the booking's transaction
+        notificationFanout.notifyUsers(selected, "New booking request",
+            "A customer near you needs " + booking.getService().getCategory().getName()
+                + " on " + booking.getBookingDate() + " at " + booking.getBookingTime()
+                + ". Accept booking #" + booking.getId() + " to take the job.",
+            Notification.NotificationType.BOOKING);
+
+        logger.debug("Dispatched booking {} to {} mechanics", booking.getId(), selected.size());
+        return selected;
+    }
+
+    /**
+     * Try to claim a dispatched booking for a mechanic
+     */
+    public ClaimResult claim(Long bookingId, Long mechanicId) {
+        Offer offer = offers.get(bookingId);
+
+        if (offer != null) {
+            if (!offer.mechanicIds.contains(mechanicId)) {
+                return ClaimResult.NOT_OFFERED;
+            }
+            // Losing accepts are rejected here without a database round trip
+            if (!offer.winner.compareAndSet(UNCLAIMED, mechanicId)) {
+                return offer.winner.get() == mechanicId ? ClaimResult.CLAIMED : ClaimResult.ALREADY_CLAIMED;
+            }
+        }
+
+        ClaimResult result;
+        try {
+            // The booking may be seconds old: read it from the primary, not a replica
+            result = ReplicaRoutingDataSource.onPrimary(() -> claimInDatabase(bookingId, mechanicId, offer != null));
+        } catch (RuntimeException e) {
+            // Let another mechanic try again
+            if (offer != null) {
+                offer.winner.compareAndSet(mechanicId, UNCLAIMED);
+            }
+            throw e;
+        }
+
+        // A won offer is kept until it expires so late accepts keep failing fast
+        if (offer != null && result != ClaimResult.CLAIMED) {
+            offer.winner.compareAndSet(mechanicId, UNCLAIMED);
+        }
+        return result;
+    }
+
+    /**
+     * Forget the offer of a booking (e.g. when the customer cancels)
+     */
+    public void cancel(Long bookingId) {
+        offers.remove(bookingId);
+    }
+
+    /**
+     * Drop expired offers; their bookings stay claimable through the database
+     * by mechanics that could have been offered them (see isWithinReach)
+     */
+    @Scheduled(fixedDelayString = "${dispatch.sweep-interval-ms:60000}")
+    public void expireOffers() {
+        long now = System.currentTimeMillis();
+        offers.values().removeIf(offer -> offer.expiresAt <= now);
+    }
+
+    private ClaimResult claimInDatabase(Long bookingId, Long mechanicId, boolean offered) {
+        List<Object[]> details = bookingRepository.findClaimDetails(bookingId);
+        if (details.isEmpty()) {
+            return ClaimResult.NOT_FOUND;
+        }
+        Long categoryId = (Long) details.get(0)[0];
+        LocalDate bookingDate = (LocalDate) details.get(0)[1];
+        LocalTime bookingTime = (LocalTime) details.get(0)[2];
+
+        // Without an offer, the mechanic must be one dispatch could have picked
+        if (!offered && !isWithinReach(mechanicId, (BigDecimal) details.get(0)[3], (BigDecimal) details.get(0)[4])) {
+            return ClaimResult.NOT_OFFERED;
+        }
+
+        Optional<MechanicService> service = mechanicServiceRepository
+            .findFirstByMechanicIdAndCategoryIdAndIsAvailableTrue(mechanicId, categoryId);
+        if (!service.isPresent()) {
+            return ClaimResult.NOT_OFFERED;
+        }
+
+        try {
+            return bookingAdmission.admit(mechanicId, bookingDate, () -> {
+                User mechanic = userRepository.getReferenceById(mechanicId);
+                if (bookingRepository.claimBooking(bookingId, mechanic, service.get(),
+                        service.get().getBasePrice()) == 0) {
+                    return ClaimResult.ALREADY_CLAIMED;
+                }
+                bookingAdmission.reserveSlots(bookingId, mechanicId, bookingDate, bookingTime,
+                    mechanicCalendarIndex.slotCount(service.get().getId()));
+                bookingAdmission.afterCommit(() -> mechanicCalendarIndex.refresh(bookingId));
+                return ClaimResult.CLAIMED;
+            });
+        } catch (BookingAdmission.SlotUnavailableException e) {
+            return ClaimResult.MECHANIC_BUSY;
+        }
+    }
+
+    /**
+     * Whether an available mechanic is within dispatch.max-radius-km of a
+     * booking and its own service radius covers it
+     */
+    private boolean isWithinReach(Long mechanicId, BigDecimal latitude, BigDecimal longitude) {
+        if (latitude == null || longitude == null) {
+            return false;
+        }
+        List<Object[]> rows = userRepository.findAvailableMechanicLocation(mechanicId);
+        if (rows.isEmpty()) {
+            return false;
+        }
+        Object[] row = rows.get(0);
+        double distance = MechanicGeoIndex.distanceKm(latitude.doubleValue(), longitude.doubleValue(),
+            ((BigDecimal) row[0]).doubleValue(), ((BigDecimal) row[1]).doubleValue());
+        return distance <= maxRadiusKm && distance <= MechanicGeoIndex.serviceRadiusKm((Integer) row[2]);
+    }
+
+    /**
+     * Mechanics a booking was offered to and the first one that accepted
+     */
+    private static final class Offer {
+
+        private final Set<Long> mechanicIds;
+        private final long expiresAt;
+        private final AtomicLong winner = new AtomicLong(UNCLAIMED);
+
+        private Offer(Set<Long> mechanicIds, long expiresAt) {
+            this.mechanicIds = mechanicIds;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.mechanicondemand.service;
+
+import com.mechanicondemand.dto.BookingRequest;
+import com.mechanicondemand.dto.BookingSummary;
+import com.mechanicondemand.dto.CursorPage;
+import com.mechanicondemand.entity.Booking;
+import com.mechanicondemand.entity.MechanicService;
+import com.mechanicondemand.entity.User;
+import com.mechanicondemand.repository.BookingRepository;
+import com.mechanicondemand.repository.MechanicServiceRepository;
+import com.mechanicondemand.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * BookingService - Business logic layer for Booking operations
+ *
+ * Bookings are either made with a chosen mechanic, or created without one
+ * and dispatched to nearby mechanics (the first one to claim it wins).
+ */
+@Service
+public class BookingService {
+
+    // Status changes each party may make (from -> allowed targets); everything else is rejected
+    private static final Map<Booking.BookingStatus, Set<Booking.BookingStatus>> CUSTOMER_TRANSITIONS =
+        new EnumMap<>(Booking.BookingStatus.class);
+    private static final Map<Booking.BookingStatus, Set<Booking.BookingStatus>> MECHANIC_TRANSITIONS =
+        new EnumMap<>(Booking.BookingStatus.class);
+
+    static {
+        CUSTOMER_TRANSITIONS.put(Booking.BookingStatus.PENDING, EnumSet.of(Booking.BookingStatus.CANCELLED));
+        CUSTOMER_TRANSITIONS.put(Booking.BookingStatus.ACCEPTED, EnumSet.of(Booking.BookingStatus.CANCELLED));
+
+        MECHANIC_TRANSITIONS.put(Booking.BookingStatus.PENDING,
+            EnumSet.of(Booking.BookingStatus.ACCEPTED, Booking.BookingStatus.REJECTED));
+        MECHANIC_TRANSITIONS.put(Booking.BookingStatus.ACCEPTED, EnumSet.of(Booking.BookingStatus.IN_PROGRESS));
+        MECHANIC_TRANSITIONS.put(Booking.BookingStatus.IN_PROGRESS, EnumSet.of(Booking.BookingStatus.COMPLETED));
+    }
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MechanicServiceRepository mechanicServiceRepository;
+
+    @Autowired
+    private BookingDispatcher bookingDispatcher;
+
+    @Autowired
+    private MechanicCalendarIndex mechanicCalendarIndex;
+
+    @Autowired
+    private BookingAdmission bookingAdmission;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Value("${bookings.page.default-size:20}")
+    private int defaultPageSize;
+    
+    @Value("${bookings.page.max-size:100}")
+    private int maxPageSize;
+
+    /**
+     * Create a booking for a customer
+     * Without a mechanic id the booking is dispatched to nearby mechanics.
+     * With one, admission is serialized per (mechanic, date) and the booked
+     * slots are reserved, so concurrent requests cannot double book.
+     */
+    public Booking createBooking(Long customerId, BookingRequest bookingRequest) {
+        Long mechanicId = bookingRequest.getMechanicId();
+
+        if (mechanicId != null) {
+            return bookingAdmission.admit(mechanicId, bookingRequest.getBookingDate(), () -> {
+                Booking booking = buildBooking(customerId, bookingRequest);
+                User mechanic = userRepository.findById(mechanicId)
+                    .filter(user -> user.getUserType() == User.UserType.MECHANIC)
+                    .orElseThrow(() -> new RuntimeException("Mechanic not found"));
+                if (!booking.getService().getMechanic().getId().equals(mechanic.getId())) {
+                    throw new RuntimeException("Service is not offered by this mechanic");
+                }
+                booking.setMechanic(mechanic);
+
+                Booking savedBooking = bookingRepository.save(booking);
+                bookingAdmission.reserveSlots(savedBooking.getId(), mechanicId,
+                    savedBooking.getBookingDate(), savedBooking.getBookingTime(),
+                    mechanicCalendarIndex.slotCount(savedBooking.getService().getId()));
+                bookingAdmission.afterCommit(() -> mechanicCalendarIndex.update(savedBooking));
+                return savedBooking;
+            });
+        }
+
+        if (bookingRequest.getLatitude() == null || bookingRequest.getLongitude() == null) {
+            throw new RuntimeException("Location is required when no mechanic is selected");
+        }
+
+        return transactionTemplate.execute(status -> {
+            Booking savedBooking = bookingRepository.save(buildBooking(customerId, bookingRequest));
+            bookingDispatcher.dispatch(savedBooking);
+            return savedBooking;
+        });
+    }
+
+    private Booking buildBooking(Long customerId, BookingRequest bookingRequest) {
+        User customer = userRepository.findById(customerId)
+            .orElseThrow(() -> new RuntimeException("User not found"));
+
+        MechanicService service = mechanicServiceRepository.findWithCategoryById(bookingRequest.getServiceId())
+            .orElseThrow(() -> new RuntimeException("Service not found"));
+
+        Booking booking = new Booking();
+        booking.setCustomer(customer);
+        booking.setService(service);
+        booking.setBookingDate(bookingRequest.getBookingDate());
+        booking.setBookingTime(bookingRequest.getBookingTime());
+        booking.setAddress(bookingRequest.getAddress());
+        booking.setLatitude(bookingRequest.getLatitude());
+        booking.setLongitude(bookingRequest.getLongitude());
+        booking.setProblemDescription(bookingRequest.getProblemDescription());
+        booking.setSpecialInstructions(bookingRequest.getSpecialInstructions());
+        booking.setTotalAmount(service.getBasePrice());
+        return booking;
+    }
+
+    /**
+     * Get a page of the bookings of a customer or mechanic, newest first
+     * Rows are read as BookingSummary projections
+     * A null status returns bookings in every status; a null cursor the
+     * first page. The page size is capped at bookings.page.max-size.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<BookingSummary> getBookingsForUser(Long userId, Booking.BookingStatus status,
+                                                         String cursor, Integer size) {
+        User user = userRepository.findById(userId)
+            .orElseThrow(() -> new RuntimeException("User not found"));
+        
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        int pageSize = size == null || size <= 0 ? defaultPageSize : Math.min(size, maxPageSize);
+        // One extra row tells whether there is a next page
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        
+        List<BookingSummary> bookings;
+        if (user.getUserType() == User.UserType.MECHANIC) {
+            bookings = status != null
+                ? bookingRepository.findPageByMechanicAndStatus(user, status, after.getCreatedAt(), after.getId(), limit)
+                : bookingRepository.findPageByMechanic(user, after.getCreatedAt(), after.getId(), limit);
+        } else {
+            bookings = status != null
+                ? bookingRepository.findPageByCustomerAndStatus(user, status, after.getCreatedAt(), after.getId(), limit)
+                : bookingRepository.findPageByCustomer(user, after.getCreatedAt(), after.getId(), limit);
+        }
+        
+        if (bookings.size() <= pageSize) {
+            return new CursorPage<>(bookings, null);
+        }
+        List<BookingSummary> page = new ArrayList<>(bookings.subList(0, pageSize));
+        BookingSummary last = page.get(pageSize - 1);
+        return new CursorPage<>(page, new KeysetCursor(last.getCreatedAt(), last.getId()).encode());
+    }
+    
+    /**
+     * Update the status of a booking
+     * Customers may cancel a pending or accepted booking; the assigned mechanic
+     * accepts or rejects a pending one, then starts and completes it
+     * (CUSTOMER_TRANSITIONS, MECHANIC_TRANSITIONS). Other changes are rejected.
+     */
+    @Transactional
+    public Booking updateBookingStatus(Long bookingId, Long userId, Booking.BookingStatus status) {
+        Booking booking = bookingRepository.findWithServiceById(bookingId)
+            .orElseThrow(() -> new RuntimeException("Booking not found"));
+
+        boolean isCustomer = booking.getCustomer().getId().equals(userId);
+        boolean isMechanic = booking.getMechanic() != null && booking.getMechanic().getId().equals(userId);
+        if (!isCustomer && !isMechanic) {
+            throw new RuntimeException("Booking not found");
+        }
+
+        Map<Booking.BookingStatus, Set<Booking.BookingStatus>> transitions =
+            isCustomer ? CUSTOMER_TRANSITIONS : MECHANIC_TRANSITIONS;
+        if (!transitions.getOrDefault(booking.getStatus(), Collections.emptySet()).contains(status)) {
+            throw new RuntimeException("A " + booking.getStatus() + " booking cannot be changed to " + status);
+        }
+
+        booking.setStatus(status);
+        Booking savedBooking = bookingRepository.save(booking);
+
+        if (status == Booking.BookingStatus.CANCELLED || status == Booking.BookingStatus.REJECTED) {
+            bookingAdmission.releaseSlots(bookingId);
+        }
+        bookingAdmission.afterCommit(() -> mechanicCalendarIndex.update(savedBooking));
+
+        if (status == Booking.BookingStatus.CANCELLED) {
+            bookingDispatcher.cancel(bookingId);
+        }
+        return savedBooking;
+    }
+
+    /**
+     * Accept a dispatched booking on behalf of a mechanic
+     */
+    public BookingDispatcher.ClaimResult claimBooking(Long bookingId, Long mechanicId) {
+        return bookingDispatcher.claim(bookingId, mechanicId);
+    }
+    
+    /**
+     * Start times at which a mechanic can take a service on a date
+     * Answered from the in-memory calendar index
+     */
+    public List<LocalTime> findFreeSlots(Long mechanicId, LocalDate date, Long serviceId) {
+        if (!mechanicCalendarIndex.isWithinHorizon(date)) {
+            throw new RuntimeException("Date is outside the booking window");
+        }
+        if (!mechanicId.equals(mechanicCalendarIndex.getServiceMechanicId(serviceId))) {
+            throw new RuntimeException("Service is not offered by this mechanic");
+        }
+        return mechanicCalendarIndex.findFreeSlots(mechanicId, date, serviceId);
+    }
+}
@@ -0,0 +1,613 @@
+package com.mechanicondemand.service;
+
+import com.mechanicondemand.entity.MechanicProfile;
+import com.mechanicondemand.entity.MechanicService;
+import com.mechanicondemand.entity.User;
+import com.mechanicondemand.repository.MechanicServiceRepository;
+import com.mechanicondemand.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * CatalogSearchIndex - In-memory inverted index over service names and mechanic specializations
+ *
+ * Replaces the LIKE '%term%' searches, which cannot use an index and scan
+ * mechanic_services and mechanic_profiles on every request.
+ *
+ * - Documents: available services (name, description) and active mechanics
+ *   (specialization), each in a slot of parallel arrays
+ * - Text is lower-cased and split into alphanumeric tokens; every token is
+ *   posted under its trigrams and its 1 and 2 character prefixes
+ * - A query token of 3+ characters is looked up by its trigrams and then
+ *   checked as a substring (same matches as LIKE); shorter tokens match
+ *   word prefixes. All query tokens must match.
+ * - Only the shortest posting list of the query is walked, so the cost
+ *   depends on how selective the query is, not on the catalog size
+ *
+ * Ranking: per query token the best of (name weight, description weight)
+ * times 3 for a whole word, 2 for a word prefix, 1 for any other substring;
+ * ties go to the better rated mechanic (a service's boost is its mechanic's
+ * rating), then the lower id.
+ *
+ * The index is loaded at startup and kept current by UserService writes
+ * (mechanics) and CatalogSearchIndexListener (services). A new rating
+ * reaches the mechanic's services on their next write or rebuild.
+ */
+@Service
+public class CatalogSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogSearchIndex.class);
+
+    public enum Kind {
+        SERVICE, MECHANIC
+    }
+
+    static final int GRAM_LENGTH = 3;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    // Prefix postings are kept apart from trigrams (tokens never contain it)
+    private static final char PREFIX_MARK = '^';
+
+    @Autowired
+    private MechanicServiceRepository mechanicServiceRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${search.index.enabled:true}")
+    private boolean enabled;
+
+    @Value("${search.rank.name-weight:3.0}")
+    private double nameWeight;
+
+    @Value("${search.rank.description-weight:1.0}")
+    private double descriptionWeight;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // gram -> slots, entity id -> slot (per kind)
+    private final Map<String, IntBucket> postings = new HashMap<>();
+    private final Map<Long, Integer> serviceSlots = new HashMap<>();
+    private final Map<Long, Integer> mechanicSlots = new HashMap<>();
+
+    // mechanicId -> rating, the boost of the mechanic's services
+    private final Map<Long, Double> mechanicRatings = new HashMap<>();
+
+    // Slot storage (names and descriptions normalized: lower case, single spaces)
+    private Kind[] kinds = new Kind[INITIAL_CAPACITY];
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private String[] names = new String[INITIAL_CAPACITY];
+    private String[] descriptions = new String[INITIAL_CAPACITY];
+    private double[] boosts = new double[INITIAL_CAPACITY];
+    private int slotCount;
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+
+    // Latest document writes (null = removed) and mechanic ratings while a
+    // rebuild reads its snapshot, otherwise null
+    private Map<Kind, Map<Long, Document>> writesDuringRebuild;
+    private Map<Long, Double> ratingsDuringRebuild;
+
+    private volatile boolean ready;
+
+    /**
+     * Load all available services and active mechanics once the application has started
+     * Writes made while the snapshot is read win over it: they are replayed on top.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            logger.info("Catalog search index is disabled, searches use SQL");
+            return;
+        }
+
+        // Writes from here on may be missing from (or older than) the snapshot
+        lock.writeLock().lock();
+        try {
+            writesDuringRebuild = new EnumMap<>(Kind.class);
+            writesDuringRebuild.put(Kind.SERVICE, new HashMap<>());
+            writesDuringRebuild.put(Kind.MECHANIC, new HashMap<>());
+            ratingsDuringRebuild = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        List<Object[]> services;
+        List<Object[]> mechanics;
+        try {
+            services = mechanicServiceRepository.findSearchDocuments();
+            mechanics = userRepository.findMechanicSearchDocuments();
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                writesDuringRebuild = null;
+                ratingsDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        int gramCount;
+        lock.writeLock().lock();
+        try {
+            Map<Kind, Map<Long, Document>> writes = writesDuringRebuild;
+            Map<Long, Double> ratings = ratingsDuringRebuild;
+            writesDuringRebuild = null;
+            ratingsDuringRebuild = null;
+            clear();
+
+            for (Object[] row : services) {
+                Long mechanicId = (Long) row[3];
+                Double rating = ratings.get(mechanicId);
+                if (rating == null) {
+                    rating = toDouble((BigDecimal) row[4]);
+                }
+                mechanicRatings.put(mechanicId, rating);
+                if (!writes.get(Kind.SERVICE).containsKey((Long) row[0])) {
+                    putLocked(Kind.SERVICE, (Long) row[0], (String) row[1], (String) row[2], rating);
+                }
+            }
+            for (Object[] row : mechanics) {
+                Long mechanicId = (Long) row[0];
+                Double rating = ratings.get(mechanicId);
+                if (rating == null) {
+                    rating = toDouble((BigDecimal) row[2]);
+                }
+                mechanicRatings.put(mechanicId, rating);
+                if (!writes.get(Kind.MECHANIC).containsKey(mechanicId)) {
+                    putLocked(Kind.MECHANIC, mechanicId, (String) row[1], null, rating);
+                }
+            }
+
+            mechanicRatings.putAll(ratings);
+            for (Map.Entry<Kind, Map<Long, Document>> kindWrites : writes.entrySet()) {
+                for (Map.Entry<Long, Document> write : kindWrites.getValue().entrySet()) {
+                    Document document = write.getValue();
+                    if (document != null) {
+                        putLocked(kindWrites.getKey(), write.getKey(), document.name, document.description,
+                            document.boost);
+                    }
+                }
+            }
+            gramCount = postings.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        ready = true;
+        logger.info("Catalog search index loaded with {} services and {} mechanics ({} grams)",
+            services.size(), mechanics.size(), gramCount);
+    }
+
+    /**
+     * Whether searches can be answered from the index
+     */
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    /**
+     * Re-index a service after a write
+     * Only available services are kept, boosted by their mechanic's last known rating
+     */
+    public void updateService(long serviceId, Long mechanicId, String serviceName, String description,
+                              Boolean isAvailable) {
+        lock.writeLock().lock();
+        try {
+            if (Boolean.TRUE.equals(isAvailable) && serviceName != null) {
+                Double rating = mechanicRatings.get(mechanicId);
+                putLocked(Kind.SERVICE, serviceId, serviceName, description, rating != null ? rating : 0);
+            } else {
+                removeLocked(Kind.SERVICE, serviceId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Re-index a service after a write
+     */
+    public void updateService(MechanicService service) {
+        if (service != null && service.getId() != null) {
+            Long mechanicId = service.getMechanic() != null ? service.getMechanic().getId() : null;
+            updateService(service.getId(), mechanicId, service.getServiceName(), service.getDescription(),
+                service.getIsAvailable());
+        }
+    }
+
+    /**
+     * Re-index a user after a profile write
+     * Only active mechanics with a specialization are kept
+     */
+    public void updateMechanic(User user) {
+        if (user == null || user.getId() == null) {
+            return;
+        }
+
+        MechanicProfile profile = user.getMechanicProfile();
+        boolean searchable = user.getUserType() == User.UserType.MECHANIC
+            && Boolean.TRUE.equals(user.getIsActive())
+            && profile != null
+            && profile.getSpecialization() != null
+            && !profile.getSpecialization().trim().isEmpty();
+
+        lock.writeLock().lock();
+        try {
+            if (profile != null) {
+                mechanicRatings.put(user.getId(), toDouble(profile.getRating()));
+                if (ratingsDuringRebuild != null) {
+                    ratingsDuringRebuild.put(user.getId(), toDouble(profile.getRating()));
+                }
+            }
+            if (searchable) {
+                putLocked(Kind.MECHANIC, user.getId(), profile.getSpecialization(), null, toDouble(profile.getRating()));
+            } else {
+                removeLocked(Kind.MECHANIC, user.getId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void put(Kind kind, long id, String name, String description, double boost) {
+        lock.writeLock().lock();
+        try {
+            putLocked(kind, id, name, description, boost);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Kind kind, long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(kind, id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Find the best matching documents of one kind (or of both when kind is null)
+     * Returns at most limit hits, best first
+     */
+    public List<Hit> search(String query, Kind kind, int limit) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        // Worst hit on top, so it is the one replaced
+        Comparator<Hit> ranking = Comparator.comparingDouble(Hit::getScore)
+            .thenComparingDouble(Hit::getBoost)
+            .thenComparing(Comparator.comparingLong(Hit::getId).reversed());
+        PriorityQueue<Hit> best = new PriorityQueue<>(limit + 1, ranking);
+
+        lock.readLock().lock();
+        try {
+            IntBucket candidates = shortestPostings(terms);
+            if (candidates == null) {
+                return Collections.emptyList();
+            }
+            for (int i = 0; i < candidates.size; i++) {
+                int slot = candidates.slots[i];
+                if (kind != null && kinds[slot] != kind) {
+                    continue;
+                }
+                double score = score(slot, terms);
+                if (score > 0) {
+                    best.add(new Hit(kinds[slot], ids[slot], score, boosts[slot]));
+                    if (best.size() > limit) {
+                        best.poll();
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Hit> hits = new ArrayList<>(best);
+        hits.sort(ranking.reversed());
+        return hits;
+    }
+
+    /**
+     * Ids of the best matching documents of one kind, best first
+     */
+    public List<Long> searchIds(String query, Kind kind, int limit) {
+        List<Long> result = new ArrayList<>();
+        for (Hit hit : search(query, kind, limit)) {
+            result.add(hit.getId());
+        }
+        return result;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return serviceSlots.size() + mechanicSlots.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Lower case alphanumeric tokens, in order, without duplicates
+    static List<String> tokenize(String text) {
+        if (text == null) {
+            return Collections.emptyList();
+        }
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return new ArrayList<>(tokens);
+    }
+
+    // Posting keys of a token: its trigrams and its 1 and 2 character prefixes
+    static Set<String> grams(String token) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int length = 1; length < GRAM_LENGTH && length <= token.length(); length++) {
+            grams.add(PREFIX_MARK + token.substring(0, length));
+        }
+        for (int i = 0; i + GRAM_LENGTH <= token.length(); i++) {
+            grams.add(token.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    // Keys a query token must be posted under
+    private static List<String> queryGrams(String term) {
+        if (term.length() < GRAM_LENGTH) {
+            return Collections.singletonList(PREFIX_MARK + term);
+        }
+        List<String> grams = new ArrayList<>(term.length() - GRAM_LENGTH + 1);
+        for (int i = 0; i + GRAM_LENGTH <= term.length(); i++) {
+            grams.add(term.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    private IntBucket shortestPostings(List<String> terms) {
+        IntBucket shortest = null;
+        for (String term : terms) {
+            for (String gram : queryGrams(term)) {
+                IntBucket bucket = postings.get(gram);
+                if (bucket == null) {
+                    // Some gram occurs nowhere: nothing can match
+                    return null;
+                }
+                if (shortest == null || bucket.size < shortest.size) {
+                    shortest = bucket;
+                }
+            }
+        }
+        return shortest;
+    }
+
+    private double score(int slot, List<String> terms) {
+        double total = 0;
+        for (String term : terms) {
+            double termScore = Math.max(nameWeight * matchQuality(names[slot], term),
+                descriptionWeight * matchQuality(descriptions[slot], term));
+            if (termScore == 0) {
+                return 0;
+            }
+            total += termScore;
+        }
+        return total;
+    }
+
+    // 3 = whole word, 2 = word prefix, 1 = inside a word (3+ characters only), 0 = no match
+    private static int matchQuality(String text, String term) {
+        if (text == null) {
+            return 0;
+        }
+        int best = 0;
+        for (int at = text.indexOf(term); at >= 0 && best < 3; at = text.indexOf(term, at + 1)) {
+            int end = at + term.length();
+            boolean wordStart = at == 0 || text.charAt(at - 1) == ' ';
+            boolean wordEnd = end == text.length() || text.charAt(end) == ' ';
+            if (wordStart && wordEnd) {
+                best = 3;
+            } else if (wordStart) {
+                best = Math.max(best, 2);
+            } else if (term.length() >= GRAM_LENGTH) {
+                best = Math.max(best, 1);
+            }
+        }
+        return best;
+    }
+
+    private void clear() {
+        postings.clear();
+        serviceSlots.clear();
+        mechanicSlots.clear();
+        mechanicRatings.clear();
+        Arrays.fill(names, 0, slotCount, null);
+        Arrays.fill(descriptions, 0, slotCount, null);
+        slotCount = 0;
+        freeCount = 0;
+    }
+
+    private void putLocked(Kind kind, long id, String name, String description, double boost) {
+        removeLocked(kind, id);
+        if (writesDuringRebuild != null) {
+            writesDuringRebuild.get(kind).put(id, new Document(name, description, boost));
+        }
+
+        List<String> nameTokens = tokenize(name);
+        List<String> descriptionTokens = tokenize(description);
+        if (nameTokens.isEmpty() && descriptionTokens.isEmpty()) {
+            return;
+        }
+
+        int slot = allocateSlot();
+        kinds[slot] = kind;
+        ids[slot] = id;
+        names[slot] = String.join(" ", nameTokens);
+        descriptions[slot] = descriptionTokens.isEmpty() ? null : String.join(" ", descriptionTokens);
+        boosts[slot] = boost;
+        slotsOf(kind).put(id, slot);
+
+        for (String gram : documentGrams(slot)) {
+            postings.computeIfAbsent(gram, key -> new IntBucket()).add(slot);
+        }
+    }
+
+    private void removeLocked(Kind kind, long id) {
+        if (writesDuringRebuild != null) {
+            writesDuringRebuild.get(kind).put(id, null);
+        }
+        Integer slot = slotsOf(kind).remove(id);
+        if (slot == null) {
+            return;
+        }
+
+        for (String gram : documentGrams(slot)) {
+            IntBucket bucket = postings.get(gram);
+            if (bucket != null) {
+                bucket.remove(slot);
+                if (bucket.size == 0) {
+                    postings.remove(gram);
+                }
+            }
+        }
+
+        names[slot] = null;
+        descriptions[slot] = null;
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    private Set<String> documentGrams(int slot) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (String token : tokenize(names[slot])) {
+            grams.addAll(grams(token));
+        }
+        for (String token : tokenize(descriptions[slot])) {
+            grams.addAll(grams(token));
+        }
+        return grams;
+    }
+
+    private Map<Long, Integer> slotsOf(Kind kind) {
+        return kind == Kind.SERVICE ? serviceSlots : mechanicSlots;
+    }
+
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (slotCount == ids.length) {
+            int capacity = ids.length * 2;
+            kinds = Arrays.copyOf(kinds, capacity);
+            ids = Arrays.copyOf(ids, capacity);
+            names = Arrays.copyOf(names, capacity);
+            descriptions = Arrays.copyOf(descriptions, capacity);
+            boosts = Arrays.copyOf(boosts, capacity);
+        }
+        return slotCount++;
+    }
+
+    private static double toDouble(BigDecimal value) {
+        return value != null ? value.doubleValue() : 0.0;
+    }
+
+    /**
+     * A matching service or mechanic with its relevance score
+     */
+    public static class Hit {
+
+        private final Kind kind;
+        private final long id;
+        private final double score;
+        private final double boost;
+
+        public Hit(Kind kind, long id, double score, double boost) {
+            this.kind = kind;
+            this.id = id;
+            this.score = score;
+            this.boost = boost;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public double getScore() {
+            return score;
+        }
+
+        public double getBoost() {
+            return boost;
+        }
+    }
+
+    // A document as written, kept for the replay after a rebuild
+    private static final class Document {
+
+        private final String name;
+        private final String description;
+        private final double boost;
+
+        Document(String name, String description, double boost) {
+            this.name = name;
+            this.description = description;
+            this.boost = boost;
+        }
+    }
+
+    // Growable list of slot numbers
+    private static final class IntBucket {
+
+        private int[] slots = new int[4];
+        private int size;
+
+        void add(int slot) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+
+        void remove(int slot) {
+            for (int i = 0; i < size; i++) {
+                if (slots[i] == slot) {
+                    slots[i] = slots[--size];
+                    return;
+                }
+            }
+        }
+    }
+}
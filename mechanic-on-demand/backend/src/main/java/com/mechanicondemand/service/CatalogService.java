@@ -0,0 +1,106 @@
+package com.mechanicondemand.service;
+
+import com.mechanicondemand.dto.ServiceListing;
+import com.mechanicondemand.entity.PricingPlan;
+import com.mechanicondemand.entity.ServiceCategory;
+import com.mechanicondemand.repository.MechanicServiceRepository;
+import com.mechanicondemand.repository.PricingPlanRepository;
+import com.mechanicondemand.repository.ServiceCategoryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * CatalogService - Read side of the service catalog (categories, listings, pricing plans)
+ *
+ * Listings are ServiceListing projections: only the columns the catalog
+ * views show are selected, and nothing ends up in the persistence context.
+ * Categories and pricing plans are reference data served from the
+ * second-level and query caches. Name searches are answered by
+ * CatalogSearchIndex (ranked by relevance) and fall back to SQL while it loads.
+ */
+@Service
+@Transactional(readOnly = true)
+public class CatalogService {
+
+    @Autowired
+    private ServiceCategoryRepository serviceCategoryRepository;
+
+    @Autowired
+    private MechanicServiceRepository mechanicServiceRepository;
+
+    @Autowired
+    private PricingPlanRepository pricingPlanRepository;
+
+    @Autowired
+    private CatalogSearchIndex catalogSearchIndex;
+
+    @Value("${search.max-results:100}")
+    private int maxResults;
+
+    /**
+     * Get the active service categories
+     */
+    public List<ServiceCategory> getActiveCategories() {
+        return serviceCategoryRepository.findByIsActiveTrueOrderByName();
+    }
+
+    /**
+     * Get the active pricing plans, cheapest first
+     */
+    public List<PricingPlan> getActivePricingPlans() {
+        return pricingPlanRepository.findByIsActiveTrueOrderByPriceAsc();
+    }
+
+    /**
+     * Get the services offered by a mechanic
+     */
+    public List<ServiceListing> getServicesOfMechanic(Long mechanicId) {
+        return mechanicServiceRepository.findListingsByMechanicId(mechanicId);
+    }
+
+    /**
+     * Get the available services of a category
+     */
+    public List<ServiceListing> getAvailableServicesInCategory(Long categoryId) {
+        return mechanicServiceRepository.findAvailableListingsByCategoryId(categoryId);
+    }
+
+    /**
+     * Search available services by name and description, best match first
+     */
+    public List<ServiceListing> searchServices(String query) {
+        return searchServices(query, maxResults);
+    }
+
+    /**
+     * Search available services by name and description, best match first (at most limit)
+     */
+    public List<ServiceListing> searchServices(String query, int limit) {
+        if (!catalogSearchIndex.isReady()) {
+            return mechanicServiceRepository.findListingsByNameContaining(query.trim()).stream()
+                .limit(limit)
+                .collect(Collectors.toList());
+        }
+
+        List<Long> ids = catalogSearchIndex.searchIds(query, CatalogSearchIndex.Kind.SERVICE, Math.min(limit, maxResults));
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, Integer> rank = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            rank.put(ids.get(i), i);
+        }
+        List<ServiceListing> listings = mechanicServiceRepository.findListingsByIds(ids);
+        listings.sort(Comparator.comparing(listing -> rank.get(listing.getId())));
+        return listings;
+    }
+}
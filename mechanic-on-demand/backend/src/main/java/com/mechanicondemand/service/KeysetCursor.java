@@ -0,0 +1,57 @@
+package com.mechanicondemand.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * KeysetCursor - Position in a list ordered by (createdAt DESC, id DESC)
+ *
+ * The next page starts strictly after the last row of the previous one, so
+ * the database seeks straight to it through the (..., created_at, id) index
+ * instead of skipping OFFSET rows. Clients only see the opaque Base64 form.
+ */
+public final class KeysetCursor {
+
+    // Sorts after every real row, so the first page uses the same query
+    public static final KeysetCursor FIRST = new KeysetCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+
+    private final LocalDateTime createdAt;
+    private final Long id;
+
+    public KeysetCursor(LocalDateTime createdAt, Long id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    /**
+     * Parse a cursor from a client (null or blank means the first page)
+     */
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.trim().isEmpty()) {
+            return FIRST;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf('|');
+            return new KeysetCursor(LocalDateTime.parse(value.substring(0, separator)),
+                Long.parseLong(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | StringIndexOutOfBoundsException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+
+    public String encode() {
+        String value = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
@@ -0,0 +1,499 @@
+package com.mechanicondemand.service;
+
+import com.mechanicondemand.entity.Booking;
+import com.mechanicondemand.repository.BookingRepository;
+import com.mechanicondemand.repository.MechanicServiceRepository;
+import com.mechanicondemand.security.BoundedTtlCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * MechanicCalendarIndex - In-memory calendar of booked time per mechanic
+ *
+ * A day is split into 96 slots of 15 minutes and stored as a 128-bit set
+ * (two longs). Each mechanic keeps one bitset per day of a rolling horizon
+ * in a ring buffer indexed by epoch day, so free-slot queries never touch
+ * the database.
+ *
+ * - Rebuilt from the bookings table at startup, rolled forward daily
+ * - Kept current by BookingService and BookingDispatcher writes (serialized
+ *   with the rebuild; readers only lock the calendar they read)
+ * - Service durations (MechanicService.estimatedDuration) are cached too;
+ *   ids missing from the database are remembered for a while, so probing
+ *   unknown services does not turn into one query per request
+ */
+@Service
+public class MechanicCalendarIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(MechanicCalendarIndex.class);
+
+    public static final int SLOT_MINUTES = 15;
+
+    static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+
+    private static final int WORDS_PER_DAY = 2;
+
+    // Booking states that keep the mechanic busy
+    private static final Set<Booking.BookingStatus> OCCUPYING_STATUSES = EnumSet.of(
+        Booking.BookingStatus.PENDING,
+        Booking.BookingStatus.ACCEPTED,
+        Booking.BookingStatus.IN_PROGRESS,
+        Booking.BookingStatus.COMPLETED
+    );
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private MechanicServiceRepository mechanicServiceRepository;
+
+    @Value("${calendar.horizon-days:30}")
+    private int horizonDays;
+
+    @Value("${calendar.day-start:08:00}")
+    private String dayStart;
+
+    @Value("${calendar.day-end:20:00}")
+    private String dayEnd;
+
+    @Value("${calendar.default-duration-minutes:60}")
+    private int defaultDurationMinutes;
+
+    // How long (and how many) unknown service ids are remembered
+    @Value("${calendar.unknown-service.ttl-ms:60000}")
+    private long unknownServiceTtlMs;
+
+    @Value("${calendar.unknown-service.max-size:10000}")
+    private int unknownServiceMaxSize;
+
+    // mechanicId -> calendar
+    private final Map<Long, MechanicCalendar> calendars = new ConcurrentHashMap<>();
+
+    // bookingId -> slots it holds
+    private final Map<Long, Reservation> reservations = new ConcurrentHashMap<>();
+
+    // serviceId -> {mechanicId, duration in slots}
+    private final Map<Long, long[]> services = new ConcurrentHashMap<>();
+
+    // serviceIds not found in the database
+    private BoundedTtlCache<Long, Boolean> unknownServices;
+
+    // Serializes booking writes with the swap of a rebuild
+    private final Object writeLock = new Object();
+
+    // bookingId -> latest calendar row (null = released) while a rebuild reads its snapshot, otherwise null
+    private Map<Long, Object[]> writesDuringRebuild;
+
+    // Working day as slot numbers
+    private int dayStartSlot;
+    private int dayEndSlot;
+
+    private volatile boolean ready;
+
+    @PostConstruct
+    public void init() {
+        unknownServices = new BoundedTtlCache<>(unknownServiceMaxSize);
+    }
+
+    /**
+     * Load service durations and upcoming bookings once the application has started
+     * Booking writes made while the snapshot is read win over it: they are replayed on top.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        dayStartSlot = slotOf(LocalTime.parse(dayStart));
+        dayEndSlot = dayEnd.startsWith("24") ? SLOTS_PER_DAY : slotOf(LocalTime.parse(dayEnd));
+
+        for (Object[] row : mechanicServiceRepository.findServiceDurations()) {
+            services.put((Long) row[0], serviceInfo(row));
+        }
+        unknownServices.clear();
+
+        // Writes from here on may be missing from (or older than) the snapshot
+        synchronized (writeLock) {
+            writesDuringRebuild = new HashMap<>();
+        }
+
+        LocalDate today = LocalDate.now();
+        List<Object[]> rows;
+        try {
+            rows = bookingRepository.findCalendarEntries(today, today.plusDays(horizonDays - 1L), OCCUPYING_STATUSES);
+        } catch (RuntimeException e) {
+            synchronized (writeLock) {
+                writesDuringRebuild = null;
+            }
+            throw e;
+        }
+
+        synchronized (writeLock) {
+            Map<Long, Object[]> writes = writesDuringRebuild;
+            writesDuringRebuild = null;
+            calendars.clear();
+            reservations.clear();
+            for (Object[] row : rows) {
+                if (!writes.containsKey((Long) row[0])) {
+                    reserve(row);
+                }
+            }
+            for (Object[] row : writes.values()) {
+                if (row != null) {
+                    reserve(row);
+                }
+            }
+        }
+
+        ready = true;
+        logger.info("Mechanic calendar index loaded with {} bookings for {} services", rows.size(), services.size());
+    }
+
+    /**
+     * Whether free-slot queries can be answered from the index
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Whether a date lies inside the rolling horizon
+     */
+    public boolean isWithinHorizon(LocalDate date) {
+        long offset = date.toEpochDay() - LocalDate.now().toEpochDay();
+        return offset >= 0 && offset < horizonDays;
+    }
+
+    /**
+     * Mechanic offering a service, or null for an unknown service
+     */
+    public Long getServiceMechanicId(Long serviceId) {
+        long[] info = serviceInfo(serviceId);
+        return info != null ? info[0] : null;
+    }
+
+    /**
+     * Number of 15 minute slots a service takes
+     */
+    public int slotCount(Long serviceId) {
+        long[] info = serviceInfo(serviceId);
+        return info != null ? (int) info[1] : durationSlots(null);
+    }
+
+    /**
+     * Whether a mechanic has no booking in the given slots of a date
+     * Dates outside the horizon are not tracked and always reported free
+     */
+    public boolean isFree(Long mechanicId, LocalDate date, int startSlot, int slotCount) {
+        MechanicCalendar calendar = calendars.get(mechanicId);
+        if (calendar == null || !isWithinHorizon(date)) {
+            return true;
+        }
+        synchronized (calendar) {
+            int ring = calendar.ringIndex(date.toEpochDay(), false);
+            return ring < 0 || isFree(calendar.words[ring * WORDS_PER_DAY],
+                calendar.words[ring * WORDS_PER_DAY + 1], startSlot, slotCount);
+        }
+    }
+
+    /**
+     * Re-index a booking after a write
+     * Bookings that no longer keep their mechanic busy are released
+     */
+    public void update(Booking booking) {
+        if (booking == null || booking.getId() == null) {
+            return;
+        }
+
+        Object[] row = null;
+        if (booking.getMechanic() != null
+                && OCCUPYING_STATUSES.contains(booking.getStatus())
+                && isWithinHorizon(booking.getBookingDate())) {
+            row = new Object[] {booking.getId(), booking.getMechanic().getId(),
+                booking.getBookingDate(), booking.getBookingTime(), booking.getService().getId()};
+        }
+        write(booking.getId(), row);
+    }
+
+    /**
+     * Re-index a booking from its current database row
+     * Used by write paths that change bookings with bulk updates
+     */
+    public void refresh(Long bookingId) {
+        Object[] row = null;
+        for (Object[] entry : bookingRepository.findCalendarEntry(bookingId, OCCUPYING_STATUSES)) {
+            if (isWithinHorizon((LocalDate) entry[2])) {
+                row = entry;
+            }
+        }
+        write(bookingId, row);
+    }
+
+    /**
+     * Start times on a date at which a mechanic is free for the whole duration of a service
+     * Only times inside the working day (and not in the past) are returned
+     */
+    public List<LocalTime> findFreeSlots(Long mechanicId, LocalDate date, Long serviceId) {
+        List<LocalTime> free = new ArrayList<>();
+        long[] info = serviceInfo(serviceId);
+        if (info == null || !isWithinHorizon(date)) {
+            return free;
+        }
+
+        int length = (int) info[1];
+        int first = dayStartSlot;
+        int end = dayEndSlot;
+        if (date.equals(LocalDate.now())) {
+            first = Math.max(first, ceilSlotOf(LocalTime.now()));
+        }
+
+        long low = 0;
+        long high = 0;
+        MechanicCalendar calendar = calendars.get(mechanicId);
+        if (calendar != null) {
+            synchronized (calendar) {
+                int ring = calendar.ringIndex(date.toEpochDay(), false);
+                if (ring >= 0) {
+                    low = calendar.words[ring * WORDS_PER_DAY];
+                    high = calendar.words[ring * WORDS_PER_DAY + 1];
+                }
+            }
+        }
+
+        for (int start = first; start + length <= end; start++) {
+            if (isFree(low, high, start, length)) {
+                free.add(LocalTime.of(start * SLOT_MINUTES / 60, start * SLOT_MINUTES % 60));
+            }
+        }
+        return free;
+    }
+
+    /**
+     * Move the horizon forward: drop reservations of past days and load
+     * the bookings of the day that just entered the horizon
+     */
+    @Scheduled(cron = "${calendar.roll-cron:0 5 0 * * *}")
+    public void rollHorizon() {
+        LocalDate today = LocalDate.now();
+        long todayEpochDay = today.toEpochDay();
+        reservations.values().removeIf(reservation -> reservation.epochDay < todayEpochDay);
+        for (MechanicCalendar calendar : calendars.values()) {
+            synchronized (calendar) {
+                calendar.reservations.removeIf(reservation -> reservation.epochDay < todayEpochDay);
+            }
+        }
+
+        LocalDate lastDay = today.plusDays(horizonDays - 1L);
+        List<Object[]> rows = bookingRepository.findCalendarEntries(lastDay, lastDay, OCCUPYING_STATUSES);
+        synchronized (writeLock) {
+            for (Object[] row : rows) {
+                if (!reservations.containsKey((Long) row[0])) {
+                    reserve(row);
+                }
+            }
+        }
+    }
+
+    // ---- internal helpers ----
+
+    /**
+     * Replace the slots held by a booking with those of its calendar row (null releases them)
+     */
+    private void write(long bookingId, Object[] row) {
+        if (row != null) {
+            // A service unknown to the index is loaded before taking the lock
+            slotCount((Long) row[4]);
+        }
+        synchronized (writeLock) {
+            if (writesDuringRebuild != null) {
+                writesDuringRebuild.put(bookingId, row);
+            }
+            release(bookingId);
+            if (row != null) {
+                reserve(row);
+            }
+        }
+    }
+
+    // row is [bookingId, mechanicId, bookingDate, bookingTime, serviceId]
+    private void reserve(Object[] row) {
+        reserve((Long) row[0], (Long) row[1], (LocalDate) row[2], (LocalTime) row[3], (Long) row[4]);
+    }
+
+    private void reserve(long bookingId, long mechanicId, LocalDate date, LocalTime time, long serviceId) {
+        int start = slotOf(time);
+        // Bookings running past midnight are clipped at the end of the day
+        Reservation reservation = new Reservation(mechanicId, date.toEpochDay(), start,
+            endSlotOf(time, slotCount(serviceId)) - start);
+
+        MechanicCalendar calendar = calendars.computeIfAbsent(mechanicId, id -> new MechanicCalendar(horizonDays));
+        synchronized (calendar) {
+            calendar.reservations.add(reservation);
+            mark(calendar, reservation);
+        }
+        reservations.put(bookingId, reservation);
+    }
+
+    private void release(long bookingId) {
+        Reservation reservation = reservations.remove(bookingId);
+        if (reservation == null) {
+            return;
+        }
+
+        MechanicCalendar calendar = calendars.get(reservation.mechanicId);
+        if (calendar == null) {
+            return;
+        }
+        synchronized (calendar) {
+            calendar.reservations.remove(reservation);
+            int ring = calendar.ringIndex(reservation.epochDay, false);
+            if (ring < 0) {
+                return;
+            }
+            // Clear the day and re-mark the bookings that remain (they may overlap)
+            calendar.words[ring * WORDS_PER_DAY] = 0;
+            calendar.words[ring * WORDS_PER_DAY + 1] = 0;
+            for (Reservation other : calendar.reservations) {
+                if (other.epochDay == reservation.epochDay) {
+                    mark(calendar, other);
+                }
+            }
+        }
+    }
+
+    private static void mark(MechanicCalendar calendar, Reservation reservation) {
+        int ring = calendar.ringIndex(reservation.epochDay, true);
+        for (int slot = reservation.startSlot; slot < reservation.startSlot + reservation.slotCount; slot++) {
+            calendar.words[ring * WORDS_PER_DAY + (slot >>> 6)] |= 1L << (slot & 63);
+        }
+    }
+
+    private static boolean isFree(long low, long high, int start, int length) {
+        for (int slot = start; slot < start + length; slot++) {
+            long word = slot < 64 ? low : high;
+            if ((word & (1L << (slot & 63))) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long[] serviceInfo(Long serviceId) {
+        long[] info = services.get(serviceId);
+        if (info != null || serviceId == null) {
+            return info;
+        }
+
+        long now = System.currentTimeMillis();
+        if (unknownServices.get(serviceId, now) != null) {
+            return null;
+        }
+
+        // Services created after startup are loaded once
+        List<Object[]> rows = mechanicServiceRepository.findServiceDuration(serviceId);
+        if (rows.isEmpty()) {
+            unknownServices.put(serviceId, Boolean.TRUE, now + unknownServiceTtlMs);
+            return null;
+        }
+        info = serviceInfo(rows.get(0));
+        services.put(serviceId, info);
+        return info;
+    }
+
+    private long[] serviceInfo(Object[] row) {
+        return new long[] {(Long) row[1], durationSlots((Integer) row[2])};
+    }
+
+    private int durationSlots(Integer minutes) {
+        int duration = minutes != null && minutes > 0 ? minutes : defaultDurationMinutes;
+        return Math.min(SLOTS_PER_DAY, (duration + SLOT_MINUTES - 1) / SLOT_MINUTES);
+    }
+
+    static int slotOf(LocalTime time) {
+        return (time.getHour() * 60 + time.getMinute()) / SLOT_MINUTES;
+    }
+
+    private static int ceilSlotOf(LocalTime time) {
+        return (ceilMinuteOf(time) + SLOT_MINUTES - 1) / SLOT_MINUTES;
+    }
+
+    /**
+     * Slot after the last one touched by a booking of slotCount slots starting at time
+     * A start between slot boundaries also holds the partial slot the booking ends in
+     */
+    static int endSlotOf(LocalTime time, int slotCount) {
+        int minutes = ceilMinuteOf(time) + slotCount * SLOT_MINUTES;
+        return Math.min(SLOTS_PER_DAY, (minutes + SLOT_MINUTES - 1) / SLOT_MINUTES);
+    }
+
+    private static int ceilMinuteOf(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute() + (time.getSecond() > 0 || time.getNano() > 0 ? 1 : 0);
+    }
+
+    /**
+     * Ring buffer of day bitsets for one mechanic, plus the bookings behind them
+     * Each ring entry remembers which epoch day it currently holds
+     */
+    private static final class MechanicCalendar {
+
+        private final long[] words;
+        private final long[] epochDays;
+        private final List<Reservation> reservations = new ArrayList<>();
+
+        private MechanicCalendar(int horizonDays) {
+            words = new long[horizonDays * WORDS_PER_DAY];
+            epochDays = new long[horizonDays];
+            Arrays.fill(epochDays, Long.MIN_VALUE);
+        }
+
+        /**
+         * Ring index of a day, or -1 when the entry holds another day and create is false
+         */
+        private int ringIndex(long epochDay, boolean create) {
+            int ring = (int) Math.floorMod(epochDay, (long) epochDays.length);
+            if (epochDays[ring] != epochDay) {
+                if (!create) {
+                    return -1;
+                }
+                // Reuse the entry of a day that rolled out of the horizon
+                epochDays[ring] = epochDay;
+                words[ring * WORDS_PER_DAY] = 0;
+                words[ring * WORDS_PER_DAY + 1] = 0;
+            }
+            return ring;
+        }
+    }
+
+    /**
+     * Slots held by one booking
+     */
+    private static final class Reservation {
+
+        private final long mechanicId;
+        private final long epochDay;
+        private final int startSlot;
+        private final int slotCount;
+
+        private Reservation(long mechanicId, long epochDay, int startSlot, int slotCount) {
+            this.mechanicId = mechanicId;
+            this.epochDay = epochDay;
+            this.startSlot = startSlot;
+            this.slotCount = slotCount;
+        }
+    }
+}
@@ -0,0 +1,650 @@
+package com.mechanicondemand.service;
+
+import com.mechanicondemand.entity.MechanicProfile;
+import com.mechanicondemand.entity.User;
+import com.mechanicondemand.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongConsumer;
+
+/**
+ * MechanicGeoIndex - In-memory grid index of available mechanic locations
+ *
+ * Instead of computing a great-circle distance for every mechanic row in MySQL,
+ * mechanic positions are bucketed into fixed-size latitude/longitude cells.
+ * A search only visits the cells that overlap the search radius.
+ *
+ * - Positions live in parallel primitive arrays (one slot per mechanic)
+ * - Each grid cell keeps the slot numbers of the mechanics inside it
+ * - The index is loaded at startup and kept current by UserService writes;
+ *   writes made while a rebuild reads its snapshot are replayed on top of it
+ *
+ * Mechanics only travel within their own service radius, capped at
+ * dispatch.max-radius-km. A second, coarser coverage grid registers every
+ * mechanic in each cell its service circle overlaps, so "who covers this
+ * point" is a single cell lookup.
+ *
+ * Top-K searches expand ring by ring around the search cell until K mechanics
+ * are guaranteed to be found, then rank them with a bounded heap by a
+ * composite score of distance, rating and hourly rate (lower is better).
+ */
+@Service
+public class MechanicGeoIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(MechanicGeoIndex.class);
+
+    static final double EARTH_RADIUS_KM = 6371.0;
+
+    static final double DEFAULT_SERVICE_RADIUS_KM = 10.0;
+
+    // Half the earth's circumference: no two points are farther apart
+    static final double MAX_DISTANCE_KM = Math.PI * EARTH_RADIUS_KM;
+
+    private static final double KM_PER_DEGREE = EARTH_RADIUS_KM * Math.PI / 180.0;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${geo.index.enabled:true}")
+    private boolean enabled;
+
+    @Value("${geo.index.cell-size-degrees:0.05}")
+    private double cellSizeDegrees;
+
+    @Value("${geo.coverage.cell-size-degrees:0.1}")
+    private double coverageCellSizeDegrees;
+
+    // Upper bound of an indexed service radius (bounds the coverage cells per mechanic)
+    @Value("${dispatch.max-radius-km:50}")
+    private double radiusCapKm;
+
+    // Ranking weights: score = distance * w1 - rating * w2 + hourlyRate * w3
+    @Value("${geo.rank.distance-weight:1.0}")
+    private double distanceWeight;
+
+    @Value("${geo.rank.rating-weight:2.0}")
+    private double ratingWeight;
+
+    @Value("${geo.rank.rate-weight:0.05}")
+    private double rateWeight;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // userId -> slot, position cell -> slots inside it, coverage cell -> slots covering it
+    private final Map<Long, Integer> slotByUserId = new HashMap<>();
+    private final Map<Long, IntBucket> cells = new HashMap<>();
+    private final Map<Long, IntBucket> coverageCells = new HashMap<>();
+
+    // Slot storage
+    private long[] userIds = new long[INITIAL_CAPACITY];
+    private double[] latitudes = new double[INITIAL_CAPACITY];
+    private double[] longitudes = new double[INITIAL_CAPACITY];
+    private long[] cellKeys = new long[INITIAL_CAPACITY];
+    private double[] ratings = new double[INITIAL_CAPACITY];
+    private double[] hourlyRates = new double[INITIAL_CAPACITY];
+    private double[] serviceRadii = new double[INITIAL_CAPACITY];
+    private int slotCount;
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+
+    // Largest service radius indexed since the last rebuild (bounds top-K scans)
+    private double maxServiceRadiusKm;
+
+    // userId -> latest write (null = removed) while a rebuild reads its snapshot, otherwise null
+    private Map<Long, double[]> writesDuringRebuild;
+
+    private volatile boolean ready;
+
+    /**
+     * Load all available mechanics once the application has started
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            logger.info("Mechanic geo index is disabled, nearby searches use SQL");
+            return;
+        }
+
+        // Writes from here on may be missing from (or older than) the snapshot
+        lock.writeLock().lock();
+        try {
+            writesDuringRebuild = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        List<Object[]> rows;
+        try {
+            rows = userRepository.findAvailableMechanicLocations();
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                writesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            Map<Long, double[]> writes = writesDuringRebuild;
+            writesDuringRebuild = null;
+            clear();
+            for (Object[] row : rows) {
+                Long userId = (Long) row[0];
+                if (!writes.containsKey(userId)) {
+                    putLocked(userId,
+                        ((BigDecimal) row[1]).doubleValue(),
+                        ((BigDecimal) row[2]).doubleValue(),
+                        toDouble((BigDecimal) row[3]),
+                        toDouble((BigDecimal) row[4]),
+                        serviceRadiusKm((Integer) row[5]));
+                }
+            }
+            for (Map.Entry<Long, double[]> write : writes.entrySet()) {
+                double[] values = write.getValue();
+                if (values != null) {
+                    putLocked(write.getKey(), values[0], values[1], values[2], values[3], values[4]);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        ready = true;
+        logger.info("Mechanic geo index loaded with {} mechanics", rows.size());
+    }
+
+    /**
+     * Whether searches can be answered from the index
+     */
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    /**
+     * Re-index a user after a profile write
+     * Only active, available mechanics with a known position are kept
+     */
+    public void update(User user) {
+        if (user == null || user.getId() == null) {
+            return;
+        }
+
+        MechanicProfile profile = user.getMechanicProfile();
+        boolean searchable = user.getUserType() == User.UserType.MECHANIC
+            && Boolean.TRUE.equals(user.getIsActive())
+            && profile != null
+            && Boolean.TRUE.equals(profile.getIsAvailable())
+            && profile.getCurrentLatitude() != null
+            && profile.getCurrentLongitude() != null;
+
+        if (searchable) {
+            put(user.getId(),
+                profile.getCurrentLatitude().doubleValue(),
+                profile.getCurrentLongitude().doubleValue(),
+                toDouble(profile.getRating()),
+                toDouble(profile.getHourlyRate()),
+                serviceRadiusKm(profile.getServiceRadius()));
+        } else {
+            remove(user.getId());
+        }
+    }
+
+    /**
+     * Insert or move a mechanic together with its ranking and coverage attributes
+     */
+    public void put(long userId, double latitude, double longitude,
+                    double rating, double hourlyRate, double serviceRadiusKm) {
+        lock.writeLock().lock();
+        try {
+            putLocked(userId, latitude, longitude, rating, hourlyRate, serviceRadiusKm);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Move a mechanic that is already indexed
+     * Returns false when the mechanic is not in the index
+     */
+    public boolean move(long userId, double latitude, double longitude) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotByUserId.get(userId);
+            if (slot == null) {
+                return false;
+            }
+            putLocked(userId, latitude, longitude, ratings[slot], hourlyRates[slot], serviceRadii[slot]);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a mechanic from the index
+     */
+    public boolean remove(long userId) {
+        lock.writeLock().lock();
+        try {
+            if (writesDuringRebuild != null) {
+                writesDuringRebuild.put(userId, null);
+            }
+            Integer slot = slotByUserId.remove(userId);
+            if (slot == null) {
+                return false;
+            }
+            removeFromBucket(cells, cellKeys[slot], slot);
+            forEachCoverageCell(slot, key -> removeFromBucket(coverageCells, key, slot));
+            releaseSlot(slot);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Number of indexed mechanics
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotByUserId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Find the mechanics whose service radius covers a point, nearest first
+     * maxDistanceKm additionally caps the distance (the customer's own radius)
+     */
+    public List<Match> findCovering(double latitude, double longitude, double maxDistanceKm) {
+        List<Match> matches = new ArrayList<>();
+        long key = cellKey(cellRow(latitude, coverageCellSizeDegrees), cellColumn(longitude, coverageCellSizeDegrees));
+
+        lock.readLock().lock();
+        try {
+            IntBucket bucket = coverageCells.get(key);
+            if (bucket != null) {
+                for (int j = 0; j < bucket.size; j++) {
+                    int slot = bucket.slots[j];
+                    double distance = distanceKm(latitude, longitude, latitudes[slot], longitudes[slot]);
+                    if (distance <= serviceRadii[slot] && distance <= maxDistanceKm) {
+                        matches.add(new Match(userIds[slot], distance));
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        matches.sort(Comparator.comparingDouble(Match::getDistanceKm));
+        return matches;
+    }
+
+    /**
+     * Find the K best ranked mechanics that cover a point
+     *
+     * Rings of grid cells are scanned outward from the search cell. After ring r
+     * every mechanic closer than the ring's covered radius has been seen, so the
+     * scan stops as soon as K covering mechanics lie inside that radius (or the
+     * search radius is covered). Only those candidates are ranked, using a
+     * max-heap of size K.
+     */
+    public List<Match> findNearest(double latitude, double longitude, int k, double maxRadiusKm) {
+        if (k <= 0 || !(maxRadiusKm > 0)) {
+            return new ArrayList<>();
+        }
+
+        int centerRow = cellRow(latitude, cellSizeDegrees);
+        long centerColumn = unwrappedColumn(longitude, cellSizeDegrees);
+        int columnCount = columnCount(cellSizeDegrees);
+        int rowCount = (int) Math.ceil(180.0 / cellSizeDegrees) + 1;
+        int maxRing = (columnCount - 1) / 2;
+
+        // Candidates seen so far (slot + distance), kept in primitive arrays
+        int[] candidateSlots = new int[64];
+        double[] candidateDistances = new double[64];
+        int candidateCount = 0;
+
+        PriorityQueue<Match> heap = new PriorityQueue<>(k, Comparator.comparingDouble(Match::getScore).reversed());
+
+        lock.readLock().lock();
+        try {
+            // Nobody farther away than the largest service radius can cover the point
+            double searchRadiusKm = Math.min(maxRadiusKm, maxServiceRadiusKm);
+            double limitKm = searchRadiusKm;
+
+            for (int ring = 0; ring <= maxRing; ring++) {
+                for (int row = centerRow - ring; row <= centerRow + ring; row++) {
+                    if (row < 0 || row >= rowCount) {
+                        continue;
+                    }
+                    // Full rows at the top and bottom of the ring, only the two edge cells in between
+                    boolean edgeRow = row == centerRow - ring || row == centerRow + ring;
+                    int step = edgeRow || ring == 0 ? 1 : 2 * ring;
+                    for (long column = centerColumn - ring; column <= centerColumn + ring; column += step) {
+                        IntBucket bucket = cells.get(cellKey(row, (int) Math.floorMod(column, (long) columnCount)));
+                        if (bucket == null) {
+                            continue;
+                        }
+                        for (int j = 0; j < bucket.size; j++) {
+                            int slot = bucket.slots[j];
+                            double distance = distanceKm(latitude, longitude, latitudes[slot], longitudes[slot]);
+                            if (distance > serviceRadii[slot]) {
+                                continue;
+                            }
+                            if (candidateCount == candidateSlots.length) {
+                                candidateSlots = Arrays.copyOf(candidateSlots, candidateCount * 2);
+                                candidateDistances = Arrays.copyOf(candidateDistances, candidateCount * 2);
+                            }
+                            candidateSlots[candidateCount] = slot;
+                            candidateDistances[candidateCount] = distance;
+                            candidateCount++;
+                        }
+                    }
+                }
+
+                double coveredKm = coveredRadiusKm(latitude, ring);
+                if (coveredKm >= searchRadiusKm) {
+                    break;
+                }
+                int inside = 0;
+                for (int i = 0; i < candidateCount; i++) {
+                    if (candidateDistances[i] <= coveredKm) {
+                        inside++;
+                    }
+                }
+                if (inside >= k) {
+                    limitKm = coveredKm;
+                    break;
+                }
+            }
+
+            for (int i = 0; i < candidateCount; i++) {
+                double distance = candidateDistances[i];
+                if (distance > limitKm) {
+                    continue;
+                }
+                int slot = candidateSlots[i];
+                double score = score(distance, ratings[slot], hourlyRates[slot]);
+                if (heap.size() < k) {
+                    heap.add(new Match(userIds[slot], distance, score));
+                } else if (score < heap.peek().getScore()) {
+                    heap.poll();
+                    heap.add(new Match(userIds[slot], distance, score));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Match> ranked = new ArrayList<>(heap);
+        ranked.sort(Comparator.comparingDouble(Match::getScore));
+        return ranked;
+    }
+
+    /**
+     * Composite ranking score, lower is better
+     */
+    public double score(double distanceKm, double rating, double hourlyRate) {
+        return distanceKm * distanceWeight - rating * ratingWeight + hourlyRate * rateWeight;
+    }
+
+    /**
+     * Great-circle (haversine) distance in kilometers
+     */
+    static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+            + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+            * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    /**
+     * Service radius of a profile in km (column default when unset)
+     */
+    static double serviceRadiusKm(Integer serviceRadius) {
+        return serviceRadius != null ? serviceRadius : DEFAULT_SERVICE_RADIUS_KM;
+    }
+
+    // ---- internal helpers (callers hold the write lock) ----
+
+    private void putLocked(long userId, double latitude, double longitude,
+                           double rating, double hourlyRate, double serviceRadiusKm) {
+        serviceRadiusKm = Math.max(0, Math.min(serviceRadiusKm, radiusCapKm));
+        if (writesDuringRebuild != null) {
+            writesDuringRebuild.put(userId, new double[] {latitude, longitude, rating, hourlyRate, serviceRadiusKm});
+        }
+        long cellKey = cellKey(cellRow(latitude, cellSizeDegrees), cellColumn(longitude, cellSizeDegrees));
+        Integer existing = slotByUserId.get(userId);
+        int slot;
+
+        if (existing != null) {
+            slot = existing;
+            forEachCoverageCell(slot, key -> removeFromBucket(coverageCells, key, slot));
+            if (cellKeys[slot] != cellKey) {
+                removeFromBucket(cells, cellKeys[slot], slot);
+                cells.computeIfAbsent(cellKey, key -> new IntBucket()).add(slot);
+            }
+        } else {
+            slot = allocateSlot();
+            userIds[slot] = userId;
+            slotByUserId.put(userId, slot);
+            cells.computeIfAbsent(cellKey, key -> new IntBucket()).add(slot);
+        }
+
+        latitudes[slot] = latitude;
+        longitudes[slot] = longitude;
+        cellKeys[slot] = cellKey;
+        ratings[slot] = rating;
+        hourlyRates[slot] = hourlyRate;
+        serviceRadii[slot] = serviceRadiusKm;
+        forEachCoverageCell(slot, key -> coverageCells.computeIfAbsent(key, k -> new IntBucket()).add(slot));
+        maxServiceRadiusKm = Math.max(maxServiceRadiusKm, serviceRadiusKm);
+    }
+
+    /**
+     * Visit every coverage cell overlapped by the bounding box of a slot's service circle
+     */
+    private void forEachCoverageCell(int slot, LongConsumer action) {
+        double latitude = latitudes[slot];
+        double radiusKm = serviceRadii[slot];
+        double latitudeDelta = Math.toDegrees(radiusKm / EARTH_RADIUS_KM);
+        double longitudeDelta = longitudeDelta(latitude, radiusKm);
+
+        int minRow = cellRow(Math.max(-90.0, latitude - latitudeDelta), coverageCellSizeDegrees);
+        int maxRow = cellRow(Math.min(90.0, latitude + latitudeDelta), coverageCellSizeDegrees);
+
+        int columnCount = columnCount(coverageCellSizeDegrees);
+        int firstColumn;
+        int columnSpan;
+        if (longitudeDelta >= 180.0) {
+            firstColumn = 0;
+            columnSpan = columnCount;
+        } else {
+            long west = unwrappedColumn(longitudes[slot] - longitudeDelta, coverageCellSizeDegrees);
+            long east = unwrappedColumn(longitudes[slot] + longitudeDelta, coverageCellSizeDegrees);
+            firstColumn = (int) Math.floorMod(west, (long) columnCount);
+            columnSpan = (int) Math.min(columnCount, east - west + 1);
+        }
+
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int i = 0; i < columnSpan; i++) {
+                action.accept(cellKey(row, (firstColumn + i) % columnCount));
+            }
+        }
+    }
+
+    private static void removeFromBucket(Map<Long, IntBucket> buckets, long key, int slot) {
+        IntBucket bucket = buckets.get(key);
+        if (bucket != null) {
+            bucket.remove(slot);
+            if (bucket.size == 0) {
+                buckets.remove(key);
+            }
+        }
+    }
+
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (slotCount == userIds.length) {
+            int capacity = userIds.length * 2;
+            userIds = Arrays.copyOf(userIds, capacity);
+            latitudes = Arrays.copyOf(latitudes, capacity);
+            longitudes = Arrays.copyOf(longitudes, capacity);
+            cellKeys = Arrays.copyOf(cellKeys, capacity);
+            ratings = Arrays.copyOf(ratings, capacity);
+            hourlyRates = Arrays.copyOf(hourlyRates, capacity);
+            serviceRadii = Arrays.copyOf(serviceRadii, capacity);
+        }
+        return slotCount++;
+    }
+
+    private void releaseSlot(int slot) {
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    private void clear() {
+        slotByUserId.clear();
+        cells.clear();
+        coverageCells.clear();
+        slotCount = 0;
+        freeCount = 0;
+        maxServiceRadiusKm = 0;
+    }
+
+    // ---- grid math ----
+
+    private static int cellRow(double latitude, double cellSize) {
+        return (int) Math.floor((latitude + 90.0) / cellSize);
+    }
+
+    private static long unwrappedColumn(double longitude, double cellSize) {
+        return (long) Math.floor((longitude + 180.0) / cellSize);
+    }
+
+    private static int cellColumn(double longitude, double cellSize) {
+        return (int) Math.floorMod(unwrappedColumn(longitude, cellSize), (long) columnCount(cellSize));
+    }
+
+    private static int columnCount(double cellSize) {
+        return (int) Math.ceil(360.0 / cellSize);
+    }
+
+    /**
+     * Radius around the search point that is fully covered after scanning
+     * rings 0..ring (the narrower of the cell height and width, measured at
+     * the most poleward latitude the rings reach)
+     */
+    private double coveredRadiusKm(double latitude, int ring) {
+        double poleward = Math.min(89.9, Math.abs(latitude) + (ring + 1) * cellSizeDegrees);
+        double cellWidthKm = cellSizeDegrees * KM_PER_DEGREE * Math.cos(Math.toRadians(poleward));
+        double cellHeightKm = cellSizeDegrees * KM_PER_DEGREE;
+        return ring * Math.min(cellWidthKm, cellHeightKm);
+    }
+
+    private static double toDouble(BigDecimal value) {
+        return value != null ? value.doubleValue() : 0.0;
+    }
+
+    private static long cellKey(int row, int column) {
+        return ((long) row << 32) | (column & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Half-width in degrees of longitude of the box enclosing a circle
+     */
+    private static double longitudeDelta(double latitude, double radiusKm) {
+        double ratio = Math.sin(radiusKm / EARTH_RADIUS_KM) / Math.cos(Math.toRadians(latitude));
+        if (!(ratio < 1.0)) {
+            return 180.0;
+        }
+        return Math.toDegrees(Math.asin(ratio));
+    }
+
+    /**
+     * Search result: a mechanic, its distance from the search point and its
+     * ranking score (coverage lookups use the distance as the score)
+     */
+    public static class Match {
+
+        private final long userId;
+        private final double distanceKm;
+        private final double score;
+
+        public Match(long userId, double distanceKm) {
+            this(userId, distanceKm, distanceKm);
+        }
+
+        public Match(long userId, double distanceKm, double score) {
+            this.userId = userId;
+            this.distanceKm = distanceKm;
+            this.score = score;
+        }
+
+        public long getUserId() {
+            return userId;
+        }
+
+        public double getDistanceKm() {
+            return distanceKm;
+        }
+
+        public double getScore() {
+            return score;
+        }
+    }
+
+    /**
+     * Growable int array holding the slots of one grid cell
+     */
+    private static final class IntBucket {
+
+        private int[] slots = new int[4];
+        private int size;
+
+        void add(int slot) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+
+        void remove(int slot) {
+            for (int i = 0; i < size; i++) {
+                if (slots[i] == slot) {
+                    slots[i] = slots[--size];
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.mechanicondemand.service;
+
+import com.mechanicondemand.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * MechanicLocationBuffer - Coalescing buffer for mechanic GPS pings
+ *
+ * Pings are kept in memory (latest position per mechanic only) and written
+ * to mechanic_profiles on a fixed cadence with a single JDBC batch UPDATE,
+ * instead of a full entity save per ping. The geo index is moved immediately
+ * so nearby searches see the new position before it is flushed.
+ */
+@Service
+public class MechanicLocationBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(MechanicLocationBuffer.class);
+
+    private static final String UPDATE_LOCATION_SQL =
+        "UPDATE mechanic_profiles SET current_latitude = ?, current_longitude = ? WHERE user_id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MechanicGeoIndex mechanicGeoIndex;
+
+    @Value("${location.buffer.capacity:50000}")
+    private int capacity;
+
+    // userId -> {latitude, longitude}; a newer ping replaces the older one
+    private final Map<Long, double[]> pending = new ConcurrentHashMap<>();
+
+    // Users whose ping could not be applied to the geo index (not indexed yet)
+    private final Set<Long> unindexed = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Accept a ping
+     * Returns false when the buffer is full and the user has no pending ping
+     */
+    public boolean offer(long userId, double latitude, double longitude) {
+        if (pending.size() >= capacity && !pending.containsKey(userId)) {
+            return false;
+        }
+
+        pending.put(userId, new double[] {latitude, longitude});
+
+        if (mechanicGeoIndex.isReady() && !mechanicGeoIndex.move(userId, latitude, longitude)) {
+            unindexed.add(userId);
+        }
+        return true;
+    }
+
+    /**
+     * Number of mechanics with a pending ping
+     */
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Write all pending positions with one batch UPDATE
+     */
+    @Scheduled(fixedDelayString = "${location.buffer.flush-interval-ms:2000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        Map<Long, double[]> drained = new HashMap<>();
+        for (Long userId : pending.keySet()) {
+            double[] position = pending.remove(userId);
+            if (position != null) {
+                drained.put(userId, position);
+            }
+        }
+
+        List<Object[]> batch = new ArrayList<>(drained.size());
+        for (Map.Entry<Long, double[]> entry : drained.entrySet()) {
+            batch.add(new Object[] {entry.getValue()[0], entry.getValue()[1], entry.getKey()});
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_LOCATION_SQL, batch);
+            logger.debug("Flushed {} mechanic locations", batch.size());
+        } catch (DataAccessException e) {
+            logger.error("Failed to flush mechanic locations: {}", e.getMessage());
+            // Put the positions back unless a newer ping arrived meanwhile
+            drained.forEach(pending::putIfAbsent);
+            return;
+        }
+
+        indexNewlyLocatedMechanics(drained);
+    }
+
+    /**
+     * Flush whatever is left when the application shuts down
+     */
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * Mechanics without a stored position are not in the geo index yet.
+     * Once their first position is persisted, add the available ones.
+     */
+    private void indexNewlyLocatedMechanics(Map<Long, double[]> flushed) {
+        List<Long> candidates = new ArrayList<>();
+        for (Long userId : flushed.keySet()) {
+            if (unindexed.remove(userId)) {
+                candidates.add(userId);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        for (Object[] row : userRepository.findAvailableMechanicRankings(candidates)) {
+            Long userId = (Long) row[0];
+            double[] position = flushed.get(userId);
+            mechanicGeoIndex.put(userId, position[0], position[1],
+                toDouble((BigDecimal) row[1]),
+                toDouble((BigDecimal) row[2]),
+                MechanicGeoIndex.serviceRadiusKm((Integer) row[3]));
+        }
+    }
+
+    private static double toDouble(BigDecimal value) {
+        return value != null ? value.doubleValue() : 0.0;
+    }
+}
@@ -0,0 +1,127 @@
+package com.mechanicondemand.service;
+
+import com.mechanicondemand.entity.Notification;
+import com.mechanicondemand.entity.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * NotificationFanout - Writes the same notification to many users
+ *
+ * Notifications use IDENTITY ids, which stops Hibernate from batching
+ * inserts: saving N entities costs N round trips. Here the rows are written
+ * with JDBC batches instead (the driver rewrites each batch into one
+ * multi-row INSERT, see rewriteBatchedStatements in the datasource URL), and
+ * no entities are created.
+ *
+ * Broadcasts page through the target user ids by keyset (id > last id), so
+ * only one chunk of ids is held in memory at a time, and commit each chunk
+ * on its own.
+ */
+@Service
+public class NotificationFanout {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationFanout.class);
+
+    private static final String INSERT_SQL =
+        "INSERT INTO notifications (user_id, title, message, type, is_read, created_at) VALUES (?, ?, ?, ?, false, ?)";
+
+    private static final String SELECT_ACTIVE_USER_IDS =
+        "SELECT id FROM users WHERE is_active = true AND id > ? ORDER BY id LIMIT ?";
+
+    private static final String SELECT_ACTIVE_USER_IDS_BY_TYPE =
+        "SELECT id FROM users WHERE is_active = true AND user_type = ? AND id > ? ORDER BY id LIMIT ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${notifications.fanout.chunk-size:1000}")
+    private int chunkSize;
+
+    private final AtomicBoolean broadcasting = new AtomicBoolean();
+
+    /**
+     * Notify the given users (joins the caller's transaction, if any)
+     */
+    public void notifyUsers(Collection<Long> userIds, String title, String message,
+                            Notification.NotificationType type) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        insert(new ArrayList<>(userIds), title, message, type, Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    /**
+     * Notify every active user, or every active user of one type (null = all)
+     * Each chunk is committed separately; returns the number of notifications written
+     * Throws BroadcastInProgressException when another broadcast is still running
+     */
+    public long broadcast(String title, String message, Notification.NotificationType type, User.UserType userType) {
+        if (!broadcasting.compareAndSet(false, true)) {
+            throw new BroadcastInProgressException();
+        }
+        try {
+            Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now());
+            long startedAt = System.currentTimeMillis();
+            long lastId = 0;
+            long written = 0;
+
+            while (true) {
+                List<Long> ids = userType != null
+                    ? jdbcTemplate.queryForList(SELECT_ACTIVE_USER_IDS_BY_TYPE, Long.class, userType.name(), lastId, chunkSize)
+                    : jdbcTemplate.queryForList(SELECT_ACTIVE_USER_IDS, Long.class, lastId, chunkSize);
+                if (ids.isEmpty()) {
+                    break;
+                }
+
+                transactionTemplate.executeWithoutResult(status -> insert(ids, title, message, type, createdAt));
+                written += ids.size();
+                lastId = ids.get(ids.size() - 1);
+
+                if (ids.size() < chunkSize) {
+                    break;
+                }
+            }
+
+            logger.info("Broadcast \"{}\" written to {} users in {} ms", title, written,
+                System.currentTimeMillis() - startedAt);
+            return written;
+        } finally {
+            broadcasting.set(false);
+        }
+    }
+
+    private void insert(List<Long> userIds, String title, String message,
+                        Notification.NotificationType type, Timestamp createdAt) {
+        List<Object[]> batch = new ArrayList<>(userIds.size());
+        for (Long userId : userIds) {
+            batch.add(new Object[] {userId, title, message, type.name(), createdAt});
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+    }
+
+    /**
+     * Another broadcast has not finished yet
+     */
+    public static class BroadcastInProgressException extends RuntimeException {
+
+        public BroadcastInProgressException() {
+            super("A broadcast is already running");
+        }
+    }
+}
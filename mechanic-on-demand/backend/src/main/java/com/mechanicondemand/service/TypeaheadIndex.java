@@ -0,0 +1,358 @@
+package com.mechanicondemand.service;
+
+import com.mechanicondemand.entity.ServiceCategory;
+import com.mechanicondemand.repository.BookingReportRepository;
+import com.mechanicondemand.repository.MechanicServiceRepository;
+import com.mechanicondemand.repository.ServiceCategoryRepository;
+import com.mechanicondemand.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * TypeaheadIndex - Prefix completions for the service picker, served from memory
+ *
+ * Suggestions are the distinct category names, service names and mechanic
+ * specializations, each weighted by its bookings over the last
+ * typeahead.popularity-days (a service name shared by several mechanics
+ * adds up their bookings). Answering a keystroke never touches the database.
+ *
+ * - Every word start of a suggestion is a key ("brake pad replacement",
+ *   "pad replacement", "replacement"), all keys in one sorted array
+ * - The keys starting with the typed prefix are one contiguous range,
+ *   found with two binary searches
+ * - A sparse table over the key weights answers "heaviest key in a range"
+ *   in O(1); the top K of a range are taken by repeatedly splitting the
+ *   range around its heaviest key (O(K log K), whatever the range size)
+ *
+ * The arrays are immutable: a refresh (every typeahead.refresh-ms, on the
+ * reporting pool for the booking counts) builds a new snapshot and swaps it in.
+ */
+@Service
+public class TypeaheadIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(TypeaheadIndex.class);
+
+    public enum Kind {
+        CATEGORY, SERVICE, SPECIALIZATION
+    }
+
+    @Autowired
+    private ServiceCategoryRepository serviceCategoryRepository;
+
+    @Autowired
+    private MechanicServiceRepository mechanicServiceRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookingReportRepository bookingReportRepository;
+
+    @Value("${typeahead.enabled:true}")
+    private boolean enabled;
+
+    @Value("${typeahead.popularity-days:90}")
+    private int popularityDays;
+
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * Build the index once the application has started
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        refresh();
+    }
+
+    /**
+     * Reload names and booking counts (new services and popularity changes)
+     */
+    @Scheduled(fixedDelayString = "${typeahead.refresh-ms:600000}", initialDelayString = "${typeahead.refresh-ms:600000}")
+    public void refresh() {
+        if (!enabled || !refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long startedAt = System.currentTimeMillis();
+            Snapshot loaded = load();
+            snapshot = loaded;
+            logger.info("Typeahead index loaded with {} suggestions ({} keys) in {} ms",
+                loaded.texts.length, loaded.keys.length, System.currentTimeMillis() - startedAt);
+        } finally {
+            refreshing.set(false);
+        }
+    }
+
+    /**
+     * Whether suggestions can be answered
+     */
+    public boolean isReady() {
+        return enabled && snapshot != null;
+    }
+
+    /**
+     * The most booked suggestions with a word starting with prefix, best first
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        Snapshot current = snapshot;
+        String normalized = normalize(prefix);
+        if (current == null || normalized.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        return current.topK(normalized, limit);
+    }
+
+    private Snapshot load() {
+        // Bookings per service, mechanic and category
+        Map<Long, Long> bookingsByService = new HashMap<>();
+        Map<Long, Long> bookingsByMechanic = new HashMap<>();
+        Map<Long, Long> bookingsByCategory = new HashMap<>();
+        for (long[] row : bookingReportRepository.countBookingsPerService(LocalDate.now().minusDays(popularityDays))) {
+            bookingsByService.merge(row[0], row[3], Long::sum);
+            bookingsByMechanic.merge(row[1], row[3], Long::sum);
+            bookingsByCategory.merge(row[2], row[3], Long::sum);
+        }
+
+        Builder builder = new Builder();
+        for (ServiceCategory category : serviceCategoryRepository.findByIsActiveTrueOrderByName()) {
+            builder.add(Kind.CATEGORY, category.getName(), bookingsByCategory.getOrDefault(category.getId(), 0L));
+        }
+        for (Object[] row : mechanicServiceRepository.findAvailableServiceNames()) {
+            builder.add(Kind.SERVICE, (String) row[1], bookingsByService.getOrDefault((Long) row[0], 0L));
+        }
+        for (Object[] row : userRepository.findMechanicSearchDocuments()) {
+            builder.add(Kind.SPECIALIZATION, (String) row[1], bookingsByMechanic.getOrDefault((Long) row[0], 0L));
+        }
+        return builder.build();
+    }
+
+    // Lower case words separated by single spaces
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}]+", " ").trim();
+    }
+
+    /**
+     * A completion with its type and booking count
+     */
+    public static class Suggestion {
+
+        private final String text;
+        private final Kind type;
+        private final long bookings;
+
+        public Suggestion(String text, Kind type, long bookings) {
+            this.text = text;
+            this.type = type;
+            this.bookings = bookings;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public Kind getType() {
+            return type;
+        }
+
+        public long getBookings() {
+            return bookings;
+        }
+    }
+
+    // Collects distinct suggestions (per kind and normalized text), summing their bookings
+    private static final class Builder {
+
+        private final Map<String, Integer> suggestionByKey = new LinkedHashMap<>();
+        private final List<String> texts = new ArrayList<>();
+        private final List<Kind> kinds = new ArrayList<>();
+        private final List<Long> weights = new ArrayList<>();
+
+        void add(Kind kind, String text, long bookings) {
+            String normalized = normalize(text);
+            if (normalized.isEmpty()) {
+                return;
+            }
+            Integer suggestion = suggestionByKey.get(kind + ":" + normalized);
+            if (suggestion != null) {
+                weights.set(suggestion, weights.get(suggestion) + bookings);
+                return;
+            }
+            suggestionByKey.put(kind + ":" + normalized, texts.size());
+            texts.add(text.trim());
+            kinds.add(kind);
+            weights.add(bookings);
+        }
+
+        Snapshot build() {
+            // One key per word start: (key, suggestion) pairs sorted by key
+            List<String> keyList = new ArrayList<>();
+            List<Integer> ownerList = new ArrayList<>();
+            Set<String> seen = new HashSet<>();
+            for (Map.Entry<String, Integer> entry : suggestionByKey.entrySet()) {
+                String normalized = entry.getKey().substring(entry.getKey().indexOf(':') + 1);
+                for (int at = 0; at < normalized.length(); at = normalized.indexOf(' ', at) + 1) {
+                    String key = normalized.substring(at);
+                    // Same key twice in one suggestion ("brake brake") adds nothing
+                    if (seen.add(entry.getValue() + ":" + key)) {
+                        keyList.add(key);
+                        ownerList.add(entry.getValue());
+                    }
+                    if (normalized.indexOf(' ', at) < 0) {
+                        break;
+                    }
+                }
+            }
+
+            Integer[] order = new Integer[keyList.size()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> keyList.get(a).compareTo(keyList.get(b)));
+
+            String[] keys = new String[order.length];
+            int[] owners = new int[order.length];
+            for (int i = 0; i < order.length; i++) {
+                keys[i] = keyList.get(order[i]);
+                owners[i] = ownerList.get(order[i]);
+            }
+
+            long[] suggestionWeights = new long[weights.size()];
+            for (int i = 0; i < suggestionWeights.length; i++) {
+                suggestionWeights[i] = weights.get(i);
+            }
+            return new Snapshot(keys, owners, texts.toArray(new String[0]), kinds.toArray(new Kind[0]), suggestionWeights);
+        }
+    }
+
+    private static final class Snapshot {
+
+        // Sorted keys and the suggestion each belongs to
+        private final String[] keys;
+        private final int[] owners;
+
+        // Suggestions
+        private final String[] texts;
+        private final Kind[] kinds;
+        private final long[] weights;
+
+        // sparse[j][i] = position of the heaviest key in keys[i, i + 2^j)
+        private final int[][] sparse;
+
+        Snapshot(String[] keys, int[] owners, String[] texts, Kind[] kinds, long[] weights) {
+            this.keys = keys;
+            this.owners = owners;
+            this.texts = texts;
+            this.kinds = kinds;
+            this.weights = weights;
+
+            int levels = 1;
+            while ((1 << levels) <= keys.length) {
+                levels++;
+            }
+            sparse = new int[levels][];
+            sparse[0] = new int[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                sparse[0][i] = i;
+            }
+            for (int j = 1; j < levels; j++) {
+                int span = 1 << j;
+                int half = span >> 1;
+                sparse[j] = new int[keys.length - span + 1];
+                for (int i = 0; i + span <= keys.length; i++) {
+                    sparse[j][i] = heavier(sparse[j - 1][i], sparse[j - 1][i + half]);
+                }
+            }
+        }
+
+        List<Suggestion> topK(String prefix, int limit) {
+            int from = lowerBound(prefix);
+            // Every key starting with prefix sorts before prefix + the highest char
+            int to = lowerBound(prefix + Character.MAX_VALUE);
+            if (from >= to) {
+                return Collections.emptyList();
+            }
+
+            // Ranges ordered by their heaviest key
+            PriorityQueue<int[]> ranges = new PriorityQueue<>((a, b) -> a[2] == b[2] ? 0 : heavier(a[2], b[2]) == a[2] ? -1 : 1);
+            ranges.add(new int[] {from, to, heaviest(from, to)});
+
+            List<Suggestion> result = new ArrayList<>(limit);
+            Set<Integer> taken = new HashSet<>();
+            while (!ranges.isEmpty() && result.size() < limit) {
+                int[] range = ranges.poll();
+                int top = range[2];
+                int owner = owners[top];
+                if (taken.add(owner)) {
+                    result.add(new Suggestion(texts[owner], kinds[owner], weights[owner]));
+                }
+                if (range[0] < top) {
+                    ranges.add(new int[] {range[0], top, heaviest(range[0], top)});
+                }
+                if (top + 1 < range[1]) {
+                    ranges.add(new int[] {top + 1, range[1], heaviest(top + 1, range[1])});
+                }
+            }
+            return result;
+        }
+
+        // Position of the heaviest key in [from, to)
+        private int heaviest(int from, int to) {
+            int level = 31 - Integer.numberOfLeadingZeros(to - from);
+            return heavier(sparse[level][from], sparse[level][to - (1 << level)]);
+        }
+
+        // More bookings wins; on a tie the kind listed first (categories), then the earlier key
+        private int heavier(int a, int b) {
+            long weightA = weights[owners[a]];
+            long weightB = weights[owners[b]];
+            if (weightA != weightB) {
+                return weightA > weightB ? a : b;
+            }
+            int kindA = kinds[owners[a]].ordinal();
+            int kindB = kinds[owners[b]].ordinal();
+            if (kindA != kindB) {
+                return kindA < kindB ? a : b;
+            }
+            return a < b ? a : b;
+        }
+
+        private int lowerBound(String key) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid].compareTo(key) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
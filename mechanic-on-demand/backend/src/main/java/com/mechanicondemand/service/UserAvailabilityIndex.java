@@ -0,0 +1,196 @@
+package com.mechanicondemand.service;
+
+import com.mechanicondemand.entity.User;
+import com.mechanicondemand.repository.UserRepository;
+import com.mechanicondemand.security.StringHash;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * UserAvailabilityIndex - Answers "is this username/email free?" from memory
+ *
+ * Every taken username and email is added to a Bloom filter. A Bloom filter
+ * never misses a value it contains, so a negative answer means the value is
+ * free without querying the users table; only the rare positive (taken, or
+ * a false positive) is confirmed with an exists query.
+ *
+ * Values are compared lowercased, like the case-insensitive unique keys.
+ * Registrations on this instance are added right away; the filter is
+ * rebuilt periodically to pick up other instances. The answer is advisory:
+ * the unique constraints still decide at registration time.
+ */
+@Service
+public class UserAvailabilityIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserAvailabilityIndex.class);
+
+    // Separates usernames from emails inside the single filter
+    private static final char USERNAME_PREFIX = 'u';
+    private static final char EMAIL_PREFIX = 'e';
+
+    private final UserRepository userRepository;
+
+    private final int expectedUsers;
+
+    private final double falsePositiveRate;
+
+    private final Counter filtered;
+
+    private final Counter queried;
+
+    private volatile BloomFilter filter;
+
+    // Values added while a rebuild is loading, replayed into the new filter
+    private volatile Queue<String> rebuildLog;
+
+    public UserAvailabilityIndex(UserRepository userRepository, MeterRegistry meterRegistry,
+                                 @Value("${registration.availability.expected-users:100000}") int expectedUsers,
+                                 @Value("${registration.availability.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.userRepository = userRepository;
+        this.expectedUsers = expectedUsers;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filtered = Counter.builder("availability.checks").tag("result", "filtered")
+            .description("Availability checks answered by the Bloom filter").register(meterRegistry);
+        this.queried = Counter.builder("availability.checks").tag("result", "queried")
+            .description("Availability checks confirmed with a query").register(meterRegistry);
+    }
+
+    /**
+     * Load every username and email into a fresh filter
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${registration.availability.rebuild-ms:600000}",
+               fixedDelayString = "${registration.availability.rebuild-ms:600000}")
+    public synchronized void rebuild() {
+        Queue<String> log = new ConcurrentLinkedQueue<>();
+        rebuildLog = log;
+
+        List<Object[]> rows = userRepository.findAllUsernamesAndEmails();
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedUsers, rows.size() * 2) * 2, falsePositiveRate);
+        for (Object[] row : rows) {
+            rebuilt.add(key(USERNAME_PREFIX, (String) row[0]));
+            rebuilt.add(key(EMAIL_PREFIX, (String) row[1]));
+        }
+
+        filter = rebuilt;
+        rebuildLog = null;
+        for (String value : log) {
+            rebuilt.add(value);
+        }
+        logger.debug("Availability filter rebuilt with {} users", rows.size());
+    }
+
+    /**
+     * Record the username and email of a saved user
+     */
+    public void add(User user) {
+        add(key(USERNAME_PREFIX, user.getUsername()));
+        add(key(EMAIL_PREFIX, user.getEmail()));
+    }
+
+    /**
+     * Whether a username can still be registered
+     */
+    public boolean isUsernameAvailable(String username) {
+        if (mightContain(key(USERNAME_PREFIX, username))) {
+            queried.increment();
+            return !userRepository.existsByUsername(username);
+        }
+        filtered.increment();
+        return true;
+    }
+
+    /**
+     * Whether an email can still be registered
+     */
+    public boolean isEmailAvailable(String email) {
+        if (mightContain(key(EMAIL_PREFIX, email))) {
+            queried.increment();
+            return !userRepository.existsByEmail(email);
+        }
+        filtered.increment();
+        return true;
+    }
+
+    private boolean mightContain(String value) {
+        BloomFilter current = filter;
+        // Not loaded yet: treat everything as possibly taken
+        return current == null || current.mightContain(value);
+    }
+
+    private void add(String value) {
+        BloomFilter current = filter;
+        if (current != null) {
+            current.add(value);
+        }
+        Queue<String> log = rebuildLog;
+        if (log != null) {
+            log.add(value);
+        }
+    }
+
+    private static String key(char prefix, String value) {
+        return prefix + value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Thread-safe Bloom filter over a lock-free bit array
+     */
+    private static final class BloomFilter {
+
+        private final AtomicLongArray words;
+        private final long bitCount;
+        private final int hashCount;
+
+        private BloomFilter(int expectedInsertions, double falsePositiveRate) {
+            long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            int wordCount = (int) Math.max(1, (bits + 63) / 64);
+            this.words = new AtomicLongArray(wordCount);
+            this.bitCount = (long) wordCount * 64;
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+        }
+
+        private void add(String value) {
+            long hash = StringHash.hash64(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++) {
+                long bit = Integer.toUnsignedLong(h1 + i * h2) % bitCount;
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long current;
+                while (((current = words.get(word)) & mask) == 0) {
+                    if (words.compareAndSet(word, current, current | mask)) {
+                        break;
+                    }
+                }
+            }
+        }
+
+        private boolean mightContain(String value) {
+            long hash = StringHash.hash64(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++) {
+                long bit = Integer.toUnsignedLong(h1 + i * h2) % bitCount;
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.mechanicondemand.entity.User;
 import com.mechanicondemand.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -15,9 +16,10 @@ import org.springframework.transaction.annotation.Transactional;
  * This class implements UserDetailsService interface to:
  * - Load user details for authentication
  * - Convert User entity to UserDetails for Spring Security
+ * - Store passwords rehashed on login (BCrypt cost factor upgrades)
  */
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
     
     @Autowired
     private UserRepository userRepository;
@@ -31,6 +33,20 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         return UserPrincipal.create(user);
     }
     
+    /**
+     * Store a rehashed password
+     * Called by Spring Security after a successful login when the stored
+     * hash uses a lower BCrypt cost factor than the configured one
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        UserPrincipal principal = (UserPrincipal) user;
+        userRepository.updatePassword(principal.getId(), newPassword);
+        
+        return new UserPrincipal(principal.getId(), principal.getUsername(), principal.getEmail(),
+            newPassword, principal.isEnabled(), principal.getUserType(), principal.getSecurityVersion());
+    }
+    
     /**
      * UserPrincipal - Custom UserDetails implementation
      * 
@@ -44,6 +60,8 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         private String email;
         private String password;
         private boolean isActive;
+        private String userType;
+        private int securityVersion;
         
         public UserPrincipal(Long id, String username, String email, String password, boolean isActive) {
             this.id = id;
@@ -53,13 +71,22 @@ public class UserDetailsServiceImpl implements UserDetailsService {
             this.isActive = isActive;
         }
         
+        public UserPrincipal(Long id, String username, String email, String password, boolean isActive,
+                             String userType, int securityVersion) {
+            this(id, username, email, password, isActive);
+            this.userType = userType;
+            this.securityVersion = securityVersion;
+        }
+        
         public static UserPrincipal create(User user) {
             return new UserPrincipal(
                 user.getId(),
                 user.getUsername(),
                 user.getEmail(),
                 user.getPassword(),
-                user.getIsActive()
+                user.getIsActive(),
+                user.getUserType() != null ? user.getUserType().name() : null,
+                user.getSecurityVersion() != null ? user.getSecurityVersion() : 0
             );
         }
         
@@ -77,6 +104,14 @@ public class UserDetailsServiceImpl implements UserDetailsService {
             return email;
         }
         
+        public String getUserType() {
+            return userType;
+        }
+        
+        public int getSecurityVersion() {
+            return securityVersion;
+        }
+        
         @Override
         public String getPassword() {
             return password;
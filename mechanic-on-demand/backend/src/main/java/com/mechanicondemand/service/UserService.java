@@ -1,16 +1,32 @@
 package com.mechanicondemand.service;
 
+import com.mechanicondemand.dto.MechanicCard;
+import com.mechanicondemand.dto.NearbyMechanicResponse;
 import com.mechanicondemand.dto.RegisterRequest;
 import com.mechanicondemand.entity.CustomerProfile;
 import com.mechanicondemand.entity.MechanicProfile;
 import com.mechanicondemand.entity.User;
 import com.mechanicondemand.repository.UserRepository;
+import com.mechanicondemand.security.PrincipalCache;
+import com.mechanicondemand.security.SecurityVersionRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * UserService - Business logic layer for User operations
@@ -24,26 +40,41 @@ import java.util.Optional;
 @Service
 public class UserService {
     
+    private static final Logger logger = LoggerFactory.getLogger(UserService.class);
+    
     @Autowired
     private UserRepository userRepository;
     
     @Autowired
     private PasswordEncoder passwordEncoder;
     
+    @Autowired
+    private MechanicGeoIndex mechanicGeoIndex;
+    
+    @Autowired
+    private PrincipalCache principalCache;
+    
+    @Autowired
+    private SecurityVersionRegistry securityVersionRegistry;
+    
+    @Autowired
+    private UserAvailabilityIndex userAvailabilityIndex;
+    
+    @Autowired
+    private CatalogSearchIndex catalogSearchIndex;
+    
+    @Value("${search.max-results:100}")
+    private int maxSearchResults;
+
+    @Value("${dispatch.max-radius-km:50}")
+    private double radiusCapKm;
+    
     /**
      * Register a new user
+     * User and profile are inserted in one transaction; duplicates are
+     * rejected by the unique keys instead of being checked up front.
      */
     public User registerUser(RegisterRequest registerRequest) {
-        // Check if username already exists
-        if (userRepository.existsByUsername(registerRequest.getUsername())) {
-            throw new RuntimeException("Username is already taken!");
-        }
-        
-        // Check if email already exists
-        if (userRepository.existsByEmail(registerRequest.getEmail())) {
-            throw new RuntimeException("Email is already in use!");
-        }
-        
         // Create new user
         User user = new User();
         user.setUsername(registerRequest.getUsername());
@@ -55,23 +86,38 @@ public class UserService {
         user.setUserType(registerRequest.getUserType());
         user.setIsActive(true);
         
-        // Save user
-        User savedUser = userRepository.save(user);
-        
-        // Create profile based on user type
-        if (savedUser.getUserType() == User.UserType.CUSTOMER) {
+        // Create profile based on user type (saved through the cascade)
+        if (user.getUserType() == User.UserType.CUSTOMER) {
             CustomerProfile customerProfile = new CustomerProfile();
-            customerProfile.setUser(savedUser);
+            customerProfile.setUser(user);
             // Set default values or get from request
-            savedUser.setCustomerProfile(customerProfile);
-        } else if (savedUser.getUserType() == User.UserType.MECHANIC) {
+            user.setCustomerProfile(customerProfile);
+        } else if (user.getUserType() == User.UserType.MECHANIC) {
             MechanicProfile mechanicProfile = new MechanicProfile();
-            mechanicProfile.setUser(savedUser);
+            mechanicProfile.setUser(user);
             // Set default values or get from request
-            savedUser.setMechanicProfile(mechanicProfile);
+            user.setMechanicProfile(mechanicProfile);
+        }
+        
+        User savedUser;
+        try {
+            savedUser = userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            // Only on conflicts: find out which unique key was hit
+            if (userRepository.existsByUsername(registerRequest.getUsername())) {
+                throw new RuntimeException("Username is already taken!");
+            }
+            if (userRepository.existsByEmail(registerRequest.getEmail())) {
+                throw new RuntimeException("Email is already in use!");
+            }
+            // Any other constraint: keep the SQL details out of the response
+            logger.warn("Registration of {} violated a constraint: {}", registerRequest.getUsername(),
+                e.getMostSpecificCause().getMessage());
+            throw new RuntimeException("Registration failed, please check your details");
         }
         
-        return userRepository.save(savedUser);
+        userAvailabilityIndex.add(savedUser);
+        return savedUser;
     }
     
     /**
@@ -81,6 +127,19 @@ public class UserService {
         return userRepository.findByUsernameOrEmail(usernameOrEmail, usernameOrEmail);
     }
     
+    /**
+     * Rate limit key of a login attempt
+     * The username of the account the identifier names, so its username and
+     * email share one limit; unknown identifiers are keyed by themselves.
+     * Lower-cased, as MySQL compares both case-insensitively.
+     */
+    public String loginAccountKey(String usernameOrEmail) {
+        String identifier = usernameOrEmail.trim();
+        List<String> usernames = userRepository.findUsernamesByLogin(identifier);
+        String key = usernames.isEmpty() ? identifier : usernames.get(0);
+        return key.toLowerCase(Locale.ROOT);
+    }
+    
     /**
      * Find user by username
      */
@@ -110,24 +169,149 @@ public class UserService {
     }
     
     /**
-     * Find nearby mechanics
+     * Find nearby mechanics whose service radius covers the location, nearest first
+     * A null radius means the customer does not limit the distance further.
+     * Answered from the in-memory coverage index; falls back to the SQL distance
+     * query while the index is disabled or still loading
+     */
+    @Transactional(readOnly = true)
+    public List<MechanicCard> findNearbyMechanics(Double latitude, Double longitude, Double radius) {
+        double maxDistance = radius != null ? radius : MechanicGeoIndex.MAX_DISTANCE_KM;
+        List<Long> ids = new ArrayList<>();
+        if (!mechanicGeoIndex.isReady()) {
+            for (Object[] row : userRepository.findNearbyMechanics(latitude, longitude, maxDistance, radiusCapKm)) {
+                ids.add(((Number) row[0]).longValue());
+            }
+        } else {
+            for (MechanicGeoIndex.Match match : mechanicGeoIndex.findCovering(latitude, longitude, maxDistance)) {
+                ids.add(match.getUserId());
+            }
+        }
+        Map<Long, MechanicCard> cardsById = loadCardsById(ids);
+        
+        // Keep the distance ordering of the search
+        List<MechanicCard> mechanics = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            MechanicCard mechanic = cardsById.get(id);
+            if (mechanic != null) {
+                mechanics.add(mechanic);
+            }
+        }
+        return mechanics;
+    }
+    
+    /**
+     * Find the K best ranked mechanics that cover a location
+     * Ranked by a composite of distance, rating and hourly rate (lower score first)
+     */
+    @Transactional(readOnly = true)
+    public List<NearbyMechanicResponse> findNearestMechanics(Double latitude, Double longitude, int k, Double maxRadius) {
+        List<MechanicGeoIndex.Match> matches;
+        
+        if (mechanicGeoIndex.isReady()) {
+            matches = mechanicGeoIndex.findNearest(latitude, longitude, k, maxRadius);
+        } else {
+            // Fallback: rank the SQL radius search in memory
+            matches = new ArrayList<>();
+            for (Object[] row : userRepository.findNearbyMechanics(latitude, longitude, maxRadius, radiusCapKm)) {
+                double distance = MechanicGeoIndex.distanceKm(latitude, longitude,
+                    ((Number) row[1]).doubleValue(), ((Number) row[2]).doubleValue());
+                double score = mechanicGeoIndex.score(distance,
+                    row[3] != null ? ((Number) row[3]).doubleValue() : 0.0,
+                    row[4] != null ? ((Number) row[4]).doubleValue() : 0.0);
+                matches.add(new MechanicGeoIndex.Match(((Number) row[0]).longValue(), distance, score));
+            }
+            matches.sort(Comparator.comparingDouble(MechanicGeoIndex.Match::getScore));
+            matches = matches.subList(0, Math.min(k, matches.size()));
+        }
+        
+        List<Long> ids = matches.stream().map(MechanicGeoIndex.Match::getUserId).collect(Collectors.toList());
+        Map<Long, MechanicCard> cardsById = loadCardsById(ids);
+        
+        List<NearbyMechanicResponse> ranked = new ArrayList<>(matches.size());
+        for (MechanicGeoIndex.Match match : matches) {
+            MechanicCard mechanic = cardsById.get(match.getUserId());
+            if (mechanic == null) {
+                continue;
+            }
+            ranked.add(new NearbyMechanicResponse(
+                mechanic.getId(),
+                mechanic.getUsername(),
+                mechanic.getFirstName(),
+                mechanic.getLastName(),
+                mechanic.getSpecialization(),
+                mechanic.getRating(),
+                mechanic.getHourlyRate(),
+                Math.round(match.getDistanceKm() * 100) / 100.0,
+                match.getScore()
+            ));
+        }
+        return ranked;
+    }
+    
+    /**
+     * Get active mechanics for list views (projections, best rated first)
      */
-    public List<User> findNearbyMechanics(Double latitude, Double longitude, Double radius) {
-        return userRepository.findNearbyMechanics(latitude, longitude, radius);
+    @Transactional(readOnly = true)
+    public List<MechanicCard> getMechanicCards() {
+        return userRepository.findMechanicCards();
     }
     
     /**
-     * Find mechanics by specialization
+     * Find mechanics by specialization (projections, best match first, then best rated)
      */
-    public List<User> findMechanicsBySpecialization(String specialization) {
-        return userRepository.findMechanicsBySpecialization(specialization);
+    @Transactional(readOnly = true)
+    public List<MechanicCard> findMechanicsBySpecialization(String specialization) {
+        return findMechanicsBySpecialization(specialization, maxSearchResults);
+    }
+    
+    /**
+     * Find mechanics by specialization (at most limit, best match first, then best rated)
+     * Answered by the catalog search index; SQL LIKE while it is loading
+     */
+    @Transactional(readOnly = true)
+    public List<MechanicCard> findMechanicsBySpecialization(String specialization, int limit) {
+        if (!catalogSearchIndex.isReady()) {
+            return userRepository.findMechanicCardsBySpecialization(specialization).stream()
+                .limit(limit)
+                .collect(Collectors.toList());
+        }
+        
+        List<Long> ids = catalogSearchIndex.searchIds(specialization, CatalogSearchIndex.Kind.MECHANIC,
+            Math.min(limit, maxSearchResults));
+        Map<Long, MechanicCard> cards = loadCardsById(ids);
+        List<MechanicCard> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            MechanicCard card = cards.get(id);
+            if (card != null) {
+                result.add(card);
+            }
+        }
+        return result;
     }
     
     /**
      * Update user
      */
     public User updateUser(User user) {
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        userAvailabilityIndex.add(savedUser);
+        principalCache.invalidate(savedUser.getId());
+        securityVersionRegistry.update(savedUser);
+        mechanicGeoIndex.update(savedUser);
+        catalogSearchIndex.updateMechanic(savedUser);
+        return savedUser;
+    }
+    
+    /**
+     * Load the MechanicCard projections of search matches with a single query
+     */
+    private Map<Long, MechanicCard> loadCardsById(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return userRepository.findMechanicCardsByIds(ids).stream()
+            .collect(Collectors.toMap(MechanicCard::getId, Function.identity()));
     }
     
     /**
@@ -137,7 +321,13 @@ public class UserService {
         Optional<User> user = userRepository.findById(id);
         if (user.isPresent()) {
             user.get().setIsActive(false);
+            // Revoke every token issued so far
+            user.get().setSecurityVersion(user.get().getSecurityVersion() + 1);
             userRepository.save(user.get());
+            principalCache.invalidate(id);
+            securityVersionRegistry.update(user.get());
+            mechanicGeoIndex.remove(id);
+            catalogSearchIndex.remove(CatalogSearchIndex.Kind.MECHANIC, id);
         }
     }
 }
\ No newline at end of file
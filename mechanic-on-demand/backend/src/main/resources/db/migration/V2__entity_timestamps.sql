@@ -0,0 +1,53 @@
+-- V2 - Timestamps of profiles and mechanic services
+-- The entities have always mapped created_at/updated_at on these tables, but
+-- schema.sql never declared them: databases that ran with the old
+-- ddl-auto=update already have the columns, so each one is only added when it
+-- is missing (MySQL has no ADD COLUMN IF NOT EXISTS).
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.columns
+               WHERE table_schema = DATABASE() AND table_name = 'customer_profiles' AND column_name = 'created_at') = 0,
+              'ALTER TABLE customer_profiles ADD COLUMN created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP',
+              'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.columns
+               WHERE table_schema = DATABASE() AND table_name = 'customer_profiles' AND column_name = 'updated_at') = 0,
+              'ALTER TABLE customer_profiles ADD COLUMN updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP',
+              'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.columns
+               WHERE table_schema = DATABASE() AND table_name = 'mechanic_profiles' AND column_name = 'created_at') = 0,
+              'ALTER TABLE mechanic_profiles ADD COLUMN created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP',
+              'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.columns
+               WHERE table_schema = DATABASE() AND table_name = 'mechanic_profiles' AND column_name = 'updated_at') = 0,
+              'ALTER TABLE mechanic_profiles ADD COLUMN updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP',
+              'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.columns
+               WHERE table_schema = DATABASE() AND table_name = 'mechanic_services' AND column_name = 'created_at') = 0,
+              'ALTER TABLE mechanic_services ADD COLUMN created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP',
+              'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.columns
+               WHERE table_schema = DATABASE() AND table_name = 'mechanic_services' AND column_name = 'updated_at') = 0,
+              'ALTER TABLE mechanic_services ADD COLUMN updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP',
+              'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
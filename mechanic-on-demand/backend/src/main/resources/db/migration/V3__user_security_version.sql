@@ -0,0 +1,4 @@
+-- V3 - Security version of each user
+-- Bumped to invalidate every token issued before (e.g. on deactivation);
+-- self-contained JWTs carry the version they were issued with
+ALTER TABLE users ADD COLUMN security_version INT NOT NULL DEFAULT 0 AFTER is_active;
@@ -0,0 +1,17 @@
+-- V4 - Unassigned bookings and slot reservations
+
+-- A dispatched booking has no mechanic until one claims it
+ALTER TABLE bookings MODIFY mechanic_id BIGINT NULL;
+
+-- Booking slot reservations - 15 minute slots held by a booking
+-- The unique key rejects overlapping bookings of the same mechanic
+CREATE TABLE booking_slot_reservations (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    booking_id BIGINT NOT NULL,
+    mechanic_id BIGINT NOT NULL,
+    slot_date DATE NOT NULL,
+    slot_index INT NOT NULL,
+    UNIQUE KEY uk_mechanic_slot (mechanic_id, slot_date, slot_index),
+    FOREIGN KEY (booking_id) REFERENCES bookings(id) ON DELETE CASCADE,
+    FOREIGN KEY (mechanic_id) REFERENCES users(id) ON DELETE CASCADE
+);
@@ -0,0 +1,5 @@
+-- V5 - Keyset pagination of booking histories, newest first
+CREATE INDEX idx_bookings_customer_created ON bookings (customer_id, created_at, id);
+CREATE INDEX idx_bookings_mechanic_created ON bookings (mechanic_id, created_at, id);
+CREATE INDEX idx_bookings_customer_status_created ON bookings (customer_id, status, created_at, id);
+CREATE INDEX idx_bookings_mechanic_status_created ON bookings (mechanic_id, status, created_at, id);
@@ -0,0 +1,38 @@
+-- V6 - Composite indexes for the repository queries
+-- Each index names the finder(s) it serves. Equality columns come first,
+-- then the range or ORDER BY columns, so MySQL can seek and read rows in
+-- order without a filesort. Single-column foreign key indexes (created by
+-- InnoDB) and the keyset indexes of V5 are not repeated.
+
+-- BookingRepository.findCalendarEntries, BookingReportRepository.exportBookings (date range, ORDER BY date, time)
+CREATE INDEX idx_bookings_date_time ON bookings (booking_date, booking_time);
+
+-- MechanicServiceRepository.findAvailableListingsByCategoryId, findByCategoryOrderByServiceName
+CREATE INDEX idx_ms_category_available_name ON mechanic_services (category_id, is_available, service_name);
+
+-- MechanicServiceRepository.findMechanicIdsOfferingCategory (dispatch; answered from the index alone)
+CREATE INDEX idx_ms_category_available_mechanic ON mechanic_services (category_id, is_available, mechanic_id);
+
+-- MechanicServiceRepository.findListingsByMechanicId, findByMechanicOrderByServiceName,
+-- findByMechanicAndIsAvailableTrueOrderByServiceName
+CREATE INDEX idx_ms_mechanic_name ON mechanic_services (mechanic_id, service_name);
+
+-- MechanicServiceRepository.findFirstByMechanicIdAndCategoryIdAndIsAvailableTrue,
+-- findByMechanicAndCategoryOrderByServiceName
+CREATE INDEX idx_ms_mechanic_category_available ON mechanic_services (mechanic_id, category_id, is_available);
+
+-- MechanicServiceRepository.findServicesByPriceRange
+CREATE INDEX idx_ms_available_price ON mechanic_services (is_available, base_price);
+
+-- UserRepository.findByUserType, findByUserTypeAndIsActive, the MechanicCard lists
+CREATE INDEX idx_users_type_active ON users (user_type, is_active);
+
+-- UserRepository.findMechanicCards, findMechanicCardsBySpecialization (ORDER BY rating DESC)
+CREATE INDEX idx_mp_rating ON mechanic_profiles (rating, user_id);
+
+-- ServiceCategoryRepository.findByIsActiveTrueOrderByName, findByName
+CREATE INDEX idx_categories_active_name ON service_categories (is_active, name);
+CREATE INDEX idx_categories_name ON service_categories (name);
+
+-- PricingPlanRepository.findByIsActiveTrueOrderByPriceAsc
+CREATE INDEX idx_pricing_plans_active_price ON pricing_plans (is_active, price);
@@ -0,0 +1,5 @@
+-- V7 - Category service lists sorted by name
+-- MechanicServiceRepository.findByCategoryOrderByServiceName does not filter on
+-- is_available, so idx_ms_category_available_name (V6) cannot return its rows
+-- in service_name order and MySQL falls back to a filesort
+CREATE INDEX idx_ms_category_name ON mechanic_services (category_id, service_name);
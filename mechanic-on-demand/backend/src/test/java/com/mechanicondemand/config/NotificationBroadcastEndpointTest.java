@@ -0,0 +1,64 @@
+package com.mechanicondemand.config;
+
+import com.mechanicondemand.entity.Notification;
+import com.mechanicondemand.entity.User;
+import com.mechanicondemand.service.NotificationFanout;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class NotificationBroadcastEndpointTest {
+
+    private NotificationFanout notificationFanout;
+
+    private NotificationBroadcastEndpoint endpoint;
+
+    @BeforeEach
+    void setUp() {
+        notificationFanout = mock(NotificationFanout.class);
+        endpoint = new NotificationBroadcastEndpoint();
+        ReflectionTestUtils.setField(endpoint, "notificationFanout", notificationFanout);
+    }
+
+    @Test
+    void sentBroadcastAnswers200() {
+        when(notificationFanout.broadcast("Hello", "World", Notification.NotificationType.SYSTEM,
+            User.UserType.MECHANIC)).thenReturn(42L);
+
+        WebEndpointResponse<Map<String, Object>> response = endpoint.broadcast("Hello", "World", "mechanic");
+
+        assertEquals(200, response.getStatus());
+        assertEquals(42L, response.getBody().get("recipients"));
+    }
+
+    @Test
+    void missingTextAnswers400() {
+        assertEquals(400, endpoint.broadcast(" ", "World", null).getStatus());
+        assertEquals(400, endpoint.broadcast("Hello", "", null).getStatus());
+    }
+
+    @Test
+    void unknownUserTypeAnswers400() {
+        assertEquals(400, endpoint.broadcast("Hello", "World", "admin").getStatus());
+    }
+
+    @Test
+    void runningBroadcastAnswers409() {
+        when(notificationFanout.broadcast(anyString(), anyString(), any(), any()))
+            .thenThrow(new NotificationFanout.BroadcastInProgressException());
+
+        WebEndpointResponse<Map<String, Object>> response = endpoint.broadcast("Hello", "World", null);
+
+        assertEquals(409, response.getStatus());
+        assertEquals("A broadcast is already running", response.getBody().get("error"));
+    }
+}
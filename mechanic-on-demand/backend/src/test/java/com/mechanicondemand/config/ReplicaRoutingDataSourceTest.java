@@ -0,0 +1,76 @@
+package com.mechanicondemand.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReplicaRoutingDataSourceTest {
+
+    private ReplicaLagMonitor lagMonitor;
+
+    private ReplicaRoutingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        lagMonitor = mock(ReplicaLagMonitor.class);
+        when(lagMonitor.getHealthyReplicas()).thenReturn(Arrays.asList("replica-1", "replica-2"));
+        dataSource = new ReplicaRoutingDataSource(lagMonitor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        ReplicaRoutingDataSource.unpin();
+    }
+
+    @Test
+    void readWriteWorkUsesThePrimary() {
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, dataSource.determineCurrentLookupKey());
+    }
+
+    @Test
+    void readOnlyTransactionsRotateOverTheReplicas() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals("replica-1", dataSource.determineCurrentLookupKey());
+        assertEquals("replica-2", dataSource.determineCurrentLookupKey());
+        assertEquals("replica-1", dataSource.determineCurrentLookupKey());
+    }
+
+    @Test
+    void readOnlyTransactionsFallBackToThePrimaryWithoutHealthyReplicas() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(lagMonitor.getHealthyReplicas()).thenReturn(Collections.emptyList());
+
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, dataSource.determineCurrentLookupKey());
+    }
+
+    @Test
+    void pinnedWorkUsesThePrimaryEvenWhenReadOnly() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        Object key = ReplicaRoutingDataSource.onPrimary(dataSource::determineCurrentLookupKey);
+
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, key);
+        // The pin only lasts for the work passed to onPrimary
+        assertEquals("replica-1", dataSource.determineCurrentLookupKey());
+    }
+
+    @Test
+    void nestedOnPrimaryKeepsTheOuterPin() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        ReplicaRoutingDataSource.pinToPrimary();
+
+        ReplicaRoutingDataSource.onPrimary(() -> null);
+
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, dataSource.determineCurrentLookupKey());
+    }
+}
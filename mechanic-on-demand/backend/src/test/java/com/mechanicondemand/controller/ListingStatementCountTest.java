@@ -0,0 +1,113 @@
+package com.mechanicondemand.controller;
+
+import com.mechanicondemand.service.UserDetailsServiceImpl.UserPrincipal;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * ListingStatementCountTest - The list endpoints read projections in a fixed number of statements
+ *
+ * Runs against a MySQL 8 container migrated with the Flyway migrations plus
+ * the rows in db/listing-data, and counts the JDBC statements Hibernate
+ * prepares for each request (Statistics.getPrepareStatementCount). Each list
+ * has 10 to 30 rows, so lazy loading per row would break the limit.
+ * Skipped when Docker is not available.
+ */
+@SpringBootTest(properties = "spring.flyway.locations=classpath:db/migration,classpath:db/listing-data")
+@AutoConfigureMockMvc
+@Testcontainers(disabledWithoutDocker = true)
+class ListingStatementCountTest {
+
+    // The booking page also loads the requesting user
+    private static final long MAX_STATEMENTS = 2;
+
+    private static final UserPrincipal CUSTOMER =
+        new UserPrincipal(100L, "customer", "customer@example.com", "x", true, "CUSTOMER", 0);
+
+    @Container
+    private static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0")
+        .withDatabaseName("mechanic_on_demand");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", MYSQL::getJdbcUrl);
+        registry.add("spring.datasource.username", MYSQL::getUsername);
+        registry.add("spring.datasource.password", MYSQL::getPassword);
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void mechanicList() throws Exception {
+        assertStatementLimit("/api/users/mechanics", jsonPath("$.length()").value(10));
+    }
+
+    @Test
+    void nearbyMechanics() throws Exception {
+        assertStatementLimit("/api/users/mechanics/nearby?latitude=18.52&longitude=73.85",
+            jsonPath("$.length()").value(10));
+    }
+
+    @Test
+    void mechanicsBySpecialization() throws Exception {
+        assertStatementLimit("/api/users/mechanics/specialization/brake", jsonPath("$.length()").value(10));
+    }
+
+    @Test
+    void servicesOfMechanic() throws Exception {
+        assertStatementLimit("/api/services/mechanic/1", jsonPath("$.length()").value(3));
+    }
+
+    @Test
+    void servicesInCategory() throws Exception {
+        assertStatementLimit("/api/services?categoryId=2", jsonPath("$.length()").value(30));
+    }
+
+    @Test
+    void bookingPage() throws Exception {
+        assertStatementLimit("/api/bookings", jsonPath("$.items.length()").value(15));
+    }
+
+    private void assertStatementLimit(String url, ResultMatcher content) throws Exception {
+        statistics.clear();
+
+        mockMvc.perform(get(url).with(user(CUSTOMER)))
+            .andExpect(status().isOk())
+            .andExpect(content);
+
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements <= MAX_STATEMENTS,
+            url + " prepared " + statements + " statements, at most " + MAX_STATEMENTS + " expected");
+    }
+}
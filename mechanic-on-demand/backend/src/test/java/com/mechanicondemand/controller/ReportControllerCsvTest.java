@@ -0,0 +1,31 @@
+package com.mechanicondemand.controller;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReportControllerCsvTest {
+
+    @Test
+    void plainValuesAreWrittenAsIs() {
+        assertEquals("COMPLETED", ReportController.csvField("COMPLETED"));
+        assertEquals("2024-03-09 17:45:12", ReportController.csvField("2024-03-09 17:45:12"));
+    }
+
+    @Test
+    void nullIsAnEmptyField() {
+        assertEquals("", ReportController.csvField(null));
+    }
+
+    @Test
+    void separatorsAndLineBreaksAreQuoted() {
+        assertEquals("\"Brakes, front\"", ReportController.csvField("Brakes, front"));
+        assertEquals("\"line one\nline two\"", ReportController.csvField("line one\nline two"));
+        assertEquals("\"line one\r\nline two\"", ReportController.csvField("line one\r\nline two"));
+    }
+
+    @Test
+    void quotesAreDoubled() {
+        assertEquals("\"The \"\"best\"\" tune-up\"", ReportController.csvField("The \"best\" tune-up"));
+    }
+}
@@ -0,0 +1,553 @@
+package com.mechanicondemand.repository;
+
+import com.mechanicondemand.entity.Booking;
+import com.mechanicondemand.entity.ServiceCategory;
+import com.mechanicondemand.entity.User;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.RegexPatternTypeFilter;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.annotation.PostConstruct;
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * QueryPlanRegressionTest - Checks the MySQL plans of the repository queries
+ *
+ * Migrates a MySQL 8 container with the Flyway migrations, seeds it to a
+ * realistic size and boots the JPA slice against it. Each check calls one
+ * repository method with representative arguments; every SELECT it prepares
+ * is captured (SQL and bound parameters) and run again under EXPLAIN. The
+ * test fails for every plan that scans a whole large table, or sorts it with
+ * a filesort, instead of using an index. On small tables MySQL prefers scans,
+ * so plans are only reported when the estimated row count reaches MIN_ROWS.
+ *
+ * Every finder of a *Repository class needs a check, or an entry in
+ * SCANS_BY_DESIGN saying why it reads a whole table; @Modifying statements
+ * are left out. Skipped when Docker is not available.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class QueryPlanRegressionTest {
+
+    private static final String REPOSITORY_PACKAGE = "com.mechanicondemand.repository";
+
+    private static final Set<String> CHECKED_TABLES =
+        new HashSet<>(Arrays.asList("bookings", "mechanic_services"));
+
+    private static final long MIN_ROWS = 1000;
+
+    // Seeded data set
+    private static final int MECHANICS = 5000;
+    private static final int CUSTOMERS = 50000;
+    private static final int SERVICES_PER_MECHANIC = 4;
+    private static final int BOOKINGS = 200000;
+
+    // A mechanic and a customer of the seeded data set
+    private static final long MECHANIC_ID = 1;
+    private static final long CUSTOMER_ID = MECHANICS + 1;
+
+    // First keyset page
+    private static final LocalDateTime CURSOR_CREATED_AT = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+    private static final Pageable PAGE = PageRequest.of(0, 21);
+
+    private static final Set<Booking.BookingStatus> OCCUPYING_STATUSES = EnumSet.of(
+        Booking.BookingStatus.PENDING, Booking.BookingStatus.ACCEPTED, Booking.BookingStatus.IN_PROGRESS);
+
+    // Finders that read a whole table on purpose, and why
+    private static final Map<String, String> SCANS_BY_DESIGN = new LinkedHashMap<>();
+
+    static {
+        SCANS_BY_DESIGN.put("MechanicServiceRepository.findSearchDocuments", "CatalogSearchIndex load");
+        SCANS_BY_DESIGN.put("MechanicServiceRepository.findAvailableServiceNames", "TypeaheadIndex load");
+        SCANS_BY_DESIGN.put("MechanicServiceRepository.findServiceDurations", "MechanicCalendarIndex load");
+        SCANS_BY_DESIGN.put("MechanicServiceRepository.findListingsByNameContaining", "LIKE '%...%' search fallback");
+        SCANS_BY_DESIGN.put("UserRepository.findNearbyMechanics", "distance of every mechanic, geo index fallback");
+        SCANS_BY_DESIGN.put("UserRepository.findAvailableMechanicLocations", "MechanicGeoIndex load");
+        SCANS_BY_DESIGN.put("UserRepository.findSecurityVersionExceptions", "SecurityVersionRegistry load");
+        SCANS_BY_DESIGN.put("UserRepository.findAllUsernamesAndEmails", "UserAvailabilityIndex load");
+        SCANS_BY_DESIGN.put("UserRepository.findMechanicCards", "lists every active mechanic");
+        SCANS_BY_DESIGN.put("UserRepository.findMechanicSearchDocuments", "CatalogSearchIndex and TypeaheadIndex load");
+        SCANS_BY_DESIGN.put("UserRepository.findMechanicCardsBySpecialization", "LIKE '%...%' search fallback");
+        SCANS_BY_DESIGN.put("BookingReportRepository.countByStatus", "report, sorts the groups of a date range");
+        SCANS_BY_DESIGN.put("BookingReportRepository.findTopMechanics", "report, sorts the groups of a date range");
+        SCANS_BY_DESIGN.put("BookingReportRepository.countBookingsPerService", "TypeaheadIndex load");
+    }
+
+    // Table names and aliases in FROM and JOIN clauses (the alias group may catch a keyword; it never matches)
+    private static final Pattern TABLE_REFERENCE =
+        Pattern.compile("\\b(?:from|join)\\s+(\\w+)(?:\\s+(?:as\\s+)?(\\w+))?", Pattern.CASE_INSENSITIVE);
+
+    @Container
+    private static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0")
+        .withDatabaseName("mechanic_on_demand");
+
+    // Runs the EXPLAINs and the seed, outside the captured data source
+    private static JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private StatementCapture statementCapture;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private MechanicServiceRepository mechanicServiceRepository;
+
+    @Autowired
+    private PricingPlanRepository pricingPlanRepository;
+
+    @Autowired
+    private ServiceCategoryRepository serviceCategoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeAll
+    static void migrateAndSeed() {
+        Flyway.configure()
+            .dataSource(MYSQL.getJdbcUrl(), MYSQL.getUsername(), MYSQL.getPassword())
+            .load()
+            .migrate();
+
+        // One connection throughout, so the session variable stays set
+        jdbcTemplate = new JdbcTemplate(new SingleConnectionDataSource(
+            MYSQL.getJdbcUrl(), MYSQL.getUsername(), MYSQL.getPassword(), true));
+        jdbcTemplate.execute("SET SESSION cte_max_recursion_depth = " + BOOKINGS);
+        seed();
+    }
+
+    @Test
+    void everyRepositoryFinderHasACheck() throws ClassNotFoundException {
+        Set<String> finders = finders();
+        Map<String, Runnable> checks = checks();
+
+        List<String> problems = new ArrayList<>();
+        for (String finder : finders) {
+            if (!checks.containsKey(finder) && !SCANS_BY_DESIGN.containsKey(finder)) {
+                problems.add(finder + ": no check and not in SCANS_BY_DESIGN");
+            }
+        }
+        Set<String> registered = new TreeSet<>(checks.keySet());
+        registered.addAll(SCANS_BY_DESIGN.keySet());
+        for (String name : registered) {
+            if (!finders.contains(name)) {
+                problems.add(name + ": registered, but there is no such finder");
+            }
+        }
+
+        assertTrue(problems.isEmpty(), "Unchecked repository finders:\n" + String.join("\n", problems));
+    }
+
+    @Test
+    void repositoryQueriesUseIndexesOnLargeTables() {
+        List<String> violations = new ArrayList<>();
+        for (Map.Entry<String, Runnable> check : checks().entrySet()) {
+            // Nothing may be answered from the persistence context
+            entityManager.clear();
+            statementCapture.clear();
+            try {
+                check.getValue().run();
+            } catch (RuntimeException e) {
+                violations.add(check.getKey() + ": call failed (" + e + ")");
+                continue;
+            }
+
+            List<CapturedStatement> statements = statementCapture.drain();
+            if (statements.isEmpty()) {
+                violations.add(check.getKey() + ": no SELECT was prepared");
+            }
+            for (CapturedStatement statement : statements) {
+                explain(check.getKey(), statement, violations);
+            }
+        }
+
+        assertTrue(violations.isEmpty(), "Query plan regressions:\n" + String.join("\n", violations));
+    }
+
+    /**
+     * One call with representative arguments per finder, keyed "Repository.method"
+     */
+    private Map<String, Runnable> checks() {
+        LocalDate today = LocalDate.now();
+        List<Long> ids = Arrays.asList(1L, 2L, 3L, 4L, 5L);
+        Map<String, Runnable> checks = new LinkedHashMap<>();
+
+        // BookingRepository
+        checks.put("BookingRepository.findWithServiceById", () -> bookingRepository.findWithServiceById(1L));
+        checks.put("BookingRepository.findPageByCustomer", () ->
+            bookingRepository.findPageByCustomer(user(CUSTOMER_ID), CURSOR_CREATED_AT, Long.MAX_VALUE, PAGE));
+        checks.put("BookingRepository.findPageByMechanic", () ->
+            bookingRepository.findPageByMechanic(user(MECHANIC_ID), CURSOR_CREATED_AT, Long.MAX_VALUE, PAGE));
+        checks.put("BookingRepository.findPageByCustomerAndStatus", () ->
+            bookingRepository.findPageByCustomerAndStatus(user(CUSTOMER_ID), Booking.BookingStatus.PENDING,
+                CURSOR_CREATED_AT, Long.MAX_VALUE, PAGE));
+        checks.put("BookingRepository.findPageByMechanicAndStatus", () ->
+            bookingRepository.findPageByMechanicAndStatus(user(MECHANIC_ID), Booking.BookingStatus.PENDING,
+                CURSOR_CREATED_AT, Long.MAX_VALUE, PAGE));
+        checks.put("BookingRepository.findCalendarEntries", () ->
+            bookingRepository.findCalendarEntries(today, today.plusDays(30), OCCUPYING_STATUSES));
+        checks.put("BookingRepository.findCalendarEntry", () ->
+            bookingRepository.findCalendarEntry(1L, OCCUPYING_STATUSES));
+        checks.put("BookingRepository.findClaimDetails", () -> bookingRepository.findClaimDetails(1L));
+
+        // BookingReportRepository (plain JDBC, run here on the test data source)
+        BookingReportRepository reports = new BookingReportRepository();
+        ReflectionTestUtils.setField(reports, "reportingDataSource", dataSource);
+        reports.init();
+        checks.put("BookingReportRepository.exportBookings", () ->
+            reports.exportBookings(today, today.plusDays(7), rs -> { }));
+        checks.put("BookingReportRepository.countByCustomer", () -> reports.countByCustomer(CUSTOMER_ID));
+        checks.put("BookingReportRepository.countByMechanic", () -> reports.countByMechanic(MECHANIC_ID));
+
+        // MechanicServiceRepository
+        checks.put("MechanicServiceRepository.findWithCategoryById", () ->
+            mechanicServiceRepository.findWithCategoryById(1L));
+        checks.put("MechanicServiceRepository.findByMechanicOrderByServiceName", () ->
+            mechanicServiceRepository.findByMechanicOrderByServiceName(user(MECHANIC_ID)));
+        checks.put("MechanicServiceRepository.findByMechanicAndIsAvailableTrueOrderByServiceName", () ->
+            mechanicServiceRepository.findByMechanicAndIsAvailableTrueOrderByServiceName(user(MECHANIC_ID)));
+        checks.put("MechanicServiceRepository.findByCategoryOrderByServiceName", () ->
+            mechanicServiceRepository.findByCategoryOrderByServiceName(category(1L)));
+        checks.put("MechanicServiceRepository.findAvailableListingsByCategoryId", () ->
+            mechanicServiceRepository.findAvailableListingsByCategoryId(1L));
+        checks.put("MechanicServiceRepository.findListingsByMechanicId", () ->
+            mechanicServiceRepository.findListingsByMechanicId(MECHANIC_ID));
+        checks.put("MechanicServiceRepository.findByMechanicAndCategoryOrderByServiceName", () ->
+            mechanicServiceRepository.findByMechanicAndCategoryOrderByServiceName(user(MECHANIC_ID), category(1L)));
+        checks.put("MechanicServiceRepository.findListingsByIds", () ->
+            mechanicServiceRepository.findListingsByIds(ids));
+        checks.put("MechanicServiceRepository.findServicesByPriceRange", () ->
+            mechanicServiceRepository.findServicesByPriceRange(50.0, 60.0));
+        checks.put("MechanicServiceRepository.findFirstByMechanicIdAndCategoryIdAndIsAvailableTrue", () ->
+            mechanicServiceRepository.findFirstByMechanicIdAndCategoryIdAndIsAvailableTrue(MECHANIC_ID, 1L));
+        checks.put("MechanicServiceRepository.findMechanicIdsOfferingCategory", () ->
+            mechanicServiceRepository.findMechanicIdsOfferingCategory(1L, ids));
+        checks.put("MechanicServiceRepository.findServiceDuration", () ->
+            mechanicServiceRepository.findServiceDuration(1L));
+
+        // Reference data (query cache; each finder runs once, so it reaches the database)
+        checks.put("PricingPlanRepository.findByIsActiveTrueOrderByPriceAsc", () ->
+            pricingPlanRepository.findByIsActiveTrueOrderByPriceAsc());
+        checks.put("ServiceCategoryRepository.findByIsActiveTrueOrderByName", () ->
+            serviceCategoryRepository.findByIsActiveTrueOrderByName());
+        checks.put("ServiceCategoryRepository.findByName", () -> serviceCategoryRepository.findByName("Engine Repair"));
+
+        // UserRepository
+        checks.put("UserRepository.findById", () -> userRepository.findById(MECHANIC_ID));
+        checks.put("UserRepository.findByUsername", () -> userRepository.findByUsername("user1"));
+        checks.put("UserRepository.findByEmail", () -> userRepository.findByEmail("user1@example.com"));
+        checks.put("UserRepository.findByUsernameOrEmail", () ->
+            userRepository.findByUsernameOrEmail("user1", "user1"));
+        checks.put("UserRepository.findUsernamesByLogin", () ->
+            userRepository.findUsernamesByLogin("user1@example.com"));
+        checks.put("UserRepository.findByUserType", () -> userRepository.findByUserType(User.UserType.MECHANIC));
+        checks.put("UserRepository.findByUserTypeAndIsActive", () ->
+            userRepository.findByUserTypeAndIsActive(User.UserType.MECHANIC, true));
+        checks.put("UserRepository.existsByUsername", () -> userRepository.existsByUsername("user1"));
+        checks.put("UserRepository.existsByEmail", () -> userRepository.existsByEmail("user1@example.com"));
+        checks.put("UserRepository.findAvailableMechanicRankings", () ->
+            userRepository.findAvailableMechanicRankings(ids));
+        checks.put("UserRepository.findAvailableMechanicLocation", () ->
+            userRepository.findAvailableMechanicLocation(MECHANIC_ID));
+        checks.put("UserRepository.findMechanicCardsByIds", () -> userRepository.findMechanicCardsByIds(ids));
+
+        return checks;
+    }
+
+    private User user(long id) {
+        return entityManager.getEntityManager().getReference(User.class, id);
+    }
+
+    private ServiceCategory category(long id) {
+        return entityManager.getEntityManager().getReference(ServiceCategory.class, id);
+    }
+
+    /**
+     * The finders of every *Repository class, as "Repository.method"
+     */
+    private static Set<String> finders() throws ClassNotFoundException {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false) {
+            @Override
+            protected boolean isCandidateComponent(AnnotatedBeanDefinition beanDefinition) {
+                // Interfaces too
+                return beanDefinition.getMetadata().isIndependent();
+            }
+        };
+        scanner.addIncludeFilter(new RegexPatternTypeFilter(Pattern.compile(".*Repository")));
+
+        Set<String> finders = new TreeSet<>();
+        for (BeanDefinition candidate : scanner.findCandidateComponents(REPOSITORY_PACKAGE)) {
+            Class<?> type = Class.forName(candidate.getBeanClassName());
+            for (Method method : type.getDeclaredMethods()) {
+                int modifiers = method.getModifiers();
+                if (Modifier.isPublic(modifiers) && !Modifier.isStatic(modifiers) && !method.isDefault()
+                        && !method.isSynthetic() && !method.isAnnotationPresent(Modifying.class)
+                        && !method.isAnnotationPresent(PostConstruct.class)) {
+                    finders.add(type.getSimpleName() + "." + method.getName());
+                }
+            }
+        }
+        return finders;
+    }
+
+    /**
+     * EXPLAIN a captured statement with its parameters and record what is wrong with the plan
+     */
+    private static void explain(String check, CapturedStatement statement, List<String> violations) {
+        List<Map<String, Object>> plan;
+        try {
+            plan = jdbcTemplate.queryForList("EXPLAIN " + statement.sql, statement.parameters.values().toArray());
+        } catch (DataAccessException e) {
+            violations.add(check + ": EXPLAIN failed (" + e.getMostSpecificCause().getMessage() + ")");
+            return;
+        }
+
+        Map<String, String> tables = tables(statement.sql);
+        for (Map<String, Object> row : plan) {
+            String violation = inspect(row, tables);
+            if (violation != null) {
+                violations.add(check + ": " + violation);
+            }
+        }
+    }
+
+    /**
+     * Map the aliases of a statement to their tables (EXPLAIN reports the alias)
+     */
+    private static Map<String, String> tables(String sql) {
+        Map<String, String> tables = new HashMap<>();
+        Matcher matcher = TABLE_REFERENCE.matcher(sql);
+        while (matcher.find()) {
+            String table = matcher.group(1).toLowerCase(Locale.ROOT);
+            tables.put(table, table);
+            if (matcher.group(2) != null) {
+                tables.put(matcher.group(2).toLowerCase(Locale.ROOT), table);
+            }
+        }
+        return tables;
+    }
+
+    /**
+     * Generate users, profiles, services and bookings with
+     * recursive CTEs, then refresh the index statistics
+     */
+    private static void seed() {
+        int users = MECHANICS + CUSTOMERS;
+        int services = MECHANICS * SERVICES_PER_MECHANIC;
+
+        // Ids 1..MECHANICS are mechanics, the rest customers
+        jdbcTemplate.update(
+            "INSERT INTO users (username, email, password, first_name, last_name, user_type) " +
+            "WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < ?) " +
+            "SELECT CONCAT('user', n), CONCAT('user', n, '@example.com'), 'x', 'First', 'Last', " +
+            "IF(n <= ?, 'MECHANIC', 'CUSTOMER') FROM seq", users, MECHANICS);
+
+        jdbcTemplate.update(
+            "INSERT INTO mechanic_profiles (user_id, specialization, hourly_rate, rating, current_latitude, current_longitude) " +
+            "SELECT id, 'General', 20 + id % 40, (id % 50) / 10, 18.5 + (id % 100) / 100, 73.8 + (id % 100) / 100 " +
+            "FROM users WHERE user_type = 'MECHANIC'");
+
+        // Service n belongs to mechanic ((n - 1) DIV SERVICES_PER_MECHANIC) + 1
+        jdbcTemplate.update(
+            "INSERT INTO mechanic_services (mechanic_id, category_id, service_name, base_price, estimated_duration, is_available) " +
+            "WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < ?) " +
+            "SELECT (n - 1) DIV ? + 1, n % 6 + 1, CONCAT('Service ', n), 20 + n % 200, 30 + (n % 4) * 15, n % 10 <> 0 " +
+            "FROM seq", services, SERVICES_PER_MECHANIC);
+
+        // Every 50th booking is an unclaimed dispatch (no mechanic)
+        jdbcTemplate.update(
+            "INSERT INTO bookings (customer_id, mechanic_id, service_id, booking_date, booking_time, status, " +
+            "total_amount, address, created_at) " +
+            "WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < ?) " +
+            "SELECT ? + 1 + n % ?, IF(n % 50 = 0, NULL, (n % ?) DIV ? + 1), n % ? + 1, " +
+            "CURDATE() + INTERVAL (n % 120) - 60 DAY, SEC_TO_TIME(28800 + (n % 48) * 900), " +
+            "ELT(n % 6 + 1, 'PENDING', 'ACCEPTED', 'REJECTED', 'IN_PROGRESS', 'COMPLETED', 'CANCELLED'), " +
+            "50, 'Seeded address', NOW() - INTERVAL n MINUTE FROM seq",
+            BOOKINGS, MECHANICS, CUSTOMERS, services, SERVICES_PER_MECHANIC, services);
+
+        jdbcTemplate.execute("ANALYZE TABLE users, mechanic_profiles, mechanic_services, bookings");
+    }
+
+    /**
+     * Describe what is wrong with one row of an EXPLAIN result (null if nothing)
+     */
+    private static String inspect(Map<String, Object> row, Map<String, String> tables) {
+        Object alias = row.get("table");
+        if (alias == null) {
+            return null;
+        }
+        String table = tables.getOrDefault(alias.toString().toLowerCase(Locale.ROOT), alias.toString());
+        if (!CHECKED_TABLES.contains(table)) {
+            return null;
+        }
+        Object estimate = row.get("rows");
+        long rows = estimate instanceof Number ? ((Number) estimate).longValue() : 0;
+        if (rows < MIN_ROWS) {
+            return null;
+        }
+
+        String type = String.valueOf(row.get("type"));
+        String extra = String.valueOf(row.get("Extra"));
+        if ("ALL".equals(type)) {
+            return "full table scan of " + table + " (~" + rows + " rows)";
+        }
+        if ("index".equals(type)) {
+            return "full index scan of " + table + " on " + row.get("key") + " (~" + rows + " rows)";
+        }
+        if (extra.contains("Using filesort")) {
+            return "filesort of " + table + " (~" + rows + " rows, key " + row.get("key") + ")";
+        }
+        return null;
+    }
+
+    /**
+     * A SELECT prepared through the captured data source, with its bound parameters by index
+     */
+    static class CapturedStatement {
+
+        final String sql;
+
+        final Map<Integer, Object> parameters = new TreeMap<>();
+
+        CapturedStatement(String sql) {
+            this.sql = sql;
+        }
+    }
+
+    /**
+     * StatementCapture - Records the SELECTs prepared through a wrapped DataSource
+     *
+     * JDK proxies over DataSource, Connection and PreparedStatement; the
+     * set* calls of a captured statement record its parameters.
+     */
+    static class StatementCapture {
+
+        private final List<CapturedStatement> statements = new CopyOnWriteArrayList<>();
+
+        DataSource wrap(DataSource dataSource) {
+            return proxy(DataSource.class, (proxy, method, args) -> {
+                Object result = invoke(dataSource, method, args);
+                return result instanceof Connection ? connection((Connection) result) : result;
+            });
+        }
+
+        void clear() {
+            statements.clear();
+        }
+
+        List<CapturedStatement> drain() {
+            List<CapturedStatement> drained = new ArrayList<>(statements);
+            statements.clear();
+            return drained;
+        }
+
+        private Connection connection(Connection connection) {
+            return proxy(Connection.class, (proxy, method, args) -> {
+                Object result = invoke(connection, method, args);
+                if (result instanceof PreparedStatement && args[0] instanceof String
+                        && ((String) args[0]).trim().regionMatches(true, 0, "select", 0, 6)) {
+                    CapturedStatement statement = new CapturedStatement((String) args[0]);
+                    statements.add(statement);
+                    return preparedStatement((PreparedStatement) result, statement);
+                }
+                return result;
+            });
+        }
+
+        private static PreparedStatement preparedStatement(PreparedStatement target, CapturedStatement statement) {
+            return proxy(PreparedStatement.class, (proxy, method, args) -> {
+                // setXxx(index, value, ...); setNull(index, sqlType) binds null
+                if (method.getName().startsWith("set") && args != null && args.length >= 2
+                        && args[0] instanceof Integer) {
+                    statement.parameters.put((Integer) args[0], "setNull".equals(method.getName()) ? null : args[1]);
+                }
+                return invoke(target, method, args);
+            });
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, handler);
+        }
+    }
+
+    @TestConfiguration
+    static class StatementCaptureConfig {
+
+        @Bean
+        StatementCapture statementCapture() {
+            return new StatementCapture();
+        }
+
+        @Bean
+        DataSource dataSource(StatementCapture statementCapture) {
+            return statementCapture.wrap(DataSourceBuilder.create()
+                .url(MYSQL.getJdbcUrl())
+                .username(MYSQL.getUsername())
+                .password(MYSQL.getPassword())
+                .build());
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.mechanicondemand.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class BoundedTtlCacheTest {
+
+    @Test
+    void entriesExpireAtTheirTime() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10);
+        cache.put("a", "A", 100);
+
+        assertEquals("A", cache.get("a", 99));
+        assertNull(cache.get("a", 100));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void fullCacheEvictsTheLeastRecentlyUsedEntry() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(3);
+        cache.put("a", "A", Long.MAX_VALUE);
+        cache.put("b", "B", Long.MAX_VALUE);
+        cache.put("c", "C", Long.MAX_VALUE);
+        cache.get("a", 0);
+
+        cache.put("d", "D", Long.MAX_VALUE);
+
+        assertEquals(3, cache.size());
+        assertNull(cache.get("b", 0));
+        assertEquals("A", cache.get("a", 0));
+        assertEquals("D", cache.get("d", 0));
+    }
+
+    @Test
+    void largeCacheStaysWithinItsBound() {
+        BoundedTtlCache<Integer, Integer> cache = new BoundedTtlCache<>(2048);
+        for (int i = 0; i < 10000; i++) {
+            cache.put(i, i, Long.MAX_VALUE);
+        }
+        // Each of the 16 segments holds at most 2048 / 16 entries
+        assertEquals(2048, cache.size());
+    }
+
+    @Test
+    void removeIfDropsMatchingValues() {
+        BoundedTtlCache<String, Integer> cache = new BoundedTtlCache<>(10);
+        cache.put("one", 1, Long.MAX_VALUE);
+        cache.put("two", 2, Long.MAX_VALUE);
+
+        cache.removeIf(value -> value == 2);
+
+        assertEquals(1, cache.get("one", 0));
+        assertNull(cache.get("two", 0));
+    }
+
+    @Test
+    void zeroSizeCacheKeepsNothing() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(0);
+        cache.put("a", "A", Long.MAX_VALUE);
+
+        assertNull(cache.get("a", 0));
+    }
+}
@@ -0,0 +1,104 @@
+package com.mechanicondemand.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtVerificationBenchmark - Cost of verifying one access token per request
+ *
+ * - perCallParser: the old path, a new key and parser for every call (twice per request)
+ * - prebuiltParser: one signature check with the parser built at startup
+ * - cachedVerification: JwtUtils.verifyJwtToken, answered from the verified-token cache
+ *
+ * Not part of the test phase. Run it after compiling the tests:
+ *   mvn -B test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *       com.mechanicondemand.security.JwtVerificationBenchmark
+ * Compare the score (us/op) and gc.alloc.rate.norm (bytes/op) columns.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "benchmarkSecretKeyThatIsLongEnoughForHmacSha512SigningAlgorithm0123456789";
+
+    private String token;
+
+    private JwtParser parser;
+
+    private JwtUtils jwtUtils;
+
+    @Setup
+    public void setUp() {
+        SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes());
+        token = Jwts.builder()
+                .setSubject("customer")
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)))
+                .signWith(key, SignatureAlgorithm.HS512)
+                .compact();
+        parser = Jwts.parserBuilder().setSigningKey(key).build();
+
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 3600000);
+        ReflectionTestUtils.setField(jwtUtils, "verifiedCacheMaxSize", 10000);
+        jwtUtils.init();
+    }
+
+    @Benchmark
+    public String perCallParser() {
+        // validateJwtToken followed by getUserNameFromJwtToken, each building its own key and parser
+        Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes())).build().parseClaimsJws(token);
+        return Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes())).build()
+                .parseClaimsJws(token).getBody().getSubject();
+    }
+
+    @Benchmark
+    public String prebuiltParser() {
+        return parser.parseClaimsJws(token).getBody().getSubject();
+    }
+
+    @Benchmark
+    public String cachedVerification() {
+        Claims claims = jwtUtils.verifyJwtToken(token);
+        return claims.getSubject();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(JwtVerificationBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
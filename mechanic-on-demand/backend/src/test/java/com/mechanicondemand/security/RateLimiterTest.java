@@ -0,0 +1,48 @@
+package com.mechanicondemand.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimiterTest {
+
+    private static final String RULE = "login-account";
+
+    @Test
+    void secondRequestWithinThePeriodIsRejected() {
+        RateLimiter limiter = limiter(10);
+
+        assertEquals(0, limiter.acquire(RULE, "alice"));
+        assertTrue(limiter.acquire(RULE, "alice") > 0);
+    }
+
+    @Test
+    void newClientsAreStillLimitedWhenTheTableIsFull() {
+        RateLimiter limiter = limiter(2);
+        limiter.acquire(RULE, "alice");
+        limiter.acquire(RULE, "bob");
+
+        // carol evicts alice, the least recently seen client, instead of going untracked
+        assertEquals(0, limiter.acquire(RULE, "carol"));
+        assertTrue(limiter.acquire(RULE, "carol") > 0);
+        assertTrue(limiter.acquire(RULE, "bob") > 0);
+        assertEquals(0, limiter.acquire(RULE, "alice"));
+    }
+
+    private static RateLimiter limiter(int maxKeys) {
+        RateLimitProperties.Rule rule = new RateLimitProperties.Rule();
+        rule.setName(RULE);
+        rule.setKey(RateLimitProperties.KeyType.USER);
+        rule.setLimit(1);
+        rule.setPeriodSeconds(3600);
+
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setMaxKeys(maxKeys);
+        properties.setRules(Collections.singletonList(rule));
+        return new RateLimiter(properties, new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,70 @@
+package com.mechanicondemand.security;
+
+import com.mechanicondemand.entity.User;
+import com.mechanicondemand.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SecurityVersionRegistryTest {
+
+    private UserRepository userRepository;
+
+    private SecurityVersionRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        registry = new SecurityVersionRegistry();
+        ReflectionTestUtils.setField(registry, "userRepository", userRepository);
+    }
+
+    @Test
+    void refreshLoadsVersionsAndDeactivatedUsers() {
+        // [userId, securityVersion, isActive]
+        when(userRepository.findSecurityVersionExceptions()).thenReturn(Arrays.asList(
+            new Object[] {1L, 2, true},
+            new Object[] {2L, 0, false}));
+
+        registry.refresh();
+
+        assertTrue(registry.isReady());
+        assertTrue(registry.isCurrent(1L, 2));
+        assertFalse(registry.isCurrent(1L, 1));
+        assertFalse(registry.isCurrent(2L, 0));
+        assertTrue(registry.isCurrent(3L, 0));
+    }
+
+    @Test
+    void updatesDuringARefreshWinOverTheSnapshot() {
+        // The snapshot is read before user 1 bumps its version and user 2 is reactivated
+        when(userRepository.findSecurityVersionExceptions()).thenAnswer(invocation -> {
+            registry.update(user(1L, 3, true));
+            registry.update(user(2L, 0, true));
+            return Arrays.asList(
+                new Object[] {1L, 2, true},
+                new Object[] {2L, 0, false});
+        });
+
+        registry.refresh();
+
+        assertTrue(registry.isCurrent(1L, 3));
+        assertFalse(registry.isCurrent(1L, 2));
+        assertTrue(registry.isCurrent(2L, 0));
+    }
+
+    private static User user(long id, int securityVersion, boolean active) {
+        User user = new User();
+        user.setId(id);
+        user.setSecurityVersion(securityVersion);
+        user.setIsActive(active);
+        return user;
+    }
+}
@@ -0,0 +1,239 @@
+package com.mechanicondemand.service;
+
+import com.mechanicondemand.dto.BookingRequest;
+import com.mechanicondemand.entity.Booking;
+import com.mechanicondemand.entity.MechanicService;
+import com.mechanicondemand.entity.User;
+import com.mechanicondemand.repository.BookingRepository;
+import com.mechanicondemand.repository.BookingSlotReservationRepository;
+import com.mechanicondemand.repository.MechanicServiceRepository;
+import com.mechanicondemand.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Concurrent bookings of one mechanic go through BookingService.createBooking
+ * with the real admission lock and calendar index; repositories are mocked and
+ * booking_slot_reservations is an in-memory table with the same unique key.
+ */
+class BookingAdmissionTest {
+
+    private static final long CUSTOMER_ID = 1L;
+    private static final long MECHANIC_ID = 7L;
+    private static final long SERVICE_ID = 3L;
+    private static final int THREADS = 16;
+
+    private final LocalDate date = LocalDate.now().plusDays(1);
+    private final AtomicLong bookingIds = new AtomicLong();
+
+    // (slot_date, slot_index) -> booking_id
+    private final Map<String, Long> slotTable = new ConcurrentHashMap<>();
+
+    private BookingService bookingService;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        User customer = user(CUSTOMER_ID, User.UserType.CUSTOMER);
+        User mechanic = user(MECHANIC_ID, User.UserType.MECHANIC);
+
+        MechanicService service = new MechanicService();
+        service.setId(SERVICE_ID);
+        service.setMechanic(mechanic);
+        service.setEstimatedDuration(60);
+        service.setBasePrice(new BigDecimal("50.00"));
+
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findById(CUSTOMER_ID)).thenReturn(Optional.of(customer));
+        when(userRepository.findById(MECHANIC_ID)).thenReturn(Optional.of(mechanic));
+
+        MechanicServiceRepository mechanicServiceRepository = mock(MechanicServiceRepository.class);
+        when(mechanicServiceRepository.findServiceDurations())
+            .thenReturn(Collections.singletonList(new Object[] {SERVICE_ID, MECHANIC_ID, 60}));
+        when(mechanicServiceRepository.findWithCategoryById(SERVICE_ID)).thenReturn(Optional.of(service));
+
+        BookingRepository bookingRepository = mock(BookingRepository.class);
+        when(bookingRepository.findCalendarEntries(any(), any(), any())).thenReturn(Collections.emptyList());
+        when(bookingRepository.save(any(Booking.class))).thenAnswer(invocation -> {
+            Booking booking = invocation.getArgument(0);
+            booking.setId(bookingIds.incrementAndGet());
+            return booking;
+        });
+
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+            .thenAnswer(invocation -> insertSlots(invocation.getArgument(1)));
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new NoOpTransactionManager());
+
+        MechanicCalendarIndex calendarIndex = new MechanicCalendarIndex();
+        ReflectionTestUtils.setField(calendarIndex, "bookingRepository", bookingRepository);
+        ReflectionTestUtils.setField(calendarIndex, "mechanicServiceRepository", mechanicServiceRepository);
+        ReflectionTestUtils.setField(calendarIndex, "horizonDays", 30);
+        ReflectionTestUtils.setField(calendarIndex, "dayStart", "08:00");
+        ReflectionTestUtils.setField(calendarIndex, "dayEnd", "20:00");
+        ReflectionTestUtils.setField(calendarIndex, "defaultDurationMinutes", 60);
+        calendarIndex.init();
+        calendarIndex.rebuild();
+
+        BookingAdmission admission = new BookingAdmission();
+        ReflectionTestUtils.setField(admission, "transactionTemplate", transactionTemplate);
+        ReflectionTestUtils.setField(admission, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(admission, "bookingSlotReservationRepository",
+            mock(BookingSlotReservationRepository.class));
+        ReflectionTestUtils.setField(admission, "mechanicCalendarIndex", calendarIndex);
+        ReflectionTestUtils.setField(admission, "lockStripes", 1024);
+        admission.init();
+
+        bookingService = new BookingService();
+        ReflectionTestUtils.setField(bookingService, "bookingRepository", bookingRepository);
+        ReflectionTestUtils.setField(bookingService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(bookingService, "mechanicServiceRepository", mechanicServiceRepository);
+        ReflectionTestUtils.setField(bookingService, "bookingDispatcher", mock(BookingDispatcher.class));
+        ReflectionTestUtils.setField(bookingService, "mechanicCalendarIndex", calendarIndex);
+        ReflectionTestUtils.setField(bookingService, "bookingAdmission", admission);
+        ReflectionTestUtils.setField(bookingService, "transactionTemplate", transactionTemplate);
+
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentBookingsOfTheSameSlotAdmitExactlyOne() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Booking>> results = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return bookingService.createBooking(CUSTOMER_ID, request(LocalTime.of(10, 0)));
+            }));
+        }
+        start.countDown();
+
+        int admitted = 0;
+        int rejected = 0;
+        for (Future<Booking> result : results) {
+            try {
+                assertNotNull(result.get(10, TimeUnit.SECONDS));
+                admitted++;
+            } catch (ExecutionException e) {
+                if (!(e.getCause() instanceof BookingAdmission.SlotUnavailableException)) {
+                    throw e;
+                }
+                rejected++;
+            }
+        }
+
+        assertEquals(1, admitted);
+        assertEquals(THREADS - 1, rejected);
+        // 10:00-11:00 is four slots, all held by the one admitted booking
+        assertEquals(4, slotTable.size());
+        assertEquals(1, slotTable.values().stream().distinct().count());
+    }
+
+    @Test
+    void unalignedBookingHoldsTheSlotItEndsIn() {
+        bookingService.createBooking(CUSTOMER_ID, request(LocalTime.of(10, 10)));
+
+        // 10:10-11:10 touches 10:00 through 11:15
+        assertEquals(5, slotTable.size());
+        assertThrows(BookingAdmission.SlotUnavailableException.class,
+            () -> bookingService.createBooking(CUSTOMER_ID, request(LocalTime.of(11, 0))));
+
+        bookingService.createBooking(CUSTOMER_ID, request(LocalTime.of(11, 15)));
+        assertEquals(9, slotTable.size());
+    }
+
+    private BookingRequest request(LocalTime time) {
+        return new BookingRequest(MECHANIC_ID, SERVICE_ID, date, time, "1 Main Street");
+    }
+
+    /**
+     * Insert a batch of slot rows, rejecting the whole batch on a duplicate key
+     */
+    private synchronized int[] insertSlots(List<Object[]> rows) {
+        for (Object[] row : rows) {
+            if (slotTable.containsKey(slotKey(row))) {
+                throw new DuplicateKeyException("uk_mechanic_slot");
+            }
+        }
+        int[] counts = new int[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            slotTable.put(slotKey(rows.get(i)), (Long) rows.get(i)[0]);
+            counts[i] = 1;
+        }
+        return counts;
+    }
+
+    private static String slotKey(Object[] row) {
+        return row[2] + "/" + row[3];
+    }
+
+    private static User user(long id, User.UserType type) {
+        User user = new User();
+        user.setId(id);
+        user.setUserType(type);
+        return user;
+    }
+
+    /**
+     * Runs transaction synchronizations (afterCommit) without a database
+     */
+    private static final class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.mechanicondemand.service;
+
+import com.mechanicondemand.entity.Booking;
+import com.mechanicondemand.entity.User;
+import com.mechanicondemand.repository.BookingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * BookingService.updateBookingStatus against a single mocked booking;
+ * slot releases and dispatch cancellations are verified on mocks.
+ */
+class BookingStatusTransitionTest {
+
+    private static final long BOOKING_ID = 5L;
+    private static final long CUSTOMER_ID = 1L;
+    private static final long MECHANIC_ID = 7L;
+
+    private final Booking booking = new Booking();
+
+    private BookingAdmission bookingAdmission;
+    private BookingDispatcher bookingDispatcher;
+    private BookingService bookingService;
+
+    @BeforeEach
+    void setUp() {
+        booking.setId(BOOKING_ID);
+        booking.setCustomer(user(CUSTOMER_ID));
+        booking.setMechanic(user(MECHANIC_ID));
+
+        BookingRepository bookingRepository = mock(BookingRepository.class);
+        when(bookingRepository.findWithServiceById(BOOKING_ID)).thenReturn(Optional.of(booking));
+        when(bookingRepository.save(any(Booking.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        bookingAdmission = mock(BookingAdmission.class);
+        bookingDispatcher = mock(BookingDispatcher.class);
+
+        bookingService = new BookingService();
+        ReflectionTestUtils.setField(bookingService, "bookingRepository", bookingRepository);
+        ReflectionTestUtils.setField(bookingService, "bookingAdmission", bookingAdmission);
+        ReflectionTestUtils.setField(bookingService, "bookingDispatcher", bookingDispatcher);
+        ReflectionTestUtils.setField(bookingService, "mechanicCalendarIndex", mock(MechanicCalendarIndex.class));
+    }
+
+    @Test
+    void mechanicDrivesABookingToCompletion() {
+        booking.setStatus(Booking.BookingStatus.PENDING);
+
+        update(MECHANIC_ID, Booking.BookingStatus.ACCEPTED);
+        update(MECHANIC_ID, Booking.BookingStatus.IN_PROGRESS);
+        update(MECHANIC_ID, Booking.BookingStatus.COMPLETED);
+
+        assertEquals(Booking.BookingStatus.COMPLETED, booking.getStatus());
+        verify(bookingAdmission, never()).releaseSlots(anyLong());
+    }
+
+    @Test
+    void mechanicRejectsAPendingBooking() {
+        booking.setStatus(Booking.BookingStatus.PENDING);
+
+        update(MECHANIC_ID, Booking.BookingStatus.REJECTED);
+
+        verify(bookingAdmission).releaseSlots(BOOKING_ID);
+    }
+
+    @Test
+    void mechanicCannotMoveABookingBack() {
+        assertRejected(Booking.BookingStatus.COMPLETED, MECHANIC_ID, Booking.BookingStatus.PENDING);
+        assertRejected(Booking.BookingStatus.IN_PROGRESS, MECHANIC_ID, Booking.BookingStatus.ACCEPTED);
+        assertRejected(Booking.BookingStatus.ACCEPTED, MECHANIC_ID, Booking.BookingStatus.REJECTED);
+        assertRejected(Booking.BookingStatus.PENDING, MECHANIC_ID, Booking.BookingStatus.COMPLETED);
+    }
+
+    @Test
+    void customerCancelsAnAcceptedBooking() {
+        booking.setStatus(Booking.BookingStatus.ACCEPTED);
+
+        update(CUSTOMER_ID, Booking.BookingStatus.CANCELLED);
+
+        verify(bookingAdmission).releaseSlots(BOOKING_ID);
+        verify(bookingDispatcher).cancel(BOOKING_ID);
+    }
+
+    @Test
+    void customerCannotCancelAStartedOrFinishedBooking() {
+        assertRejected(Booking.BookingStatus.IN_PROGRESS, CUSTOMER_ID, Booking.BookingStatus.CANCELLED);
+        assertRejected(Booking.BookingStatus.COMPLETED, CUSTOMER_ID, Booking.BookingStatus.CANCELLED);
+        assertRejected(Booking.BookingStatus.PENDING, CUSTOMER_ID, Booking.BookingStatus.ACCEPTED);
+    }
+
+    @Test
+    void otherUsersCannotSeeTheBooking() {
+        booking.setStatus(Booking.BookingStatus.PENDING);
+
+        RuntimeException e = assertThrows(RuntimeException.class,
+            () -> update(99L, Booking.BookingStatus.CANCELLED));
+        assertEquals("Booking not found", e.getMessage());
+    }
+
+    private void update(long userId, Booking.BookingStatus status) {
+        bookingService.updateBookingStatus(BOOKING_ID, userId, status);
+    }
+
+    private void assertRejected(Booking.BookingStatus from, long userId, Booking.BookingStatus to) {
+        booking.setStatus(from);
+
+        assertThrows(RuntimeException.class, () -> update(userId, to));
+        assertEquals(from, booking.getStatus());
+        verify(bookingAdmission, never()).releaseSlots(anyLong());
+    }
+
+    private static User user(long id) {
+        User user = new User();
+        user.setId(id);
+        return user;
+    }
+}
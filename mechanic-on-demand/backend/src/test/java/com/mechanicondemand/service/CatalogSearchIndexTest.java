@@ -0,0 +1,151 @@
+package com.mechanicondemand.service;
+
+import com.mechanicondemand.repository.MechanicServiceRepository;
+import com.mechanicondemand.repository.UserRepository;
+import com.mechanicondemand.service.CatalogSearchIndex.Kind;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CatalogSearchIndexTest {
+
+    private CatalogSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new CatalogSearchIndex();
+        ReflectionTestUtils.setField(index, "nameWeight", 3.0);
+        ReflectionTestUtils.setField(index, "descriptionWeight", 1.0);
+
+        index.put(Kind.SERVICE, 1, "Brake Repair", "Pads and discs", 0);
+        index.put(Kind.SERVICE, 2, "Brakes service", null, 0);
+        index.put(Kind.SERVICE, 3, "Handbrake fix", null, 0);
+        index.put(Kind.SERVICE, 4, "Oil change", "Includes a brake check", 0);
+        index.put(Kind.SERVICE, 5, "Tyre rotation", null, 0);
+    }
+
+    @Test
+    void wholeWordsRankAbovePrefixesAboveSubstrings() {
+        // 1: whole word in the name, 2: prefix, 3 and 4: substring in the name / whole word in the description
+        assertEquals(Arrays.asList(1L, 2L, 3L, 4L), index.searchIds("brake", Kind.SERVICE, 10));
+    }
+
+    @Test
+    void limitKeepsTheBestHits() {
+        assertEquals(Arrays.asList(1L, 2L), index.searchIds("BRAKE", Kind.SERVICE, 2));
+    }
+
+    @Test
+    void everyQueryTermMustMatch() {
+        assertEquals(Collections.singletonList(3L), index.searchIds("brake fix", Kind.SERVICE, 10));
+        assertTrue(index.searchIds("brake tyre", Kind.SERVICE, 10).isEmpty());
+    }
+
+    @Test
+    void shortTermsOnlyMatchWordPrefixes() {
+        // "handbrake" contains "br" but does not start with it
+        assertEquals(Arrays.asList(1L, 2L, 4L), index.searchIds("br", Kind.SERVICE, 10));
+    }
+
+    @Test
+    void tiesGoToTheHigherBoostThenTheLowerId() {
+        index.put(Kind.MECHANIC, 12, "Brake specialist", null, 4.5);
+        index.put(Kind.MECHANIC, 11, "Brake specialist", null, 3.0);
+        index.put(Kind.MECHANIC, 10, "Brake specialist", null, 4.5);
+
+        assertEquals(Arrays.asList(10L, 12L, 11L), index.searchIds("brake", Kind.MECHANIC, 10));
+    }
+
+    @Test
+    void kindFilterSeparatesServicesAndMechanics() {
+        index.put(Kind.MECHANIC, 1, "Brake specialist", null, 5.0);
+
+        assertEquals(Collections.singletonList(1L), index.searchIds("specialist", Kind.MECHANIC, 10));
+        assertTrue(index.searchIds("specialist", Kind.SERVICE, 10).isEmpty());
+        assertEquals(5, index.search("brake", null, 10).size());
+    }
+
+    @Test
+    void removedDocumentsAreNoLongerFound() {
+        index.remove(Kind.SERVICE, 1);
+
+        assertEquals(Arrays.asList(2L, 3L, 4L), index.searchIds("brake", Kind.SERVICE, 10));
+        assertTrue(index.searchIds("repair", Kind.SERVICE, 10).isEmpty());
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void reindexingReplacesTheOldText() {
+        index.put(Kind.SERVICE, 1, "Clutch repair", null, 0);
+
+        assertEquals(Arrays.asList(2L, 3L, 4L), index.searchIds("brake", Kind.SERVICE, 10));
+        assertEquals(Collections.singletonList(1L), index.searchIds("clutch", Kind.SERVICE, 10));
+        assertEquals(5, index.size());
+    }
+
+    @Test
+    void unavailableServicesAreRemoved() {
+        index.updateService(5, null, "Tyre rotation", null, false);
+
+        assertTrue(index.searchIds("tyre", Kind.SERVICE, 10).isEmpty());
+    }
+
+    @Test
+    void servicesAreBoostedByTheirMechanicsRatingOnRebuildAndUpdate() {
+        // [serviceId, serviceName, description, mechanicId, mechanic rating]
+        MechanicServiceRepository mechanicServiceRepository = mock(MechanicServiceRepository.class);
+        when(mechanicServiceRepository.findSearchDocuments()).thenReturn(Arrays.asList(
+            new Object[] {20L, "Wheel alignment", null, 7L, new BigDecimal("3.9")},
+            new Object[] {21L, "Wheel alignment", null, 8L, new BigDecimal("4.8")}));
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findMechanicSearchDocuments()).thenReturn(Collections.emptyList());
+        ReflectionTestUtils.setField(index, "mechanicServiceRepository", mechanicServiceRepository);
+        ReflectionTestUtils.setField(index, "userRepository", userRepository);
+        ReflectionTestUtils.setField(index, "enabled", true);
+
+        index.rebuild();
+        assertEquals(Arrays.asList(21L, 20L), index.searchIds("alignment", Kind.SERVICE, 10));
+
+        index.updateService(21L, 8L, "Wheel alignment", "Front and rear", true);
+        List<CatalogSearchIndex.Hit> hits = index.search("alignment", Kind.SERVICE, 10);
+        assertEquals(21L, hits.get(0).getId());
+        assertEquals(4.8, hits.get(0).getBoost());
+    }
+
+    @Test
+    void writesDuringARebuildWinOverTheSnapshot() {
+        MechanicServiceRepository mechanicServiceRepository = mock(MechanicServiceRepository.class);
+        UserRepository userRepository = mock(UserRepository.class);
+        ReflectionTestUtils.setField(index, "mechanicServiceRepository", mechanicServiceRepository);
+        ReflectionTestUtils.setField(index, "userRepository", userRepository);
+        ReflectionTestUtils.setField(index, "enabled", true);
+
+        // The snapshot is read while service 1 is renamed and service 5 becomes unavailable
+        when(mechanicServiceRepository.findSearchDocuments()).thenAnswer(invocation -> {
+            index.updateService(1L, 7L, "Clutch repair", null, true);
+            index.updateService(5L, 7L, "Tyre rotation", null, false);
+            return Arrays.asList(
+                new Object[] {1L, "Brake Repair", null, 7L, new BigDecimal("4.0")},
+                new Object[] {5L, "Tyre rotation", null, 7L, new BigDecimal("4.0")},
+                new Object[] {6L, "Wheel alignment", null, 7L, new BigDecimal("4.0")});
+        });
+        when(userRepository.findMechanicSearchDocuments()).thenReturn(Collections.emptyList());
+
+        index.rebuild();
+
+        assertEquals(Collections.singletonList(1L), index.searchIds("clutch", Kind.SERVICE, 10));
+        assertTrue(index.searchIds("brake", Kind.SERVICE, 10).isEmpty());
+        assertTrue(index.searchIds("tyre", Kind.SERVICE, 10).isEmpty());
+        assertEquals(2, index.size());
+    }
+}
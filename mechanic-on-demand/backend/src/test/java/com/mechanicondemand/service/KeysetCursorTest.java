@@ -0,0 +1,58 @@
+package com.mechanicondemand.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class KeysetCursorTest {
+
+    @Test
+    void encodedCursorDecodesToTheSamePosition() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 3, 9, 17, 45, 12, 123456000);
+        KeysetCursor cursor = new KeysetCursor(createdAt, 9876543210L);
+
+        KeysetCursor decoded = KeysetCursor.decode(cursor.encode());
+
+        assertEquals(createdAt, decoded.getCreatedAt());
+        assertEquals(9876543210L, decoded.getId());
+    }
+
+    @Test
+    void encodedCursorIsUrlSafe() {
+        String encoded = new KeysetCursor(LocalDateTime.of(2024, 1, 1, 0, 0), 1L).encode();
+
+        assertFalse(encoded.contains("="));
+        assertFalse(encoded.contains("+"));
+        assertFalse(encoded.contains("/"));
+    }
+
+    @Test
+    void missingCursorMeansTheFirstPage() {
+        assertSame(KeysetCursor.FIRST, KeysetCursor.decode(null));
+        assertSame(KeysetCursor.FIRST, KeysetCursor.decode("  "));
+    }
+
+    @Test
+    void malformedCursorsAreRejected() {
+        assertInvalid("not base64!");
+        assertInvalid(encode("no separator"));
+        assertInvalid(encode("2024-01-01T00:00|abc"));
+        assertInvalid(encode("yesterday|5"));
+    }
+
+    private static void assertInvalid(String cursor) {
+        RuntimeException e = assertThrows(RuntimeException.class, () -> KeysetCursor.decode(cursor));
+        assertEquals("Invalid cursor", e.getMessage());
+    }
+
+    private static String encode(String value) {
+        return Base64.getUrlEncoder().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,110 @@
+package com.mechanicondemand.service;
+
+import com.mechanicondemand.entity.Booking;
+import com.mechanicondemand.entity.MechanicService;
+import com.mechanicondemand.entity.User;
+import com.mechanicondemand.repository.BookingRepository;
+import com.mechanicondemand.repository.MechanicServiceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MechanicCalendarIndexTest {
+
+    private MechanicServiceRepository mechanicServiceRepository;
+
+    private BookingRepository bookingRepository;
+
+    private MechanicCalendarIndex calendarIndex;
+
+    @BeforeEach
+    void setUp() {
+        mechanicServiceRepository = mock(MechanicServiceRepository.class);
+        when(mechanicServiceRepository.findServiceDurations()).thenReturn(Collections.emptyList());
+        when(mechanicServiceRepository.findServiceDuration(any())).thenReturn(Collections.emptyList());
+
+        bookingRepository = mock(BookingRepository.class);
+        when(bookingRepository.findCalendarEntries(any(), any(), any())).thenReturn(Collections.emptyList());
+
+        calendarIndex = new MechanicCalendarIndex();
+        ReflectionTestUtils.setField(calendarIndex, "bookingRepository", bookingRepository);
+        ReflectionTestUtils.setField(calendarIndex, "mechanicServiceRepository", mechanicServiceRepository);
+        ReflectionTestUtils.setField(calendarIndex, "horizonDays", 30);
+        ReflectionTestUtils.setField(calendarIndex, "dayStart", "08:00");
+        ReflectionTestUtils.setField(calendarIndex, "dayEnd", "20:00");
+        ReflectionTestUtils.setField(calendarIndex, "defaultDurationMinutes", 60);
+        ReflectionTestUtils.setField(calendarIndex, "unknownServiceTtlMs", 60000L);
+        ReflectionTestUtils.setField(calendarIndex, "unknownServiceMaxSize", 100);
+        calendarIndex.init();
+        calendarIndex.rebuild();
+    }
+
+    @Test
+    void unknownServiceIsLookedUpOnce() {
+        for (int i = 0; i < 5; i++) {
+            assertNull(calendarIndex.getServiceMechanicId(42L));
+        }
+
+        verify(mechanicServiceRepository, times(1)).findServiceDuration(42L);
+    }
+
+    @Test
+    void serviceCreatedAfterStartupIsLoadedOnce() {
+        when(mechanicServiceRepository.findServiceDuration(7L))
+            .thenReturn(Collections.singletonList(new Object[] {7L, 3L, 90}));
+
+        assertEquals(3L, calendarIndex.getServiceMechanicId(7L));
+        assertEquals(6, calendarIndex.slotCount(7L));
+
+        verify(mechanicServiceRepository, times(1)).findServiceDuration(7L);
+    }
+
+    @Test
+    void bookingWritesDuringARebuildWinOverTheSnapshot() {
+        LocalDate date = LocalDate.now().plusDays(1);
+        when(mechanicServiceRepository.findServiceDuration(9L))
+            .thenReturn(Collections.singletonList(new Object[] {9L, 3L, 60}));
+
+        // The snapshot is read while booking 1 is cancelled and booking 2 is made
+        when(bookingRepository.findCalendarEntries(any(), any(), any())).thenAnswer(invocation -> {
+            calendarIndex.update(booking(1L, date, LocalTime.of(9, 0), Booking.BookingStatus.CANCELLED));
+            calendarIndex.update(booking(2L, date, LocalTime.of(14, 0), Booking.BookingStatus.PENDING));
+            return Collections.singletonList(new Object[] {1L, 3L, date, LocalTime.of(9, 0), 9L});
+        });
+
+        calendarIndex.rebuild();
+
+        assertTrue(calendarIndex.isFree(3L, date, MechanicCalendarIndex.slotOf(LocalTime.of(9, 0)), 4));
+        assertFalse(calendarIndex.isFree(3L, date, MechanicCalendarIndex.slotOf(LocalTime.of(14, 0)), 4));
+    }
+
+    private static Booking booking(Long id, LocalDate date, LocalTime time, Booking.BookingStatus status) {
+        User mechanic = new User();
+        mechanic.setId(3L);
+        MechanicService service = new MechanicService();
+        service.setId(9L);
+
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setMechanic(mechanic);
+        booking.setService(service);
+        booking.setBookingDate(date);
+        booking.setBookingTime(time);
+        booking.setStatus(status);
+        return booking;
+    }
+}
@@ -0,0 +1,104 @@
+package com.mechanicondemand.service;
+
+import com.mechanicondemand.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MechanicGeoIndexTest {
+
+    private UserRepository userRepository;
+
+    private MechanicGeoIndex index;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+
+        index = new MechanicGeoIndex();
+        ReflectionTestUtils.setField(index, "userRepository", userRepository);
+        ReflectionTestUtils.setField(index, "enabled", true);
+        ReflectionTestUtils.setField(index, "cellSizeDegrees", 0.05);
+        ReflectionTestUtils.setField(index, "coverageCellSizeDegrees", 0.1);
+        ReflectionTestUtils.setField(index, "radiusCapKm", 50.0);
+        ReflectionTestUtils.setField(index, "distanceWeight", 1.0);
+        ReflectionTestUtils.setField(index, "ratingWeight", 2.0);
+        ReflectionTestUtils.setField(index, "rateWeight", 0.05);
+    }
+
+    @Test
+    void rebuildLoadsTheSnapshot() {
+        when(userRepository.findAvailableMechanicLocations())
+            .thenReturn(Arrays.asList(row(1L, 18.52, 73.85), row(2L, 18.53, 73.86)));
+
+        index.rebuild();
+
+        assertTrue(index.isReady());
+        assertEquals(Arrays.asList(1L, 2L), covering(18.52, 73.85));
+    }
+
+    @Test
+    void writesDuringARebuildWinOverTheSnapshot() {
+        index.put(1L, 18.52, 73.85, 4.0, 10.0, 10.0);
+        index.put(2L, 18.52, 73.85, 4.0, 10.0, 10.0);
+
+        // The snapshot is read while mechanic 1 goes offline and mechanic 2 moves away
+        when(userRepository.findAvailableMechanicLocations()).thenAnswer(invocation -> {
+            index.remove(1L);
+            index.move(2L, 19.07, 72.87);
+            return Arrays.asList(row(1L, 18.52, 73.85), row(2L, 18.52, 73.85), row(3L, 18.52, 73.85));
+        });
+
+        index.rebuild();
+
+        assertEquals(Collections.singletonList(3L), covering(18.52, 73.85));
+        assertEquals(Collections.singletonList(2L), covering(19.07, 72.87));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void writesAfterARebuildAreNotReplayedByTheNextOne() {
+        when(userRepository.findAvailableMechanicLocations())
+            .thenReturn(Collections.emptyList())
+            .thenReturn(Collections.singletonList(row(1L, 18.52, 73.85)));
+
+        index.rebuild();
+        index.remove(1L);
+        index.rebuild();
+
+        assertEquals(Collections.singletonList(1L), covering(18.52, 73.85));
+    }
+
+    @Test
+    void serviceRadiusIsCappedAtTheDispatchRadius() {
+        index.put(1L, 18.52, 73.85, 4.0, 10.0, 5000.0);
+
+        // About 120 km away: inside the profile's radius, outside the cap
+        assertTrue(covering(19.60, 73.85).isEmpty());
+        assertEquals(Collections.singletonList(1L), covering(18.80, 73.85));
+    }
+
+    private List<Long> covering(double latitude, double longitude) {
+        return index.findCovering(latitude, longitude, Double.MAX_VALUE).stream()
+            .map(MechanicGeoIndex.Match::getUserId)
+            .sorted()
+            .collect(Collectors.toList());
+    }
+
+    // [userId, currentLatitude, currentLongitude, rating, hourlyRate, serviceRadius]
+    private static Object[] row(Long userId, double latitude, double longitude) {
+        return new Object[] {userId, BigDecimal.valueOf(latitude), BigDecimal.valueOf(longitude),
+            new BigDecimal("4.0"), new BigDecimal("10.00"), 10};
+    }
+}
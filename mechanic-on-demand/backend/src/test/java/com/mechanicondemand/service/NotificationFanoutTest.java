@@ -0,0 +1,137 @@
+package com.mechanicondemand.service;
+
+import com.mechanicondemand.entity.Notification;
+import com.mechanicondemand.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Broadcasts against an in-memory list of active user ids; every JDBC batch
+ * and every committed chunk is recorded.
+ */
+class NotificationFanoutTest {
+
+    private static final int CHUNK_SIZE = 1000;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private NotificationFanout fanout;
+
+    private List<Long> activeUserIds;
+
+    // user ids of each JDBC batch, and how many chunks ran in their own transaction
+    private final List<List<Long>> batches = new ArrayList<>();
+    private int transactions;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), anyLong(), anyInt()))
+            .thenAnswer(invocation -> page(invocation.getArgument(2), invocation.getArgument(3)));
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            List<Object[]> rows = invocation.getArgument(1);
+            batches.add(rows.stream().map(row -> (Long) row[0]).collect(Collectors.toList()));
+            return new int[rows.size()];
+        });
+
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        doAnswer(invocation -> {
+            transactions++;
+            Consumer<TransactionStatus> action = invocation.getArgument(0);
+            action.accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        fanout = new NotificationFanout();
+        ReflectionTestUtils.setField(fanout, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(fanout, "transactionTemplate", transactionTemplate);
+        ReflectionTestUtils.setField(fanout, "chunkSize", CHUNK_SIZE);
+    }
+
+    @Test
+    void broadcastWritesOneCommittedBatchPerChunk() {
+        activeUserIds = ids(2500);
+
+        long written = fanout.broadcast("Maintenance", "Back soon", Notification.NotificationType.SYSTEM, null);
+
+        assertEquals(2500, written);
+        assertEquals(3, transactions);
+        assertEquals(Arrays.asList(1000, 1000, 500),
+            batches.stream().map(List::size).collect(Collectors.toList()));
+        assertEquals(activeUserIds, batches.stream().flatMap(List::stream).collect(Collectors.toList()));
+    }
+
+    @Test
+    void broadcastStopsOnAnEmptyPageAfterFullChunks() {
+        activeUserIds = ids(2000);
+
+        assertEquals(2000, fanout.broadcast("Hello", "World", Notification.NotificationType.SYSTEM, null));
+        assertEquals(2, batches.size());
+    }
+
+    @Test
+    void broadcastToNobodyWritesNothing() {
+        activeUserIds = new ArrayList<>();
+
+        assertEquals(0, fanout.broadcast("Hello", "World", Notification.NotificationType.SYSTEM, null));
+        assertEquals(0, transactions);
+    }
+
+    @Test
+    void broadcastByTypePagesTheTypedQuery() {
+        activeUserIds = ids(1200);
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq("MECHANIC"), anyLong(), anyInt()))
+            .thenAnswer(invocation -> page(invocation.getArgument(3), invocation.getArgument(4)));
+
+        long written = fanout.broadcast("Hello", "Mechanics", Notification.NotificationType.SYSTEM,
+            User.UserType.MECHANIC);
+
+        assertEquals(1200, written);
+        assertEquals(2, batches.size());
+    }
+
+    @Test
+    void secondBroadcastIsRejectedWhileOneIsRunning() {
+        activeUserIds = ids(10);
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), anyLong(), anyInt())).thenAnswer(invocation -> {
+            assertThrows(NotificationFanout.BroadcastInProgressException.class,
+                () -> fanout.broadcast("Again", "Again", Notification.NotificationType.SYSTEM, null));
+            return page(invocation.getArgument(2), invocation.getArgument(3));
+        });
+
+        assertEquals(10, fanout.broadcast("Hello", "World", Notification.NotificationType.SYSTEM, null));
+        // The guard is released once the broadcast finishes
+        assertEquals(10, fanout.broadcast("Hello", "World", Notification.NotificationType.SYSTEM, null));
+    }
+
+    private List<Long> page(long afterId, int limit) {
+        return activeUserIds.stream().filter(id -> id > afterId).limit(limit).collect(Collectors.toList());
+    }
+
+    private static List<Long> ids(int count) {
+        return LongStream.rangeClosed(1, count).boxed().collect(Collectors.toList());
+    }
+}
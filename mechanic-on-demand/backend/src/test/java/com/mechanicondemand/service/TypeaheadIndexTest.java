@@ -0,0 +1,132 @@
+package com.mechanicondemand.service;
+
+import com.mechanicondemand.entity.ServiceCategory;
+import com.mechanicondemand.repository.BookingReportRepository;
+import com.mechanicondemand.repository.MechanicServiceRepository;
+import com.mechanicondemand.repository.ServiceCategoryRepository;
+import com.mechanicondemand.repository.UserRepository;
+import com.mechanicondemand.service.TypeaheadIndex.Kind;
+import com.mechanicondemand.service.TypeaheadIndex.Suggestion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Suggestions built from mocked repositories:
+ * - categories Brakes (75 bookings) and Engine (30)
+ * - services "Brake pad replacement" (offered twice, 50 + 5), "Brake fluid flush" (20), "Engine tune-up" (30)
+ * - specializations "Brake systems" (80) and "Engine diagnostics" (25)
+ */
+class TypeaheadIndexTest {
+
+    private TypeaheadIndex index;
+
+    @BeforeEach
+    void setUp() {
+        ServiceCategoryRepository serviceCategoryRepository = mock(ServiceCategoryRepository.class);
+        when(serviceCategoryRepository.findByIsActiveTrueOrderByName())
+            .thenReturn(Arrays.asList(category(1L, "Brakes"), category(2L, "Engine")));
+
+        MechanicServiceRepository mechanicServiceRepository = mock(MechanicServiceRepository.class);
+        when(mechanicServiceRepository.findAvailableServiceNames()).thenReturn(Arrays.asList(
+            new Object[] {10L, "Brake pad replacement"},
+            new Object[] {11L, "Brake fluid flush"},
+            new Object[] {12L, "brake  PAD replacement "},
+            new Object[] {13L, "Engine tune-up"}));
+
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findMechanicSearchDocuments()).thenReturn(Arrays.asList(
+            new Object[] {100L, "Brake systems", null},
+            new Object[] {101L, "Engine diagnostics", null}));
+
+        // [serviceId, mechanicId, categoryId, bookings]
+        BookingReportRepository bookingReportRepository = mock(BookingReportRepository.class);
+        when(bookingReportRepository.countBookingsPerService(any())).thenReturn(Arrays.asList(
+            new long[] {10L, 100L, 1L, 50L},
+            new long[] {11L, 101L, 1L, 20L},
+            new long[] {12L, 101L, 1L, 5L},
+            new long[] {13L, 100L, 2L, 30L}));
+
+        index = new TypeaheadIndex();
+        ReflectionTestUtils.setField(index, "serviceCategoryRepository", serviceCategoryRepository);
+        ReflectionTestUtils.setField(index, "mechanicServiceRepository", mechanicServiceRepository);
+        ReflectionTestUtils.setField(index, "userRepository", userRepository);
+        ReflectionTestUtils.setField(index, "bookingReportRepository", bookingReportRepository);
+        ReflectionTestUtils.setField(index, "enabled", true);
+        ReflectionTestUtils.setField(index, "popularityDays", 90);
+    }
+
+    @Test
+    void nothingIsSuggestedBeforeTheFirstRefresh() {
+        assertFalse(index.isReady());
+        assertTrue(index.suggest("brake", 10).isEmpty());
+    }
+
+    @Test
+    void suggestionsAreOrderedByBookings() {
+        index.refresh();
+
+        List<Suggestion> suggestions = index.suggest("bra", 10);
+
+        assertEquals(Arrays.asList("Brake systems", "Brakes", "Brake pad replacement", "Brake fluid flush"),
+            texts(suggestions));
+        assertEquals(Arrays.asList(80L, 75L, 55L, 20L),
+            suggestions.stream().map(Suggestion::getBookings).collect(Collectors.toList()));
+        assertEquals(Kind.SPECIALIZATION, suggestions.get(0).getType());
+    }
+
+    @Test
+    void limitKeepsTheTopSuggestions() {
+        index.refresh();
+
+        assertEquals(Arrays.asList("Brake systems", "Brakes"), texts(index.suggest("B", 2)));
+    }
+
+    @Test
+    void tiesGoToCategoriesFirst() {
+        index.refresh();
+
+        assertEquals(Arrays.asList("Engine", "Engine tune-up", "Engine diagnostics"), texts(index.suggest("eng", 10)));
+    }
+
+    @Test
+    void laterWordsOfASuggestionMatchOnce() {
+        index.refresh();
+
+        assertEquals(Collections.singletonList("Brake pad replacement"), texts(index.suggest("pad", 10)));
+        assertEquals(Collections.singletonList("Brake fluid flush"), texts(index.suggest("fl", 10)));
+        assertEquals(Collections.singletonList("Engine tune-up"), texts(index.suggest("up", 10)));
+    }
+
+    @Test
+    void unmatchedOrEmptyPrefixesSuggestNothing() {
+        index.refresh();
+
+        assertTrue(index.suggest("clutch", 10).isEmpty());
+        assertTrue(index.suggest("  ", 10).isEmpty());
+        assertTrue(index.suggest("brake", 0).isEmpty());
+    }
+
+    private static List<String> texts(List<Suggestion> suggestions) {
+        return suggestions.stream().map(Suggestion::getText).collect(Collectors.toList());
+    }
+
+    private static ServiceCategory category(Long id, String name) {
+        ServiceCategory category = new ServiceCategory();
+        category.setId(id);
+        category.setName(name);
+        return category;
+    }
+}
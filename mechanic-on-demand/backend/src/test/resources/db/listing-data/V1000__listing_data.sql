@@ -0,0 +1,27 @@
+-- Test data for ListingStatementCountTest (applied after the real migrations)
+-- 10 mechanics with 3 brake services each, and a customer with 15 bookings:
+-- enough rows that one query per row would break the statement limit
+
+INSERT INTO users (id, username, email, password, first_name, last_name, user_type)
+WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < 10)
+SELECT n, CONCAT('mechanic', n), CONCAT('mechanic', n, '@example.com'), 'x', 'Mechanic', CONCAT('No', n), 'MECHANIC'
+FROM seq;
+
+INSERT INTO users (id, username, email, password, first_name, last_name, user_type)
+VALUES (100, 'customer', 'customer@example.com', 'x', 'Test', 'Customer', 'CUSTOMER');
+
+INSERT INTO mechanic_profiles (user_id, specialization, hourly_rate, rating, is_available,
+                               current_latitude, current_longitude, service_radius)
+SELECT id, 'Brake specialist', 40, 4.5, TRUE, 18.52 + id / 1000, 73.85, 25
+FROM users WHERE user_type = 'MECHANIC';
+
+-- Service n belongs to mechanic ((n - 1) DIV 3) + 1, all in Brake Service (category 2)
+INSERT INTO mechanic_services (id, mechanic_id, category_id, service_name, base_price, estimated_duration)
+WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < 30)
+SELECT n, (n - 1) DIV 3 + 1, 2, CONCAT('Brake job ', n), 50, 60
+FROM seq;
+
+INSERT INTO bookings (customer_id, mechanic_id, service_id, booking_date, booking_time, status, total_amount, address)
+WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < 15)
+SELECT 100, (n - 1) DIV 3 + 1, n, CURDATE() + INTERVAL n DAY, '10:00:00', 'PENDING', 50, 'Test address'
+FROM seq;
@@ -1,5 +1,11 @@
 -- Database Schema for Mechanic On Demand Application
 -- This script creates all necessary tables for the application
+--
+-- The schema is owned by the Flyway migrations in
+-- backend/src/main/resources/db/migration. This file is the same as the
+-- V1 baseline (used to initialise the Docker database); on first start the
+-- application baselines such a database at version 1 and applies the later
+-- migrations. Do not add later changes here, add a new migration instead.
 
 -- Create database (run this first)
 CREATE DATABASE IF NOT EXISTS mechanic_on_demand;
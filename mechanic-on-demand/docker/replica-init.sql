@@ -0,0 +1,10 @@
+-- Replicate the `mysql` service (see docker-compose.replica.yml)
+-- GTID auto-positioning copies everything from the start of the primary's binary log,
+-- so the schema and data arrive without a dump.
+CHANGE REPLICATION SOURCE TO
+    SOURCE_HOST = 'mysql',
+    SOURCE_USER = 'root',
+    SOURCE_PASSWORD = 'password',
+    SOURCE_AUTO_POSITION = 1,
+    GET_SOURCE_PUBLIC_KEY = 1;
+START REPLICA;
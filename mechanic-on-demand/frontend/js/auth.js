@@ -59,6 +59,7 @@ async function handleLogin(e) {
         
         // Store authentication data
         localStorage.setItem('authToken', response.token);
+        localStorage.setItem('refreshToken', response.refreshToken);
         localStorage.setItem('currentUser', JSON.stringify({
             id: response.id,
             username: response.username,
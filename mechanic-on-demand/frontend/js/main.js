@@ -216,7 +216,13 @@ async function makeApiRequest(endpoint, options = {}) {
     const finalOptions = { ...defaultOptions, ...options };
     
     try {
-        const response = await fetch(url, finalOptions);
+        let response = await fetch(url, finalOptions);
+        
+        // Access tokens are short-lived: renew once with the refresh token and retry
+        if (response.status === 401 && authToken && !options.retried && await refreshTokens()) {
+            return makeApiRequest(endpoint, { ...options, retried: true });
+        }
+        
         const data = await response.json();
         
         if (!response.ok) {
@@ -230,11 +236,56 @@ async function makeApiRequest(endpoint, options = {}) {
     }
 }
 
+/**
+ * Exchange the stored refresh token for a new token pair
+ */
+async function refreshTokens() {
+    const refreshToken = localStorage.getItem('refreshToken');
+    if (!refreshToken) {
+        return false;
+    }
+    
+    try {
+        const response = await fetch(`${API_BASE_URL}/auth/refresh`, {
+            method: 'POST',
+            headers: { 'Content-Type': 'application/json' },
+            body: JSON.stringify({ refreshToken })
+        });
+        if (!response.ok) {
+            localStorage.removeItem('refreshToken');
+            return false;
+        }
+        
+        const tokens = await response.json();
+        localStorage.setItem('authToken', tokens.token);
+        localStorage.setItem('refreshToken', tokens.refreshToken);
+        authToken = tokens.token;
+        return true;
+    } catch (error) {
+        console.error('Token refresh failed:', error);
+        return false;
+    }
+}
+
 /**
  * Logout user
  */
 function logout() {
+    // Revoke the tokens on the server (best effort)
+    const refreshToken = localStorage.getItem('refreshToken');
+    if (authToken) {
+        fetch(`${API_BASE_URL}/auth/logout`, {
+            method: 'POST',
+            headers: {
+                'Content-Type': 'application/json',
+                Authorization: `Bearer ${authToken}`
+            },
+            body: JSON.stringify({ refreshToken })
+        }).catch(error => console.error('Logout request failed:', error));
+    }
+    
     localStorage.removeItem('authToken');
+    localStorage.removeItem('refreshToken');
     localStorage.removeItem('currentUser');
     authToken = null;
     currentUser = null;